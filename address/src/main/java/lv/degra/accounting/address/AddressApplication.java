@@ -3,13 +3,17 @@ package lv.degra.accounting.address;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import lv.degra.accounting.core.address.register.service.AddressRegisterService;
+import lv.degra.accounting.core.address.register.search.AddressSearchIndexService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.service.ImportJobService;
 
 @SpringBootApplication
 @ComponentScan(basePackages = { "lv.degra.accounting.core", "lv.degra.accounting.address" })
@@ -19,18 +23,25 @@ import lv.degra.accounting.core.address.register.service.AddressRegisterService;
 @EnableCaching
 public class AddressApplication {
 
-	private final AddressRegisterService addressRegisterService;
+	private final ImportJobService importJobService;
+	private final AddressSearchIndexService addressSearchIndexService;
 
-	public AddressApplication(AddressRegisterService addressRegisterService) {
-		this.addressRegisterService = addressRegisterService;
+	public AddressApplication(ImportJobService importJobService, AddressSearchIndexService addressSearchIndexService) {
+		this.importJobService = importJobService;
+		this.addressSearchIndexService = addressSearchIndexService;
 	}
 
 	public static void main(String[] args) {
 		SpringApplication.run(AddressApplication.class, args);
 	}
 
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildAddressSearchIndex() {
+		addressSearchIndexService.rebuild();
+	}
+
 	@Scheduled(cron = "${application.address-download-cron}")
 	private void scheduleTaskUsingCronExpression() {
-		addressRegisterService.importData();
+		importJobService.submit(ImportJobType.ADDRESS_REGISTER);
 	}
 }
\ No newline at end of file
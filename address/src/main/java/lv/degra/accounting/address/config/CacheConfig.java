@@ -0,0 +1,49 @@
+package lv.degra.accounting.address.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lv.degra.accounting.core.address.register.model.CustomAddressRegisterSearchRepositoryImpl;
+import lv.degra.accounting.core.address.register.search.AddressRegisterSearchFilter;
+import lv.degra.accounting.core.address.register.service.AddressRegisterServiceImpl;
+import lv.degra.accounting.core.system.cache.PrefixSearchCache;
+
+@Configuration
+public class CacheConfig {
+
+	@Value("${application.address-search-cache.maximum-weight}")
+	private long addressSearchCacheMaximumWeight;
+
+	@Value("${application.address-search-cache.ttl}")
+	private Duration addressSearchCacheTtl;
+
+	@Bean
+	public CacheManager cacheManager() {
+		Cache<Object, Object> searchResults = Caffeine.newBuilder()
+				.maximumWeight(addressSearchCacheMaximumWeight)
+				.weigher(CacheConfig::weighSearchResult)
+				.expireAfterWrite(addressSearchCacheTtl)
+				.recordStats()
+				.build();
+		PrefixSearchCache<?> addressRegisterCache = new PrefixSearchCache<>(AddressRegisterServiceImpl.ADDRESS_REGISTER_CACHE, searchResults,
+				CustomAddressRegisterSearchRepositoryImpl.MAX_RESULTS, new AddressRegisterSearchFilter());
+
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(List.of(addressRegisterCache));
+		return cacheManager;
+	}
+
+	private static int weighSearchResult(Object key, Object value) {
+		return value instanceof Collection<?> results ? results.size() + 1 : 1;
+	}
+}
@@ -3,13 +3,19 @@ package lv.degra.accounting.address.controller;
 import static lv.degra.accounting.core.config.ApiConstants.BASE_API_URL;
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_ADDRESS;
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_JOB;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_JOB_RESUME;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_LOCK;
 
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -20,6 +26,10 @@ import io.swagger.v3.oas.annotations.Hidden;
 import lv.degra.accounting.core.address.register.model.AddressRegister;
 import lv.degra.accounting.core.address.register.service.AddressRegisterService;
 import lv.degra.accounting.core.address.register.view.AddressPublicView;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.service.ImportJobService;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
 
 @RestController
 @RequestMapping(BASE_API_URL + ENDPOINT_ADDRESS)
@@ -27,17 +37,44 @@ public class AddressRegisterController {
 
 	public static final String SEARCH = "/search";
 	private final AddressRegisterService addressRegisterService;
+	private final ImportJobService importJobService;
 
 	@Autowired
-	public AddressRegisterController(AddressRegisterService addressRegisterService) {
+	public AddressRegisterController(AddressRegisterService addressRegisterService, ImportJobService importJobService) {
 		this.addressRegisterService = addressRegisterService;
-
+		this.importJobService = importJobService;
 	}
 
 	@Hidden
 	@GetMapping(value = ENDPOINT_IMPORT)
-	public void importData() {
-		addressRegisterService.importData();
+	public ResponseEntity<ImportJob> importData() {
+		return new ResponseEntity<>(importJobService.submit(ImportJobType.ADDRESS_REGISTER), HttpStatus.ACCEPTED);
+	}
+
+	@Hidden
+	@GetMapping(value = ENDPOINT_IMPORT_LOCK)
+	public ResponseEntity<ClusterLock> getImportLock() {
+		return importJobService.getLock(ImportJobType.ADDRESS_REGISTER)
+				.map(lock -> new ResponseEntity<>(lock, HttpStatus.OK))
+				.orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+	}
+
+	@Hidden
+	@GetMapping(value = ENDPOINT_IMPORT_JOB)
+	public ResponseEntity<ImportJob> getImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.get(id), HttpStatus.OK);
+	}
+
+	@Hidden
+	@DeleteMapping(value = ENDPOINT_IMPORT_JOB)
+	public ResponseEntity<ImportJob> cancelImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.cancel(id), HttpStatus.ACCEPTED);
+	}
+
+	@Hidden
+	@PostMapping(value = ENDPOINT_IMPORT_JOB_RESUME)
+	public ResponseEntity<ImportJob> resumeImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.resume(id), HttpStatus.ACCEPTED);
 	}
 
 	@GetMapping(value = SEARCH)
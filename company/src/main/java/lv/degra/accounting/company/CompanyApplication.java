@@ -3,13 +3,15 @@ package lv.degra.accounting.company;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
-import lv.degra.accounting.core.company.register.service.CompanyRegisterImportService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.service.ImportJobService;
 
 @SpringBootApplication
 @ComponentScan(basePackages = {"lv.degra.accounting.core", "lv.degra.accounting.company"})
@@ -17,13 +19,14 @@ import lv.degra.accounting.core.company.register.service.CompanyRegisterImportSe
 @EnableFeignClients(basePackages = "lv.degra.accounting.core.user.authorize.client")
 @EntityScan(basePackages = {"lv.degra.accounting.core"})
 @EnableScheduling
+@EnableCaching
 public class CompanyApplication {
 
-    private final CompanyRegisterImportService companyRegisterImportService;
+    private final ImportJobService importJobService;
 
 
-    public CompanyApplication(CompanyRegisterImportService companyRegisterImportService) {
-        this.companyRegisterImportService = companyRegisterImportService;
+    public CompanyApplication(ImportJobService importJobService) {
+        this.importJobService = importJobService;
     }
 
     public static void main(String[] args) {
@@ -32,7 +35,7 @@ public class CompanyApplication {
 
     @Scheduled(cron = "${application.company-download-cron}")
     private void scheduleTaskUsingCronExpression() {
-		companyRegisterImportService.importData();
+		importJobService.submit(ImportJobType.COMPANY_REGISTER);
 	}
 
 }
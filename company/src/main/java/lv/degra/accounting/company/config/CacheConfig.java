@@ -0,0 +1,48 @@
+package lv.degra.accounting.company.config;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lv.degra.accounting.core.company.register.service.CompanyRegisterSearchFilter;
+import lv.degra.accounting.core.company.register.service.CompanyRegisterServiceImpl;
+import lv.degra.accounting.core.system.cache.PrefixSearchCache;
+
+@Configuration
+public class CacheConfig {
+
+	@Value("${application.company-search-cache.maximum-weight}")
+	private long companySearchCacheMaximumWeight;
+
+	@Value("${application.company-search-cache.ttl}")
+	private Duration companySearchCacheTtl;
+
+	@Bean
+	public CacheManager cacheManager() {
+		Cache<Object, Object> searchResults = Caffeine.newBuilder()
+				.maximumWeight(companySearchCacheMaximumWeight)
+				.weigher(CacheConfig::weighSearchResult)
+				.expireAfterWrite(companySearchCacheTtl)
+				.recordStats()
+				.build();
+		PrefixSearchCache<?> companyRegisterCache = new PrefixSearchCache<>(CompanyRegisterServiceImpl.COMPANY_REGISTER_CACHE, searchResults,
+				CompanyRegisterServiceImpl.COMPANY_SUGGESTION_LIMIT, new CompanyRegisterSearchFilter());
+
+		SimpleCacheManager cacheManager = new SimpleCacheManager();
+		cacheManager.setCaches(List.of(companyRegisterCache));
+		return cacheManager;
+	}
+
+	private static int weighSearchResult(Object key, Object value) {
+		return value instanceof Collection<?> results ? results.size() + 1 : 1;
+	}
+}
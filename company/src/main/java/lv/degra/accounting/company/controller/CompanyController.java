@@ -1,28 +1,52 @@
 package lv.degra.accounting.company.controller;
 
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_COMPANY;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_LOOKUP;
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_SUGGESTIONS;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_SUGGESTIONS_STREAM;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterLookupDto;
 import lv.degra.accounting.core.company.register.service.CompanyRegisterService;
+import lv.degra.accounting.core.company.register.service.CompanyRegisterServiceImpl;
+import lv.degra.accounting.core.exception.InvalidRequestException;
 
 @RestController
+@Validated
 @RequestMapping(ENDPOINT_COMPANY)
 public class CompanyController {
 
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+	private static final String DEFAULT_PAGE_SIZE = "1000";
+
 	private final CompanyRegisterService companyRegisterService;
+	private final ObjectMapper objectMapper;
 
-	public CompanyController(CompanyRegisterService companyRegisterImportService) {
+	public CompanyController(CompanyRegisterService companyRegisterImportService, ObjectMapper objectMapper) {
 		this.companyRegisterService = companyRegisterImportService;
+		this.objectMapper = objectMapper;
 	}
 
 	@GetMapping(ENDPOINT_SUGGESTIONS)
@@ -30,4 +54,39 @@ public class CompanyController {
 		List<CompanyRegisterDto> suggestions = companyRegisterService.findByNameContainingIgnoreCase(query);
 		return ResponseEntity.ok(suggestions);
 	}
+
+	/**
+	 * One keyset page of suggestions as newline-delimited JSON, written while rows arrive from the database. The next
+	 * page is requested with the name and id of the last company received; an empty query pages the whole register.
+	 */
+	@GetMapping(value = ENDPOINT_SUGGESTIONS_STREAM, produces = APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamSuggestions(@RequestParam(defaultValue = "") String query,
+			@RequestParam(required = false) String afterName, @RequestParam(required = false) Long afterId,
+			@RequestParam(defaultValue = DEFAULT_PAGE_SIZE) @Min(1) @Max(CompanyRegisterServiceImpl.MAX_SUGGESTION_PAGE_SIZE) int limit) {
+		if ((afterName == null) != (afterId == null)) {
+			throw new InvalidRequestException("afterName and afterId must be given together");
+		}
+		StreamingResponseBody body = outputStream -> {
+			try (SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(outputStream)) {
+				companyRegisterService.streamSuggestions(query, afterName, afterId, limit, company -> {
+					try {
+						writer.write(company);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+	}
+
+	/**
+	 * Resolves a batch of registration numbers. The answer has one entry per requested number, in request order, with
+	 * misses flagged as not found.
+	 */
+	@PostMapping(ENDPOINT_LOOKUP)
+	public ResponseEntity<List<CompanyRegisterLookupDto>> lookup(
+			@RequestBody @Size(max = CompanyRegisterServiceImpl.MAX_LOOKUP_SIZE) List<String> registrationNumbers) {
+		return ResponseEntity.ok(companyRegisterService.lookupByRegistrationNumbers(registrationNumbers));
+	}
 }
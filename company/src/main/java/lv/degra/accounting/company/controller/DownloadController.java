@@ -2,26 +2,59 @@ package lv.degra.accounting.company.controller;
 
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_COMPANY;
 import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_JOB;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_JOB_RESUME;
+import static lv.degra.accounting.core.config.ApiConstants.ENDPOINT_IMPORT_LOCK;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import lv.degra.accounting.core.company.register.service.CompanyRegisterImportService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.service.ImportJobService;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
 
 @RestController
 @RequestMapping(ENDPOINT_COMPANY)
 public class DownloadController {
 
-	private final CompanyRegisterImportService companyRegisterImportService;
+	private final ImportJobService importJobService;
 
-	public DownloadController(CompanyRegisterImportService companyRegisterImportService) {
-		this.companyRegisterImportService = companyRegisterImportService;
+	public DownloadController(ImportJobService importJobService) {
+		this.importJobService = importJobService;
 	}
 
 	@GetMapping(ENDPOINT_IMPORT)
-	public void downloadData() {
-		companyRegisterImportService.importData();
+	public ResponseEntity<ImportJob> downloadData() {
+		return new ResponseEntity<>(importJobService.submit(ImportJobType.COMPANY_REGISTER), HttpStatus.ACCEPTED);
+	}
+
+	@GetMapping(ENDPOINT_IMPORT_LOCK)
+	public ResponseEntity<ClusterLock> getImportLock() {
+		return importJobService.getLock(ImportJobType.COMPANY_REGISTER)
+				.map(lock -> new ResponseEntity<>(lock, HttpStatus.OK))
+				.orElseGet(() -> new ResponseEntity<>(HttpStatus.NO_CONTENT));
+	}
+
+	@GetMapping(ENDPOINT_IMPORT_JOB)
+	public ResponseEntity<ImportJob> getImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.get(id), HttpStatus.OK);
+	}
+
+	@DeleteMapping(ENDPOINT_IMPORT_JOB)
+	public ResponseEntity<ImportJob> cancelImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.cancel(id), HttpStatus.ACCEPTED);
+	}
+
+	@PostMapping(ENDPOINT_IMPORT_JOB_RESUME)
+	public ResponseEntity<ImportJob> resumeImportJob(@PathVariable Long id) {
+		return new ResponseEntity<>(importJobService.resume(id), HttpStatus.ACCEPTED);
 	}
 
 }
@@ -0,0 +1,33 @@
+package lv.degra.accounting.core.address;
+
+import lv.degra.accounting.core.address.register.model.AddressData;
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+
+public class AddressRegisterMapper {
+
+	public static AddressRegister toEntity(AddressData data) {
+		if (data == null) {
+			return null;
+		}
+
+		AddressRegister entity = new AddressRegister();
+		entity.setCode(toInteger(data.getCode()));
+		entity.setType(data.getType());
+		entity.setStatus(data.getStatus());
+		entity.setParentCode(toInteger(data.getParentCode()));
+		entity.setParentType(data.getParentType());
+		entity.setName(data.getName());
+		entity.setSortName(data.getSortName());
+		entity.setZip(data.getZip());
+		entity.setDateFrom(data.getDateFrom());
+		entity.setUpdateDatePublic(data.getDateUpdateAr());
+		entity.setDateTo(data.getDateTo());
+		entity.setFullAddress(data.getFullAddress());
+		entity.setTerritorialUnitCode(data.getTerritorialUnitCode());
+		return entity;
+	}
+
+	private static Integer toInteger(Long value) {
+		return value != null ? Math.toIntExact(value) : null;
+	}
+}
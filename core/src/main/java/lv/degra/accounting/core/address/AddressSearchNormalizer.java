@@ -0,0 +1,29 @@
+package lv.degra.accounting.core.address;
+
+import java.util.Locale;
+
+public class AddressSearchNormalizer {
+
+	public static final String FOLDED_CHARACTERS = "āčēģīķļņšūžĀČĒĢĪĶĻŅŠŪŽ";
+	public static final String FOLDED_REPLACEMENTS = "acegiklnsuzACEGIKLNSUZ";
+
+	private AddressSearchNormalizer() {
+	}
+
+	/**
+	 * Mirrors the generated address_register.search_address column: Latvian diacritics folded, lowercased.
+	 */
+	public static String normalize(String value) {
+		if (value == null) {
+			return null;
+		}
+
+		StringBuilder normalized = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char character = value.charAt(i);
+			int foldedIndex = FOLDED_CHARACTERS.indexOf(character);
+			normalized.append(foldedIndex >= 0 ? FOLDED_REPLACEMENTS.charAt(foldedIndex) : character);
+		}
+		return normalized.toString().toLowerCase(Locale.ROOT);
+	}
+}
@@ -0,0 +1,22 @@
+package lv.degra.accounting.core.address.register.enums;
+
+import java.util.Arrays;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ArImportMode {
+    FULL(false),
+    DELTA(true);
+
+    private final boolean includeErrorRecords;
+
+    public static ArImportMode getByName(String name) {
+        return Arrays.stream(values())
+                .filter(value -> value.name().equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(FULL);
+    }
+}
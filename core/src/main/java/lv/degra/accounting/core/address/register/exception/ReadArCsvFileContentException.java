@@ -4,4 +4,8 @@ public class ReadArCsvFileContentException extends RuntimeException {
 	public ReadArCsvFileContentException(String message) {
 		super(message);
 	}
+
+	public ReadArCsvFileContentException(String message, Throwable cause) {
+		super(message, cause);
+	}
 }
@@ -1,5 +1,36 @@
 package lv.degra.accounting.core.address.register.model;
 
+import java.time.LocalDate;
+
 public interface AddressData {
 
+	Long getCode();
+
+	Integer getType();
+
+	String getName();
+
+	Long getParentCode();
+
+	Integer getParentType();
+
+	String getStatus();
+
+	String getSortName();
+
+	LocalDate getDateFrom();
+
+	LocalDate getDateUpdateAr();
+
+	LocalDate getDateTo();
+
+	String getFullAddress();
+
+	default String getZip() {
+		return null;
+	}
+
+	default Integer getTerritorialUnitCode() {
+		return null;
+	}
 }
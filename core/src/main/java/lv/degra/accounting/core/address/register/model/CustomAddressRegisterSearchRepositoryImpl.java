@@ -1,42 +1,60 @@
 package lv.degra.accounting.core.address.register.model;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.Query;
+import lv.degra.accounting.core.address.AddressSearchNormalizer;
 
 @Repository
 public class CustomAddressRegisterSearchRepositoryImpl implements CustomAddressRegisterSearchRepository {
 
-    @PersistenceContext
-    EntityManager entityManager;
+	public static final int MAX_RESULTS = 20;
+
+	@PersistenceContext
+	EntityManager entityManager;
 
 	@Override
+	@SuppressWarnings("unchecked")
 	public List<AddressRegister> searchByMultipleWords(String searchString) {
 		if (searchString == null || searchString.isBlank()) {
 			return new ArrayList<>();
 		}
 
-		String[] words = searchString.replace(",", "").split(" ");
-		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
-		CriteriaQuery<AddressRegister> query = cb.createQuery(AddressRegister.class);
-		Root<AddressRegister> root = query.from(AddressRegister.class);
+		String[] words = Arrays.stream(AddressSearchNormalizer.normalize(searchString.replace(",", " ")).trim().split("\\s+"))
+				.filter(word -> !word.isEmpty())
+				.toArray(String[]::new);
+		if (words.length == 0) {
+			return new ArrayList<>();
+		}
 
-		List<Predicate> predicates = new ArrayList<>();
-		for (String word : words) {
-			predicates.add(cb.like(cb.lower(root.get("fullAddress")), "%" + word.toLowerCase() + "%"));
+		Query query = entityManager.createNativeQuery(buildSearchSql(words.length), AddressRegister.class);
+		for (int i = 0; i < words.length; i++) {
+			query.setParameter(i + 1, "%" + escapeLikePattern(words[i]) + "%");
 		}
+		query.setParameter(words.length + 1, String.join(" ", words));
 
-		query.select(root).where(cb.and(predicates.toArray(new Predicate[0])));
+		return query.setMaxResults(MAX_RESULTS).getResultList();
+	}
 
-		return entityManager.createQuery(query).setMaxResults(20).getResultList();
+	static String buildSearchSql(int wordCount) {
+		StringBuilder sql = new StringBuilder("SELECT a.* FROM address_register a WHERE ");
+		for (int i = 1; i <= wordCount; i++) {
+			if (i > 1) {
+				sql.append(" AND ");
+			}
+			sql.append("a.search_address LIKE ?").append(i);
+		}
+		sql.append(" ORDER BY similarity(a.search_address, ?").append(wordCount + 1).append(") DESC, a.full_address");
+		return sql.toString();
 	}
 
+	private static String escapeLikePattern(String word) {
+		return word.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
 }
@@ -0,0 +1,99 @@
+package lv.degra.accounting.core.address.register.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import lv.degra.accounting.core.address.AddressSearchNormalizer;
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+import lv.degra.accounting.core.system.cache.PrefixSearchFilter;
+import lv.degra.accounting.core.utils.TrigramSimilarity;
+
+/**
+ * Replays the matching and ordering of the backend that produced a cached address result. The cache key names the
+ * backend: {@link AddressSearchIndex} matches word prefixes of address tokens and ranks the shortest address first,
+ * CustomAddressRegisterSearchRepositoryImpl matches substrings and ranks by trigram similarity. A result is only narrowed
+ * from a shorter query answered by the same backend, so a query returns the same rows in the same order whether or not
+ * it was derived from the cache.
+ */
+public class AddressRegisterSearchFilter implements PrefixSearchFilter<AddressRegister> {
+
+	public static final String INDEX_KEY_PREFIX = "index:";
+	public static final String DATABASE_KEY_PREFIX = "database:";
+
+	public static String toCacheKey(boolean indexed, String searchString) {
+		return (indexed ? INDEX_KEY_PREFIX : DATABASE_KEY_PREFIX) + searchString;
+	}
+
+	/**
+	 * A query without any search words has no results, which says nothing about the results of a longer one.
+	 */
+	@Override
+	public boolean canNarrow(String broaderKey, String narrowerKey) {
+		if (!narrowerKey.startsWith(broaderKey)) {
+			return false;
+		}
+		if (broaderKey.startsWith(INDEX_KEY_PREFIX)) {
+			return !AddressSearchIndex.tokenize(toQuery(broaderKey)).isEmpty();
+		}
+		return broaderKey.startsWith(DATABASE_KEY_PREFIX) && !toWords(toQuery(broaderKey)).isEmpty();
+	}
+
+	@Override
+	public boolean matches(String key, AddressRegister address) {
+		if (address.getFullAddress() == null) {
+			return false;
+		}
+		return key.startsWith(INDEX_KEY_PREFIX) ?
+				matchesTokenPrefixes(toQuery(key), address.getFullAddress()) :
+				matchesSubstrings(toQuery(key), address.getFullAddress());
+	}
+
+	@Override
+	public Comparator<AddressRegister> ranking(String key) {
+		if (key.startsWith(INDEX_KEY_PREFIX)) {
+			return Comparator.<AddressRegister>comparingInt(address -> address.getFullAddress().getBytes(StandardCharsets.UTF_8).length)
+					.thenComparing(AddressRegister::getCode, Comparator.nullsLast(Comparator.naturalOrder()));
+		}
+		String normalizedQuery = String.join(" ", toWords(toQuery(key)));
+		return Comparator.<AddressRegister>comparingDouble(
+						address -> TrigramSimilarity.similarity(AddressSearchNormalizer.normalize(address.getFullAddress()),
+								normalizedQuery)).reversed()
+				.thenComparing(AddressRegister::getFullAddress, Comparator.nullsLast(Comparator.naturalOrder()));
+	}
+
+	private static boolean matchesTokenPrefixes(String query, String fullAddress) {
+		Set<String> addressTokens = AddressSearchIndex.tokenize(fullAddress);
+		for (String word : AddressSearchIndex.tokenize(query)) {
+			if (addressTokens.stream().noneMatch(token -> token.startsWith(word))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean matchesSubstrings(String query, String fullAddress) {
+		String searchAddress = AddressSearchNormalizer.normalize(fullAddress);
+		for (String word : toWords(query)) {
+			if (!searchAddress.contains(word)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static String toQuery(String key) {
+		if (key.startsWith(INDEX_KEY_PREFIX)) {
+			return key.substring(INDEX_KEY_PREFIX.length());
+		}
+		return key.startsWith(DATABASE_KEY_PREFIX) ? key.substring(DATABASE_KEY_PREFIX.length()) : key;
+	}
+
+	private static List<String> toWords(String query) {
+		return Arrays.stream(AddressSearchNormalizer.normalize(query.replace(",", " ")).trim().split("\\s+"))
+				.filter(word -> !word.isEmpty())
+				.toList();
+	}
+}
@@ -0,0 +1,256 @@
+package lv.degra.accounting.core.address.register.search;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import lv.degra.accounting.core.address.AddressSearchNormalizer;
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+
+/**
+ * Immutable token → posting-list index over address_register.full_address. Query words are matched against token
+ * prefixes, matches are intersected per word and ranked shortest address first. Results carry only code and full address.
+ */
+public class AddressSearchIndex {
+
+	private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+	private static final long STRING_OVERHEAD_BYTES = 40;
+
+	private final int[] codes;
+	private final byte[] addressBytes;
+	private final int[] addressOffsets;
+	private final String[] terms;
+	private final int[] postingOffsets;
+	private final int[] postings;
+
+	private AddressSearchIndex(int[] codes, byte[] addressBytes, int[] addressOffsets, String[] terms, int[] postingOffsets,
+			int[] postings) {
+		this.codes = codes;
+		this.addressBytes = addressBytes;
+		this.addressOffsets = addressOffsets;
+		this.terms = terms;
+		this.postingOffsets = postingOffsets;
+		this.postings = postings;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public int size() {
+		return codes.length;
+	}
+
+	public int getTermCount() {
+		return terms.length;
+	}
+
+	public long getMemoryFootprint() {
+		long termBytes = 0;
+		for (String term : terms) {
+			termBytes += STRING_OVERHEAD_BYTES + term.length();
+		}
+		return Integer.BYTES * ((long) codes.length + addressOffsets.length + postingOffsets.length + postings.length)
+				+ addressBytes.length + termBytes;
+	}
+
+	public List<AddressRegister> search(String searchString, int limit) {
+		if (searchString == null || searchString.isBlank() || codes.length == 0 || limit <= 0) {
+			return new ArrayList<>();
+		}
+
+		BitSet matches = null;
+		BitSet wordMatches = new BitSet(codes.length);
+		for (String word : tokenize(searchString)) {
+			if (matches == null) {
+				matches = new BitSet(codes.length);
+				addPrefixMatches(word, matches);
+			} else {
+				wordMatches.clear();
+				addPrefixMatches(word, wordMatches);
+				matches.and(wordMatches);
+			}
+			if (matches.isEmpty()) {
+				return new ArrayList<>();
+			}
+		}
+		return matches == null ? new ArrayList<>() : toAddresses(selectBest(matches, limit));
+	}
+
+	private void addPrefixMatches(String prefix, BitSet matches) {
+		int insertionPoint = Arrays.binarySearch(terms, prefix);
+		for (int term = insertionPoint >= 0 ? insertionPoint : -insertionPoint - 1;
+			 term < terms.length && terms[term].startsWith(prefix); term++) {
+			for (int posting = postingOffsets[term]; posting < postingOffsets[term + 1]; posting++) {
+				matches.set(postings[posting]);
+			}
+		}
+	}
+
+	/**
+	 * Bounded max-heap of document ids with the worst ranked match at the root, so each candidate costs one comparison
+	 * unless it displaces the root. Draining the root into the tail of the array leaves the best matches first.
+	 */
+	private int[] selectBest(BitSet matches, int limit) {
+		int[] heap = new int[Math.min(limit, matches.cardinality())];
+		int size = 0;
+		for (int document = matches.nextSetBit(0); document >= 0; document = matches.nextSetBit(document + 1)) {
+			if (size < heap.length) {
+				heap[size] = document;
+				siftUp(heap, size++);
+			} else if (ranksBefore(document, heap[0])) {
+				heap[0] = document;
+				siftDown(heap, size);
+			}
+		}
+		for (int last = size - 1; last > 0; last--) {
+			int worst = heap[0];
+			heap[0] = heap[last];
+			heap[last] = worst;
+			siftDown(heap, last);
+		}
+		return heap;
+	}
+
+	private void siftUp(int[] heap, int index) {
+		int document = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!ranksBefore(heap[parent], document)) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = document;
+	}
+
+	private void siftDown(int[] heap, int size) {
+		int document = heap[0];
+		int index = 0;
+		int child;
+		while ((child = 2 * index + 1) < size) {
+			if (child + 1 < size && ranksBefore(heap[child], heap[child + 1])) {
+				child++;
+			}
+			if (!ranksBefore(document, heap[child])) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = document;
+	}
+
+	private boolean ranksBefore(int document, int other) {
+		int length = getAddressLength(document);
+		int otherLength = getAddressLength(other);
+		return length != otherLength ? length < otherLength : codes[document] < codes[other];
+	}
+
+	private List<AddressRegister> toAddresses(int[] documents) {
+		List<AddressRegister> addresses = new ArrayList<>(documents.length);
+		for (int document : documents) {
+			AddressRegister address = new AddressRegister();
+			address.setCode(codes[document]);
+			address.setFullAddress(new String(addressBytes, addressOffsets[document], getAddressLength(document),
+					StandardCharsets.UTF_8));
+			addresses.add(address);
+		}
+		return addresses;
+	}
+
+	private int getAddressLength(int document) {
+		return addressOffsets[document + 1] - addressOffsets[document];
+	}
+
+	static Set<String> tokenize(String value) {
+		Set<String> tokens = new LinkedHashSet<>();
+		for (String token : TOKEN_SEPARATOR.split(AddressSearchNormalizer.normalize(value))) {
+			if (!token.isEmpty()) {
+				tokens.add(token);
+			}
+		}
+		return tokens;
+	}
+
+	public static class Builder {
+
+		private final Map<String, Integer> termIds = new HashMap<>();
+		private int[] codes = new int[1024];
+		private byte[] addressBytes = new byte[64 * 1024];
+		private int[] addressOffsets = new int[1025];
+		private int[] postingTermIds = new int[4096];
+		private int[] postingDocuments = new int[4096];
+		private int documentCount;
+		private int addressByteCount;
+		private int postingCount;
+
+		private Builder() {
+		}
+
+		public Builder add(int code, String fullAddress) {
+			if (fullAddress == null) {
+				return this;
+			}
+
+			int document = documentCount++;
+			codes = ensureCapacity(codes, documentCount);
+			codes[document] = code;
+
+			byte[] bytes = fullAddress.getBytes(StandardCharsets.UTF_8);
+			if (addressByteCount + bytes.length > addressBytes.length) {
+				addressBytes = Arrays.copyOf(addressBytes, Math.max(addressBytes.length * 2, addressByteCount + bytes.length));
+			}
+			System.arraycopy(bytes, 0, addressBytes, addressByteCount, bytes.length);
+			addressByteCount += bytes.length;
+			addressOffsets = ensureCapacity(addressOffsets, documentCount + 1);
+			addressOffsets[documentCount] = addressByteCount;
+
+			for (String token : tokenize(fullAddress)) {
+				postingTermIds = ensureCapacity(postingTermIds, postingCount + 1);
+				postingDocuments = ensureCapacity(postingDocuments, postingCount + 1);
+				postingTermIds[postingCount] = termIds.computeIfAbsent(token, term -> termIds.size());
+				postingDocuments[postingCount++] = document;
+			}
+			return this;
+		}
+
+		public AddressSearchIndex build() {
+			String[] terms = termIds.keySet().toArray(new String[0]);
+			Arrays.sort(terms);
+			int[] termRanks = new int[terms.length];
+			for (int rank = 0; rank < terms.length; rank++) {
+				termRanks[termIds.get(terms[rank])] = rank;
+			}
+
+			int[] postingOffsets = new int[terms.length + 1];
+			for (int posting = 0; posting < postingCount; posting++) {
+				postingOffsets[termRanks[postingTermIds[posting]] + 1]++;
+			}
+			for (int term = 0; term < terms.length; term++) {
+				postingOffsets[term + 1] += postingOffsets[term];
+			}
+
+			int[] postings = new int[postingCount];
+			int[] cursors = Arrays.copyOf(postingOffsets, terms.length);
+			for (int posting = 0; posting < postingCount; posting++) {
+				postings[cursors[termRanks[postingTermIds[posting]]]++] = postingDocuments[posting];
+			}
+
+			return new AddressSearchIndex(Arrays.copyOf(codes, documentCount), Arrays.copyOf(addressBytes, addressByteCount),
+					Arrays.copyOf(addressOffsets, documentCount + 1), terms, postingOffsets, postings);
+		}
+
+		private static int[] ensureCapacity(int[] array, int required) {
+			return required <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, required));
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package lv.degra.accounting.core.address.register.search;
+
+import java.util.List;
+import java.util.Optional;
+
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+
+public interface AddressSearchIndexService {
+
+	void rebuild();
+
+	void reload();
+
+	boolean isAvailable();
+
+	Optional<List<AddressRegister>> search(String searchString, int limit);
+}
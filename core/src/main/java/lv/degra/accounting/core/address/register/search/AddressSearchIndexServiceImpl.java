@@ -0,0 +1,91 @@
+package lv.degra.accounting.core.address.register.search;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+import lv.degra.accounting.core.system.configuration.DegraConfig;
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+
+@Service
+@Slf4j
+public class AddressSearchIndexServiceImpl implements AddressSearchIndexService {
+
+	public static final String METRIC_INDEX_MEMORY = "address.search.index.memory";
+	public static final String METRIC_INDEX_SIZE = "address.search.index.size";
+	private static final String SELECT_ADDRESSES_SQL = "SELECT code, full_address FROM address_register WHERE full_address IS NOT NULL";
+	private static final int FETCH_SIZE = 10_000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final ConfigService configService;
+	private final AtomicReference<AddressSearchIndex> index = new AtomicReference<>();
+
+	@Autowired
+	public AddressSearchIndexServiceImpl(JdbcTemplate jdbcTemplate, ConfigService configService, MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.configService = configService;
+		Gauge.builder(METRIC_INDEX_MEMORY, index, current -> current.get() != null ? current.get().getMemoryFootprint() : 0)
+				.baseUnit("bytes").register(meterRegistry);
+		Gauge.builder(METRIC_INDEX_SIZE, index, current -> current.get() != null ? current.get().size() : 0)
+				.register(meterRegistry);
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public void rebuild() {
+		if (!configService.getBoolean(DegraConfig.ADDRESS_SEARCH_INDEX_ENABLED)) {
+			index.set(null);
+			log.info("Address search index is disabled");
+			return;
+		}
+
+		long started = System.nanoTime();
+		AddressSearchIndex.Builder builder = AddressSearchIndex.builder();
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(SELECT_ADDRESSES_SQL);
+			statement.setFetchSize(FETCH_SIZE);
+			return statement;
+		}, resultSet -> {
+			builder.add(resultSet.getInt("code"), resultSet.getString("full_address"));
+		});
+		AddressSearchIndex newIndex = builder.build();
+		index.set(newIndex);
+
+		log.info("Address search index rebuilt in {} ms: {} addresses, {} terms, {} KB",
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), newIndex.size(), newIndex.getTermCount(),
+				newIndex.getMemoryFootprint() / 1024);
+	}
+
+	/**
+	 * Rebuilds the index only where one has been built; applications that do not serve address search never hold it.
+	 */
+	@Override
+	@Transactional(readOnly = true)
+	public void reload() {
+		if (index.get() != null) {
+			rebuild();
+		}
+	}
+
+	@Override
+	public boolean isAvailable() {
+		return index.get() != null;
+	}
+
+	@Override
+	public Optional<List<AddressRegister>> search(String searchString, int limit) {
+		AddressSearchIndex current = index.get();
+		return current != null ? Optional.of(current.search(searchString, limit)) : Optional.empty();
+	}
+}
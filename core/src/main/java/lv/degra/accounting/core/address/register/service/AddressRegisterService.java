@@ -5,6 +5,5 @@ import lv.degra.accounting.core.address.register.model.AddressRegister;
 import java.util.List;
 
 public interface AddressRegisterService {
-    void importData();
     List<AddressRegister> getByMultipleWords(String searchString);
 }
@@ -1,212 +1,390 @@
 package lv.degra.accounting.core.address.register.service;
 
-import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.sql.Date;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.Types;
-import java.time.LocalDate;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.StreamSupport;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.util.DigestUtils;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.opencsv.bean.CsvToBeanBuilder;
 
-import jakarta.validation.constraints.NotNull;
-import lombok.Getter;
-import lombok.Setter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.address.AddressRegisterMapper;
+import lv.degra.accounting.core.address.register.enums.ArImportMode;
 import lv.degra.accounting.core.address.register.enums.ArRecordStatus;
 import lv.degra.accounting.core.address.register.enums.ArZipContentFiles;
 import lv.degra.accounting.core.address.register.exception.ReadArCsvFileContentException;
 import lv.degra.accounting.core.address.register.model.AddressData;
 import lv.degra.accounting.core.address.register.model.AddressRegister;
 import lv.degra.accounting.core.address.register.model.AddressRegisterRepository;
+import lv.degra.accounting.core.address.register.model.CustomAddressRegisterSearchRepositoryImpl;
+import lv.degra.accounting.core.address.register.search.AddressRegisterSearchFilter;
+import lv.degra.accounting.core.address.register.search.AddressSearchIndexService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadTable;
+import lv.degra.accounting.core.system.bulkload.StagingTable;
+import lv.degra.accounting.core.system.bulkload.StagingTableService;
+import lv.degra.accounting.core.system.bulkload.TableConstraint;
+import lv.degra.accounting.core.system.bulkload.TableIndex;
 import lv.degra.accounting.core.system.configuration.DegraConfig;
 import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.files.DownloadedFile;
 import lv.degra.accounting.core.system.files.FileService;
+import lv.degra.accounting.core.system.files.RemoteFileState;
+import lv.degra.accounting.core.system.files.RemoteFileStateService;
 import lv.degra.accounting.core.system.files.exception.ExtractZipFileException;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobCancelledException;
+import lv.degra.accounting.core.system.importjob.service.ImportJobContext;
+import lv.degra.accounting.core.system.importjob.service.ImportGenerationService;
+import lv.degra.accounting.core.system.importjob.service.ImportJobRunner;
 
 @Service
 @Slf4j
-public class AddressRegisterServiceImpl implements AddressRegisterService {
+public class AddressRegisterServiceImpl implements AddressRegisterService, ImportJobRunner {
 
+	public static final String ADDRESS_REGISTER_CACHE = "addressRegisterCache";
 	public static final char CSV_DATA_SEPARATOR = ';';
 	public static final char DOUBLE_QUOTES = '#';
-	private static final List<String> INDEXES = List.of("address_register_full_address_idx", "address_register_code_idx",
-			"address_register_parent_code_idx");
+	public static final int IMPORT_PARALLELISM = Math.min(ArZipContentFiles.values().length,
+			Runtime.getRuntime().availableProcessors());
+	public static final String METRIC_FILE_IMPORT_TIME = "address.import.file.time";
+	public static final String METRIC_FILE_IMPORT_ROWS = "address.import.file.rows";
+	private static final String METRIC_TAG_FILE = "file";
+	private static final String ADDRESS_REGISTER_DOWNLOAD_FILE = "address_register.zip";
+	private static final String STAGING_CHECKPOINT = "staging";
+	private static final String INDEXED_CHECKPOINT = "indexed";
+	private static final String FILE_CHECKPOINT_PREFIX = "file:";
+	private static final String ROWS_CHECKPOINT_PREFIX = "rows:";
+	public static final BulkLoadTable<AddressRegister> ADDRESS_REGISTER_TABLE = new BulkLoadTable<>("address_register",
+			List.of("code", "type", "status", "parent_code", "parent_type", "name", "sort_name", "zip", "date_from", "date_to",
+					"update_date_public", "full_address", "territorial_unit_code"), AddressRegisterServiceImpl::toRowValues);
+	public static final StagingTable ADDRESS_REGISTER_STAGING_TABLE = new StagingTable("address_register",
+			List.of(new TableConstraint("address_register_pkey", "PRIMARY KEY (id)"),
+					new TableConstraint("address_register_code_key", "UNIQUE (code)")),
+			List.of(new TableIndex("address_register_code_idx", "(code)"),
+					new TableIndex("address_register_parent_code_idx", "(parent_code)"),
+					new TableIndex("address_register_search_address_trgm_idx", "USING gin (search_address gin_trgm_ops)")));
 
 	private final AddressRegisterRepository addressRegisterRepository;
 	private final FileService fileService;
-	private final JdbcTemplate jdbcTemplate;
-	private final ObjectMapper objectMapper;
 	private final ConfigService configService;
-
-	@Getter
-	@Setter
-	private byte[] previousArResponseChecksum = null;
+	private final BulkLoadService bulkLoadService;
+	private final StagingTableService stagingTableService;
+	private final AddressRegisterSyncService addressRegisterSyncService;
+	private final MeterRegistry meterRegistry;
+	private final AddressSearchIndexService addressSearchIndexService;
+	private final RemoteFileStateService remoteFileStateService;
+	private final ImportGenerationService importGenerationService;
 
 	@Autowired
 	public AddressRegisterServiceImpl(AddressRegisterRepository addressRegisterRepository, FileService fileService,
-			JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, ConfigService configService) {
+			ConfigService configService, BulkLoadService bulkLoadService, StagingTableService stagingTableService,
+			AddressRegisterSyncService addressRegisterSyncService, MeterRegistry meterRegistry,
+			AddressSearchIndexService addressSearchIndexService, RemoteFileStateService remoteFileStateService,
+			ImportGenerationService importGenerationService) {
 		this.addressRegisterRepository = addressRegisterRepository;
 		this.fileService = fileService;
-		this.jdbcTemplate = jdbcTemplate;
-		this.objectMapper = objectMapper;
 		this.configService = configService;
+		this.bulkLoadService = bulkLoadService;
+		this.stagingTableService = stagingTableService;
+		this.addressRegisterSyncService = addressRegisterSyncService;
+		this.meterRegistry = meterRegistry;
+		this.addressSearchIndexService = addressSearchIndexService;
+		this.remoteFileStateService = remoteFileStateService;
+		this.importGenerationService = importGenerationService;
 	}
 
-	@Cacheable("addressRegisterCache")
+	/**
+	 * Cached under a key naming the backend that answers, see {@link AddressRegisterSearchFilter}.
+	 */
+	@Cacheable(value = ADDRESS_REGISTER_CACHE, key = "#root.target.getSearchCacheKey(#searchString)")
 	public List<AddressRegister> getByMultipleWords(String searchString) {
-		return addressRegisterRepository.searchByMultipleWords(searchString);
+		return addressSearchIndexService.search(searchString, CustomAddressRegisterSearchRepositoryImpl.MAX_RESULTS)
+				.orElseGet(() -> addressRegisterRepository.searchByMultipleWords(searchString));
+	}
+
+	public String getSearchCacheKey(String searchString) {
+		return AddressRegisterSearchFilter.toCacheKey(addressSearchIndexService.isAvailable(), searchString);
+	}
+
+	@Override
+	public ImportJobType getJobType() {
+		return ImportJobType.ADDRESS_REGISTER;
+	}
+
+	@Override
+	public String getCacheName() {
+		return ADDRESS_REGISTER_CACHE;
 	}
 
-	public void importData() {
+	@Override
+	public void reload() {
+		addressSearchIndexService.reload();
+	}
+
+	@Override
+	@CacheEvict(value = ADDRESS_REGISTER_CACHE, allEntries = true)
+	public void run(ImportJobContext context) {
 		log.info("Starting address data import");
-		byte[] csvFileBytes = downloadCsvFile();
+		context.enterStage(ImportJobStatus.DOWNLOADING);
+		String downloadLink = configService.get(DegraConfig.ADDRESS_DOWNLOAD_LINK);
+		RemoteFileState previousState = remoteFileStateService.getState(DegraConfig.ADDRESS_DOWNLOAD_LINK, downloadLink);
+		Optional<DownloadedFile> download = getResumableArchive(context).or(() -> downloadCsvFile(downloadLink, previousState));
 
-		if (csvFileBytes == null || csvFileBytes.length == 0) {
-			handleEmptyDownload();
+		if (download.isEmpty()) {
+			log.info("Address CSV file has not changed");
 			return;
 		}
 
-		if (isArDataChanged(csvFileBytes)) {
-			try {
-				processAndImportData(csvFileBytes);
-			} catch (ExtractZipFileException e) {
-				log.error("Error processing address data", e);
-				throw new RuntimeException(e);
+		DownloadedFile zipFile = download.get();
+		boolean imported = false;
+		try {
+			if (zipFile.isEmpty()) {
+				log.info("No address data available for download");
+				return;
+			}
+			if (previousState.hasSameContent(zipFile)) {
+				log.info("Address CSV file has not changed");
+			} else {
+				context.checkpointDownload(zipFile);
+				processAndImportData(zipFile.getPath(), context);
+				addressSearchIndexService.rebuild();
+				importGenerationService.publish(getJobType());
+			}
+			remoteFileStateService.saveState(DegraConfig.ADDRESS_DOWNLOAD_LINK, downloadLink, zipFile);
+			imported = true;
+		} catch (ExtractZipFileException e) {
+			log.error("Error processing address data", e);
+			throw new RuntimeException(e);
+		} finally {
+			if (imported || !isKeptForResume(context)) {
+				fileService.cleanUpFile(zipFile.getPath());
 			}
-		} else {
-			log.info("Address CSV file has not changed");
 		}
 
 		log.info("Finished address data import");
 	}
 
-	protected byte[] downloadCsvFile() {
-		String downloadLink = configService.get(DegraConfig.ADDRESS_DOWNLOAD_LINK);
-		return fileService.downloadFileByUrl(downloadLink);
+	protected Optional<DownloadedFile> downloadCsvFile(String downloadLink, RemoteFileState previousState) {
+		return fileService.downloadFileIfModified(downloadLink, getDownloadPath(), previousState);
+	}
+
+	/**
+	 * A resumed job reuses the archive it was loading, as long as it is still on disk; otherwise its checkpoints no
+	 * longer describe anything and the import starts over.
+	 */
+	private Optional<DownloadedFile> getResumableArchive(ImportJobContext context) {
+		if (!context.isResumed()) {
+			return Optional.empty();
+		}
+		Path zipFile = getDownloadPath();
+		Optional<DownloadedFile> archive = context.getDownloadCheckpoint(zipFile);
+		if (archive.isPresent() && Files.isRegularFile(zipFile)) {
+			log.info("Resuming address import job {} from {}", context.getJobId(), zipFile);
+			return archive;
+		}
+		context.clearCheckpoints();
+		return Optional.empty();
 	}
 
-	public void handleEmptyDownload() {
-		previousArResponseChecksum = null;
-		log.info("No address data available for download");
+	private Path getDownloadPath() {
+		return fileService.getDownloadDirectoryPath().resolve(ADDRESS_REGISTER_DOWNLOAD_FILE);
 	}
 
-	protected void processAndImportData(byte[] csvFileBytes) throws ExtractZipFileException {
+	protected void processAndImportData(Path zipFile, ImportJobContext context) throws ExtractZipFileException {
 		try {
-			fileService.unzipFileInFolder(csvFileBytes);
-			truncateTable();
-			importArData();
-			createIndexes();
-			deleteTempDirectory();
+			ArImportMode importMode = getImportMode();
+			log.info("Address register import mode: {}", importMode);
+			context.enterStage(ImportJobStatus.LOADING);
+			if (importMode == ArImportMode.DELTA) {
+				loadDeltaTable(zipFile, context);
+			} else {
+				loadStagingTable(zipFile, context);
+			}
+		} catch (ImportJobCancelledException e) {
+			throw e;
 		} catch (Exception e) {
 			log.error("Error during data import", e);
 			throw new ExtractZipFileException("Error importing data" + e);
 		}
 	}
 
-	private void truncateTable() {
-		INDEXES.forEach(index -> jdbcTemplate.execute("DROP INDEX IF EXISTS " + index));
-		jdbcTemplate.execute("TRUNCATE TABLE address_register");
+	private void loadStagingTable(Path zipFile, ImportJobContext context) {
+		try {
+			String stagingTableName = ADDRESS_REGISTER_STAGING_TABLE.getStagingTableName();
+			if (!context.isCheckpointed(STAGING_CHECKPOINT)) {
+				stagingTableName = stagingTableService.create(ADDRESS_REGISTER_STAGING_TABLE);
+				context.checkpoint(STAGING_CHECKPOINT);
+			}
+			importArData(zipFile, stagingTableName, ArImportMode.FULL, context);
+			if (!context.isCheckpointed(INDEXED_CHECKPOINT)) {
+				context.enterStage(ImportJobStatus.INDEXING);
+				stagingTableService.buildIndexes(ADDRESS_REGISTER_STAGING_TABLE);
+				context.checkpoint(INDEXED_CHECKPOINT);
+			}
+			context.enterStage(ImportJobStatus.SWAPPING);
+			stagingTableService.swap(ADDRESS_REGISTER_STAGING_TABLE);
+			context.clearCheckpoints();
+		} catch (RuntimeException e) {
+			if (isKeptForResume(context)) {
+				log.warn("Keeping {} so that import job {} can be resumed", ADDRESS_REGISTER_STAGING_TABLE.getStagingTableName(),
+						context.getJobId());
+			} else {
+				stagingTableService.drop(ADDRESS_REGISTER_STAGING_TABLE);
+				context.clearCheckpoints();
+			}
+			throw e;
+		}
 	}
 
-	private void createIndexes() {
-		jdbcTemplate.execute("CREATE INDEX address_register_code_idx ON address_register (code)");
-		jdbcTemplate.execute("CREATE INDEX address_register_parent_code_idx ON address_register (parent_code)");
-		jdbcTemplate.execute("CREATE INDEX address_register_full_address_idx ON address_register (full_address)");
+	private static boolean isKeptForResume(ImportJobContext context) {
+		return context.isResumable() && context.isCheckpointed(STAGING_CHECKPOINT);
 	}
 
-	private void deleteTempDirectory() {
-		fileService.deleteDirectory(fileService.getTempDirectoryPath().toAbsolutePath());
+	private void loadDeltaTable(Path zipFile, ImportJobContext context) {
+		try {
+			String deltaTableName = addressRegisterSyncService.createDeltaTable();
+			importArData(zipFile, deltaTableName, ArImportMode.DELTA, context);
+			context.enterStage(ImportJobStatus.SWAPPING);
+			addressRegisterSyncService.applyDelta();
+		} finally {
+			addressRegisterSyncService.dropDeltaTable();
+		}
 	}
 
-	private void importArData() {
-		Arrays.stream(ArZipContentFiles.values()).forEach(this::processFile);
+	protected ArImportMode getImportMode() {
+		return ArImportMode.getByName(configService.get(DegraConfig.ADDRESS_IMPORT_MODE));
 	}
 
-	public void processFile(ArZipContentFiles fileInfo) {
-		File archiveFile = new File(fileService.getTempDirectoryPath() + File.separator + fileInfo.getFileName());
-		byte[] fileContent = getFileContent(archiveFile);
-
-		try (Reader reader = new InputStreamReader(new ByteArrayInputStream(fileContent))) {
-			List<AddressData> csvData = parseCsvArDataFileToList(reader, fileInfo.getClasName());
-			List<AddressRegister> addressList = mapCsvDataToAddressList(csvData);
-			batchInsertAddresses(addressList);
-		} catch (Exception e) {
-			log.error("Error processing file: {}", fileInfo.getFileName(), e);
-			throw new ReadArCsvFileContentException("Error processing file: " + fileInfo.getFileName() + e);
+	private void importArData(Path zipFile, String tableName, ArImportMode importMode, ImportJobContext context) {
+		try (ExecutorService executor = Executors.newFixedThreadPool(IMPORT_PARALLELISM,
+				Thread.ofVirtual().name("address-import-", 0).factory())) {
+			List<Future<Long>> fileImports = Arrays.stream(ArZipContentFiles.values())
+					.filter(fileInfo -> !isFileLoaded(fileInfo, context))
+					.map(fileInfo -> executor.submit(() -> importFile(zipFile, fileInfo, tableName, importMode, context)))
+					.toList();
+			long importedRows = 0;
+			for (Future<Long> fileImport : fileImports) {
+				importedRows += awaitFileImport(fileImport, fileImports);
+			}
+			log.info("Imported {} address rows into {}", importedRows, tableName);
 		}
 	}
 
-	protected byte[] getFileContent(File archiveFile) {
-		if (archiveFile == null || !archiveFile.exists()) {
-			throw new ReadArCsvFileContentException(
-					"File does not exist: " + (archiveFile != null ? archiveFile.getAbsolutePath() : "null"));
+	private long awaitFileImport(Future<Long> fileImport, List<Future<Long>> fileImports) {
+		try {
+			return fileImport.get();
+		} catch (ExecutionException e) {
+			fileImports.forEach(pending -> pending.cancel(true));
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw new ReadArCsvFileContentException("Error importing address files", e.getCause());
+		} catch (InterruptedException e) {
+			fileImports.forEach(pending -> pending.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new ReadArCsvFileContentException("Address import interrupted", e);
 		}
-		return fileService.loadFileLocally(archiveFile.getAbsolutePath());
 	}
 
-	protected List<AddressRegister> mapCsvDataToAddressList(List<AddressData> csvData) {
-		return csvData.stream().map(row -> objectMapper.convertValue(row, AddressRegister.class))
-				.filter(address -> !ArRecordStatus.STATUS_ERROR.getCode().equals(address.getStatus())).toList();
+	private static boolean isFileLoaded(ArZipContentFiles fileInfo, ImportJobContext context) {
+		boolean loaded = context.isCheckpointed(FILE_CHECKPOINT_PREFIX + fileInfo.getFileName());
+		if (loaded) {
+			log.info("Skipping {}, already loaded by import job {}", fileInfo.getFileName(), context.getJobId());
+		}
+		return loaded;
 	}
 
-	private List<AddressData> parseCsvArDataFileToList(Reader reader, Class<? extends AddressData> clasName) {
-		return new CsvToBeanBuilder<AddressData>(reader).withType(clasName).withSkipLines(1).withSeparator(CSV_DATA_SEPARATOR)
-				.withQuoteChar(DOUBLE_QUOTES).build().parse();
+	private long importFile(Path zipFile, ArZipContentFiles fileInfo, String tableName, ArImportMode importMode,
+			ImportJobContext context) {
+		Timer.Sample sample = Timer.start(meterRegistry);
+		long importedRows = processFile(zipFile, fileInfo, tableName, importMode, context);
+		context.rowsLoaded(importedRows);
+		if (importMode == ArImportMode.FULL) {
+			context.checkpoint(FILE_CHECKPOINT_PREFIX + fileInfo.getFileName(), String.valueOf(importedRows));
+		}
+		long elapsedNanos = sample.stop(meterRegistry.timer(METRIC_FILE_IMPORT_TIME, METRIC_TAG_FILE, fileInfo.getFileName()));
+		meterRegistry.counter(METRIC_FILE_IMPORT_ROWS, METRIC_TAG_FILE, fileInfo.getFileName()).increment(importedRows);
+		log.info("Imported {} rows from file: {} in {} ms", importedRows, fileInfo.getFileName(),
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+		return importedRows;
 	}
 
-	public boolean isArDataChanged(byte[] bytes) {
-		String md5 = DigestUtils.md5DigestAsHex(bytes);
-		boolean hasChanged = previousArResponseChecksum != null && !previousArResponseChecksum.equals(md5);
-		if (hasChanged) {
-			previousArResponseChecksum = md5.getBytes();
+	public long processFile(Path zipFile, ArZipContentFiles fileInfo, String tableName, ArImportMode importMode,
+			ImportJobContext context) {
+		try {
+			return fileService.readZipEntry(zipFile, fileInfo.getFileName(),
+					entry -> importCsvData(new BufferedReader(new InputStreamReader(entry, StandardCharsets.UTF_8)), fileInfo,
+							tableName, importMode, context));
+		} catch (ImportJobCancelledException e) {
+			throw e;
+		} catch (Exception e) {
+			log.error("Error processing file: {}", fileInfo.getFileName(), e);
+			throw new ReadArCsvFileContentException("Error processing file: " + fileInfo.getFileName() + e);
 		}
-		return hasChanged;
-	}
-
-	public void batchInsertAddresses(List<AddressRegister> addressList) {
-		String sql = """
-				INSERT INTO address_register
-				(code, "type", status, parent_code, parent_type, "name", sort_name, zip, date_from, date_to, update_date_public, full_address, territorial_unit_code)
-				VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
-				""";
-
-		jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-			@Override
-			public void setValues(@NotNull PreparedStatement ps, int i) throws SQLException {
-				AddressRegister address = addressList.get(i);
-				ps.setInt(1, address.getCode());
-				ps.setObject(2, address.getType(), Types.INTEGER);
-				ps.setInt(3, ArRecordStatus.getStatusOnSystemByCode(address.getStatus()));
-				ps.setInt(4, address.getParentCode());
-				ps.setInt(5, address.getParentType() != null ? address.getParentType() : 0);
-				ps.setString(6, address.getName());
-				ps.setString(7, address.getSortName());
-				ps.setString(8, address.getZip());
-				ps.setDate(9, Date.valueOf(address.getDateFrom()));
-				ps.setDate(10, address.getDateTo() != null ? Date.valueOf(address.getDateTo()) : null);
-				ps.setDate(11, Date.valueOf(address.getUpdateDatePublic() != null ? address.getUpdateDatePublic() : LocalDate.now()));
-				ps.setString(12, address.getFullAddress());
-				ps.setObject(13, address.getTerritorialUnitCode(), Types.INTEGER);
-			}
+	}
 
-			@Override
-			public int getBatchSize() {
-				return addressList.size();
+	/**
+	 * A full import loads into a staging table that survives a failed job, so the rows of each file committed so far are
+	 * checkpointed and skipped when the job is resumed. A delta import starts from an empty delta table every time.
+	 */
+	protected long importCsvData(Reader reader, ArZipContentFiles fileInfo, String tableName, ArImportMode importMode,
+			ImportJobContext context) {
+		String rowsCheckpoint = ROWS_CHECKPOINT_PREFIX + fileInfo.getFileName();
+		long committedRows = importMode == ArImportMode.FULL ?
+				context.getCheckpoint(rowsCheckpoint).map(Long::parseLong).orElse(0L) : 0;
+		if (committedRows > 0) {
+			log.info("Resuming {} after {} rows committed by import job {}", fileInfo.getFileName(), committedRows,
+					context.getJobId());
+		}
+		Iterator<AddressData> csvRows = createCsvIterator(reader, fileInfo.getClasName());
+		Iterator<AddressRegister> addresses = StreamSupport.stream(
+						Spliterators.spliteratorUnknownSize(csvRows, Spliterator.ORDERED), false)
+				.peek(address -> context.rowParsed())
+				.map(AddressRegisterMapper::toEntity)
+				.filter(address -> importMode.isIncludeErrorRecords()
+						|| !ArRecordStatus.STATUS_ERROR.getCode().equals(address.getStatus()))
+				.skip(committedRows)
+				.iterator();
+		return bulkLoadService.load(ADDRESS_REGISTER_TABLE.withTableName(tableName), addresses, rows -> {
+			if (importMode == ArImportMode.FULL) {
+				context.checkpoint(rowsCheckpoint, String.valueOf(committedRows + rows));
 			}
 		});
 	}
+
+	private Iterator<AddressData> createCsvIterator(Reader reader, Class<? extends AddressData> clasName) {
+		return new CsvToBeanBuilder<AddressData>(reader).withType(clasName).withSkipLines(1).withSeparator(CSV_DATA_SEPARATOR)
+				.withQuoteChar(DOUBLE_QUOTES).build().iterator();
+	}
+
+	protected static Object[] toRowValues(AddressRegister address) {
+		return new Object[] { address.getCode(), address.getType(), ArRecordStatus.getStatusOnSystemByCode(address.getStatus()),
+				address.getParentCode(), address.getParentType() != null ? address.getParentType() : 0, address.getName(),
+				address.getSortName(), address.getZip(), address.getDateFrom(), address.getDateTo(),
+				address.getUpdateDatePublic(), address.getFullAddress(),
+				address.getTerritorialUnitCode() };
+	}
 }
@@ -0,0 +1,10 @@
+package lv.degra.accounting.core.address.register.service;
+
+import lombok.Value;
+
+@Value
+public class AddressRegisterSyncResult {
+	int upserted;
+	int deleted;
+	int retired;
+}
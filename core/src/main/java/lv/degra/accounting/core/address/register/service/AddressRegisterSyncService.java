@@ -0,0 +1,10 @@
+package lv.degra.accounting.core.address.register.service;
+
+public interface AddressRegisterSyncService {
+
+	String createDeltaTable();
+
+	AddressRegisterSyncResult applyDelta();
+
+	void dropDeltaTable();
+}
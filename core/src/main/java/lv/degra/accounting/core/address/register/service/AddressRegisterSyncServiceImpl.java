@@ -0,0 +1,100 @@
+package lv.degra.accounting.core.address.register.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.address.register.enums.ArRecordStatus;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class AddressRegisterSyncServiceImpl implements AddressRegisterSyncService {
+
+	public static final String DELTA_TABLE_NAME = "address_register_delta";
+
+	private static final String COLUMNS = """
+			code, "type", status, parent_code, parent_type, "name", sort_name, zip, date_from, date_to, update_date_public, \
+			full_address, territorial_unit_code""";
+
+	/**
+	 * A delta archive may list the same code more than once. Only its most recently published row is kept, so that a code
+	 * is either upserted or deleted by the statements below, never both, and {@code ON CONFLICT DO UPDATE} does not touch
+	 * one target row twice.
+	 */
+	private static final String DISCARD_SUPERSEDED_SQL = """
+			DELETE FROM %1$s d
+			USING (
+				SELECT DISTINCT ON (code) code, ctid AS latest
+				FROM %1$s
+				ORDER BY code, update_date_public DESC NULLS LAST, date_from DESC NULLS LAST, ctid DESC
+			) l
+			WHERE d.code = l.code AND d.ctid <> l.latest
+			""";
+
+	private static final String UPSERT_CHANGED_SQL = """
+			INSERT INTO address_register (%1$s)
+			SELECT d.code, d."type", d.status, d.parent_code, d.parent_type, d."name", d.sort_name, d.zip, d.date_from, d.date_to,
+				d.update_date_public, d.full_address, d.territorial_unit_code
+			FROM %2$s d
+			LEFT JOIN address_register a ON a.code = d.code
+			WHERE d.status <> ?
+				AND (a.code IS NULL
+					OR a.update_date_public IS DISTINCT FROM d.update_date_public
+					OR a.status IS DISTINCT FROM d.status
+					OR a.date_to IS DISTINCT FROM d.date_to)
+			ON CONFLICT (code) DO UPDATE SET
+				"type" = EXCLUDED."type", status = EXCLUDED.status, parent_code = EXCLUDED.parent_code,
+				parent_type = EXCLUDED.parent_type, "name" = EXCLUDED."name", sort_name = EXCLUDED.sort_name, zip = EXCLUDED.zip,
+				date_from = EXCLUDED.date_from, date_to = EXCLUDED.date_to, update_date_public = EXCLUDED.update_date_public,
+				full_address = EXCLUDED.full_address, territorial_unit_code = EXCLUDED.territorial_unit_code
+			""";
+
+	private static final String DELETE_ERROR_RECORDS_SQL = """
+			DELETE FROM address_register a
+			USING %s d
+			WHERE a.code = d.code AND d.status = ?
+			""";
+
+	private static final String RETIRE_EXPIRED_SQL = """
+			UPDATE address_register
+			SET status = ?
+			WHERE date_to < CURRENT_DATE AND status <> ?
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public String createDeltaTable() {
+		dropDeltaTable();
+		jdbcTemplate.execute("CREATE UNLOGGED TABLE " + DELTA_TABLE_NAME + " AS SELECT " + COLUMNS
+				+ " FROM address_register WITH NO DATA");
+		return DELTA_TABLE_NAME;
+	}
+
+	@Override
+	@Transactional
+	public AddressRegisterSyncResult applyDelta() {
+		int superseded = jdbcTemplate.update(DISCARD_SUPERSEDED_SQL.formatted(DELTA_TABLE_NAME));
+		jdbcTemplate.execute("ANALYZE " + DELTA_TABLE_NAME);
+
+		int errorStatus = ArRecordStatus.STATUS_ERROR.getStatusOnSystem();
+		int deletedStatus = ArRecordStatus.DELETED.getStatusOnSystem();
+
+		int upserted = jdbcTemplate.update(UPSERT_CHANGED_SQL.formatted(COLUMNS, DELTA_TABLE_NAME), errorStatus);
+		int deleted = jdbcTemplate.update(DELETE_ERROR_RECORDS_SQL.formatted(DELTA_TABLE_NAME), errorStatus);
+		int retired = jdbcTemplate.update(RETIRE_EXPIRED_SQL, deletedStatus, deletedStatus);
+
+		AddressRegisterSyncResult result = new AddressRegisterSyncResult(upserted, deleted, retired);
+		log.info("Address register delta applied: {} upserted, {} deleted, {} retired, {} superseded rows ignored", upserted,
+				deleted, retired, superseded);
+		return result;
+	}
+
+	@Override
+	public void dropDeltaTable() {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + DELTA_TABLE_NAME);
+	}
+}
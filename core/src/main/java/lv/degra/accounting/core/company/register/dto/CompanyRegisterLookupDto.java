@@ -0,0 +1,15 @@
+package lv.degra.accounting.core.company.register.dto;
+
+import java.io.Serializable;
+
+import lombok.Value;
+
+/**
+ * Result of a bulk register number lookup. {@code company} is {@code null} when the number is not in the register.
+ */
+@Value
+public class CompanyRegisterLookupDto implements Serializable {
+	String registerNumber;
+	boolean found;
+	CompanyRegisterDto company;
+}
@@ -7,19 +7,25 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface CompanyRegisterRepository extends JpaRepository<CompanyRegister, Integer> {
+public interface CompanyRegisterRepository extends JpaRepository<CompanyRegister, Integer>, CustomCompanyRegisterSearchRepository {
 	boolean existsByRegisterNumber(String registerNumber);
 
+	/**
+	 * Word match on the stored {@code name_tsv} column (GIN) or register number prefix as a pattern-ops range (btree), so
+	 * both branches stay index scans even under a generic plan. Ranking reads the stored lower-cased {@code search_name};
+	 * pg_trgm similarity is case-insensitive, so the order is the same as ranking on {@code name}.
+	 */
 	@Query(value = """
-			   SELECT c.* FROM company_register c 
-			   	WHERE 
-			   	(
-						to_tsvector('simple', c.name) @@ plainto_tsquery('simple', :name) 
-					    OR c.register_number LIKE :name || '%'
+			SELECT c.id, c.register_number, c.sepa_code, c.name, c.name_before_quotes, c.name_in_quotes, c.name_after_quotes,
+				c.without_quotes, c.company_type_id, c.registered_date, c.terminated_date
+			FROM company_register c
+			WHERE (
+					c.name_tsv @@ plainto_tsquery('simple', :name)
+					OR (c.register_number ~>=~ :name AND c.register_number ~<~ :name || chr(1114111))
 				)
-			   	AND c.terminated_date IS NULL 
-			   	ORDER BY similarity(c.name, :name) DESC, c.name ASC 
-			   	LIMIT 15
+				AND c.terminated_date IS NULL
+			ORDER BY similarity(c.search_name, lower(:name)) DESC, c.name ASC
+			LIMIT 15
 			""", nativeQuery = true)
 	List<CompanyRegister> findTopByNameContainingIgnoreCase(String name);
 }
@@ -0,0 +1,12 @@
+package lv.degra.accounting.core.company.register.model;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+
+public interface CustomCompanyRegisterSearchRepository {
+	void streamSuggestions(String query, CompanyRegisterDto after, int limit, Consumer<CompanyRegisterDto> consumer);
+
+	List<CompanyRegisterDto> findByRegisterNumbers(List<String> registerNumbers);
+}
@@ -0,0 +1,113 @@
+package lv.degra.accounting.core.company.register.model;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+
+/**
+ * Keyset-paged company suggestions. Rows are ordered by (similarity DESC, name, id) and a page continues after the last
+ * row of the previous one. The caller passes that row back; its similarity is recomputed from its name, since
+ * {@code search_name} is just {@code lower(name)}, so the cursor needs nothing the client did not receive. Without a
+ * query the whole active register is paged by (name, id) over {@code company_register_name_id_idx}.
+ */
+@Repository
+public class CustomCompanyRegisterSearchRepositoryImpl implements CustomCompanyRegisterSearchRepository {
+
+	private static final int FETCH_SIZE = 500;
+	private static final String SELECT_COLUMNS = """
+			SELECT c.id, c.register_number, c.sepa_code, c.name, c.registered_date, c.terminated_date
+			FROM company_register c
+			WHERE c.terminated_date IS NULL
+			""";
+	private static final String MATCH_QUERY = """
+			AND (
+				c.name_tsv @@ plainto_tsquery('simple', ?)
+				OR (c.register_number ~>=~ ? AND c.register_number ~<~ ? || chr(1114111))
+			)
+			""";
+	private static final String AFTER_MATCH = """
+			AND (-similarity(c.search_name, lower(?)), c.name, c.id) > (-similarity(lower(?), lower(?)), ?, ?)
+			""";
+	private static final String AFTER_NAME = "AND (c.name, c.id) > (?, ?)\n";
+	private static final String ORDER_BY_MATCH = "ORDER BY similarity(c.search_name, lower(?)) DESC, c.name, c.id LIMIT ?";
+	private static final String ORDER_BY_NAME = "ORDER BY c.name, c.id LIMIT ?";
+	private static final String SELECT_BY_REGISTER_NUMBERS = """
+			SELECT c.id, c.register_number, c.sepa_code, c.name, c.registered_date, c.terminated_date
+			FROM company_register c
+			WHERE c.register_number = ANY(?)
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public CustomCompanyRegisterSearchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	@Override
+	public void streamSuggestions(String query, CompanyRegisterDto after, int limit, Consumer<CompanyRegisterDto> consumer) {
+		boolean matching = query != null && !query.isBlank();
+		StringBuilder sql = new StringBuilder(SELECT_COLUMNS);
+		List<Object> parameters = new ArrayList<>();
+		if (matching) {
+			sql.append(MATCH_QUERY);
+			parameters.addAll(List.of(query, query, query));
+		}
+		if (after != null) {
+			if (matching) {
+				sql.append(AFTER_MATCH);
+				parameters.addAll(List.of(query, after.getName(), query, after.getName(), after.getId()));
+			} else {
+				sql.append(AFTER_NAME);
+				parameters.addAll(List.of(after.getName(), after.getId()));
+			}
+		}
+		if (matching) {
+			sql.append(ORDER_BY_MATCH);
+			parameters.add(query);
+		} else {
+			sql.append(ORDER_BY_NAME);
+		}
+		parameters.add(limit);
+
+		jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(sql.toString());
+			statement.setFetchSize(FETCH_SIZE);
+			for (int i = 0; i < parameters.size(); i++) {
+				statement.setObject(i + 1, parameters.get(i));
+			}
+			return statement;
+		}, resultSet -> {
+			consumer.accept(toDto(resultSet));
+		});
+	}
+
+	/**
+	 * All numbers travel as a single array parameter, so the statement text and its plan are the same for every batch
+	 * size and the lookup is one round-trip over the register number index.
+	 */
+	@Override
+	public List<CompanyRegisterDto> findByRegisterNumbers(List<String> registerNumbers) {
+		return jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(SELECT_BY_REGISTER_NUMBERS);
+			statement.setFetchSize(FETCH_SIZE);
+			statement.setArray(1, connection.createArrayOf("text", registerNumbers.toArray()));
+			return statement;
+		}, (resultSet, rowNum) -> toDto(resultSet));
+	}
+
+	private static CompanyRegisterDto toDto(ResultSet resultSet) throws SQLException {
+		return new CompanyRegisterDto(resultSet.getLong("id"), resultSet.getString("register_number"),
+				resultSet.getString("sepa_code"), resultSet.getString("name"),
+				resultSet.getObject("registered_date", LocalDate.class),
+				resultSet.getObject("terminated_date", LocalDate.class));
+	}
+}
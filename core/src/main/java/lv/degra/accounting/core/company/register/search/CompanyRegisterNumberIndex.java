@@ -0,0 +1,115 @@
+package lv.degra.accounting.core.company.register.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Immutable set of company registration numbers kept off-heap as sorted longs. A number is encoded as the decimal value
+ * of "1" followed by its digits, which keeps leading zeros and length significant. Numbers that are not all digits, or
+ * too long to encode, are not indexed; {@link #isIndexable(String)} tells callers when to ask the database instead.
+ */
+public class CompanyRegisterNumberIndex {
+
+	private static final int MAX_DIGITS = 18;
+	private static final long NOT_INDEXABLE = -1;
+
+	private final LongBuffer numbers;
+
+	private CompanyRegisterNumberIndex(LongBuffer numbers) {
+		this.numbers = numbers;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	public static boolean isIndexable(String registerNumber) {
+		return encode(registerNumber) != NOT_INDEXABLE;
+	}
+
+	public boolean contains(String registerNumber) {
+		long key = encode(registerNumber);
+		if (key == NOT_INDEXABLE) {
+			return false;
+		}
+		int low = 0;
+		int high = numbers.limit() - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			long value = numbers.get(middle);
+			if (value < key) {
+				low = middle + 1;
+			} else if (value > key) {
+				high = middle - 1;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public int size() {
+		return numbers.limit();
+	}
+
+	public long getMemoryFootprint() {
+		return (long) Long.BYTES * numbers.capacity();
+	}
+
+	static long encode(String registerNumber) {
+		if (registerNumber == null || registerNumber.isEmpty() || registerNumber.length() > MAX_DIGITS) {
+			return NOT_INDEXABLE;
+		}
+		long key = 1;
+		for (int i = 0; i < registerNumber.length(); i++) {
+			char digit = registerNumber.charAt(i);
+			if (digit < '0' || digit > '9') {
+				return NOT_INDEXABLE;
+			}
+			key = key * 10 + (digit - '0');
+		}
+		return key;
+	}
+
+	public static class Builder {
+
+		private long[] numbers = new long[1024];
+		private int count;
+		private int skipped;
+
+		private Builder() {
+		}
+
+		public Builder add(String registerNumber) {
+			long key = encode(registerNumber);
+			if (key == NOT_INDEXABLE) {
+				skipped++;
+				return this;
+			}
+			if (count == numbers.length) {
+				numbers = Arrays.copyOf(numbers, numbers.length * 2);
+			}
+			numbers[count++] = key;
+			return this;
+		}
+
+		public int getSkipped() {
+			return skipped;
+		}
+
+		public CompanyRegisterNumberIndex build() {
+			Arrays.sort(numbers, 0, count);
+			int unique = 0;
+			for (int i = 0; i < count; i++) {
+				if (unique == 0 || numbers[unique - 1] != numbers[i]) {
+					numbers[unique++] = numbers[i];
+				}
+			}
+			LongBuffer buffer = ByteBuffer.allocateDirect(unique * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+			buffer.put(numbers, 0, unique).flip();
+			return new CompanyRegisterNumberIndex(buffer.asReadOnlyBuffer());
+		}
+	}
+}
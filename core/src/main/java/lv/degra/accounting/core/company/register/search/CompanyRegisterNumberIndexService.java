@@ -0,0 +1,12 @@
+package lv.degra.accounting.core.company.register.search;
+
+import java.util.Optional;
+
+public interface CompanyRegisterNumberIndexService {
+
+	void rebuild();
+
+	void reload();
+
+	Optional<Boolean> contains(String registerNumber);
+}
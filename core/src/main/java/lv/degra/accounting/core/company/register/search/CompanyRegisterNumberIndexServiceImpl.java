@@ -0,0 +1,97 @@
+package lv.degra.accounting.core.company.register.search;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps a {@link CompanyRegisterNumberIndex} of company_register in memory. The company import runs in another process
+ * and publishes a new import generation once it has swapped the register in, upon which the import runner reloads the
+ * index here. The index is therefore as current as the generation this instance has seen, and its misses are trusted.
+ */
+@Service
+@Slf4j
+public class CompanyRegisterNumberIndexServiceImpl implements CompanyRegisterNumberIndexService {
+
+	public static final String METRIC_INDEX_SIZE = "company.register.number.index.size";
+	private static final String SELECT_NUMBERS_SQL = "SELECT register_number FROM company_register";
+	private static final int FETCH_SIZE = 10_000;
+
+	private final JdbcTemplate jdbcTemplate;
+	private final AtomicReference<CompanyRegisterNumberIndex> index = new AtomicReference<>();
+
+	@Autowired
+	public CompanyRegisterNumberIndexServiceImpl(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+		this.jdbcTemplate = jdbcTemplate;
+		Gauge.builder(METRIC_INDEX_SIZE, index, current -> current.get() != null ? current.get().size() : 0)
+				.register(meterRegistry);
+	}
+
+	@Override
+	public void rebuild() {
+		long started = System.nanoTime();
+		CompanyRegisterNumberIndex.Builder builder = CompanyRegisterNumberIndex.builder();
+		jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+			// PostgreSQL only streams with a fetch size outside auto-commit; the rebuild runs without a surrounding transaction
+			boolean autoCommit = connection.getAutoCommit();
+			if (autoCommit) {
+				connection.setAutoCommit(false);
+			}
+			try (PreparedStatement statement = connection.prepareStatement(SELECT_NUMBERS_SQL)) {
+				statement.setFetchSize(FETCH_SIZE);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					while (resultSet.next()) {
+						builder.add(resultSet.getString(1));
+					}
+				}
+			} finally {
+				if (autoCommit) {
+					connection.rollback();
+					connection.setAutoCommit(true);
+				}
+			}
+			return null;
+		});
+		CompanyRegisterNumberIndex newIndex = builder.build();
+		index.set(newIndex);
+
+		log.info("Company register number index rebuilt in {} ms: {} numbers, {} not indexable, {} KB off-heap",
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), newIndex.size(), builder.getSkipped(),
+				newIndex.getMemoryFootprint() / 1024);
+	}
+
+	/**
+	 * Rebuilds the index only where one has been built; applications that do not validate registration numbers never
+	 * hold it.
+	 */
+	@Override
+	public void reload() {
+		if (index.get() != null) {
+			rebuild();
+		}
+	}
+
+	/**
+	 * Whether the number is in the register, or empty when the index cannot answer: it is not built yet or the number
+	 * is not a plain digit string.
+	 */
+	@Override
+	public Optional<Boolean> contains(String registerNumber) {
+		if (!CompanyRegisterNumberIndex.isIndexable(registerNumber)) {
+			return Optional.empty();
+		}
+		CompanyRegisterNumberIndex current = index.get();
+		return current != null ? Optional.of(current.contains(registerNumber)) : Optional.empty();
+	}
+}
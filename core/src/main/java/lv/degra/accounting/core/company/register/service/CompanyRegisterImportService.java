@@ -1,7 +0,0 @@
-package lv.degra.accounting.core.company.register.service;
-
-public interface CompanyRegisterImportService {
-
-    void importData();
-
-}
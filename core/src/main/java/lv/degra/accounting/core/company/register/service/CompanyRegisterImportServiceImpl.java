@@ -1,182 +1,295 @@
 package lv.degra.accounting.core.company.register.service;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.io.Reader;
-import java.sql.PreparedStatement;
-import java.sql.SQLException;
-import java.sql.Types;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
 
-import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
-import jakarta.validation.constraints.NotNull;
 import lombok.extern.slf4j.Slf4j;
 import lv.degra.accounting.core.company.register.model.CompanyRegister;
 import lv.degra.accounting.core.company.register.model.CompanyRegisterRepository;
+import lv.degra.accounting.core.company.register.search.CompanyRegisterNumberIndexService;
 import lv.degra.accounting.core.company.type.model.CompanyType;
-import lv.degra.accounting.core.company.type.model.CompanyTypeRepository;
+import lv.degra.accounting.core.company.type.model.CompanyTypeLookup;
+import lv.degra.accounting.core.company.type.service.CompanyTypeService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadTable;
+import lv.degra.accounting.core.system.bulkload.StagingTable;
+import lv.degra.accounting.core.system.bulkload.StagingTableService;
+import lv.degra.accounting.core.system.bulkload.TableConstraint;
+import lv.degra.accounting.core.system.bulkload.TableIndex;
 import lv.degra.accounting.core.system.configuration.DegraConfig;
 import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.files.DownloadedFile;
 import lv.degra.accounting.core.system.files.FileService;
+import lv.degra.accounting.core.system.files.RemoteFileState;
+import lv.degra.accounting.core.system.files.RemoteFileStateService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.service.ImportJobContext;
+import lv.degra.accounting.core.system.importjob.service.ImportGenerationService;
+import lv.degra.accounting.core.system.importjob.service.ImportJobRunner;
 
 @Service
 @Slf4j
-public class CompanyRegisterImportServiceImpl implements CompanyRegisterImportService {
+public class CompanyRegisterImportServiceImpl implements ImportJobRunner {
 
-    private final FileService fileService;
-    private final CsvParser csvParser;
-    private final CompanyTypeRepository companyTypeRepository;
-    private final ConfigService configService;
-    private final JdbcTemplate jdbcTemplate;
+	public static final BulkLoadTable<CompanyRegister> COMPANY_REGISTER_TABLE = new BulkLoadTable<>("company_register",
+			List.of("register_number", "sepa_code", "name", "name_before_quotes", "name_in_quotes", "name_after_quotes",
+					"without_quotes", "company_type_id", "registered_date", "terminated_date"),
+			CompanyRegisterImportServiceImpl::toRowValues);
+	public static final StagingTable COMPANY_REGISTER_STAGING_TABLE = new StagingTable("company_register",
+			List.of(new TableConstraint("company_register_pkey", "PRIMARY KEY (id)"),
+					new TableConstraint("fk_company_type_to_company_register",
+							"FOREIGN KEY (company_type_id) REFERENCES company_type (id)")),
+			List.of(new TableIndex("company_register_name_tsv_idx", "USING gin (name_tsv)"),
+					new TableIndex("company_register_search_name_trgm_idx", "USING gin (search_name gin_trgm_ops)"),
+					new TableIndex("company_register_register_number_pattern_idx", "(register_number text_pattern_ops)"),
+					new TableIndex("company_register_name_id_idx", "(name, id)")));
+
+	private static final String COMPANY_REGISTER_DOWNLOAD_FILE = "company_register.csv";
+	private static final String LOADED_CHECKPOINT = "loaded";
+	private static final String INDEXED_CHECKPOINT = "indexed";
+	private static final String ROWS_CHECKPOINT = "rows";
+	private static final int COMPANY_TYPE_CODE_COLUMN = 9;
+	private static final int COMPANY_TYPE_NAME_COLUMN = 10;
+	private static final int[] COMPANY_COLUMNS = { 0, 1, 2, 3, 4, 5, COMPANY_TYPE_CODE_COLUMN, COMPANY_TYPE_NAME_COLUMN, 11, 12 };
+
+	private final FileService fileService;
+	private final CsvParser csvParser;
+	private final CompanyTypeService companyTypeService;
+	private final ConfigService configService;
 	private final CompanyRegisterRepository companyRegisterRepository;
+	private final BulkLoadService bulkLoadService;
+	private final StagingTableService stagingTableService;
+	private final RemoteFileStateService remoteFileStateService;
+	private final ImportGenerationService importGenerationService;
+	private final CompanyRegisterNumberIndexService companyRegisterNumberIndexService;
 
-	public CompanyRegisterImportServiceImpl(FileService fileService, CsvParser csvParser, CompanyTypeRepository companyTypeRepository, ConfigService configService, JdbcTemplate jdbcTemplate,
-			CompanyRegisterRepository companyRegisterRepository) {
-        this.fileService = fileService;
-        this.csvParser = csvParser;
-        this.companyTypeRepository = companyTypeRepository;
-        this.configService = configService;
-        this.jdbcTemplate = jdbcTemplate;
+	public CompanyRegisterImportServiceImpl(FileService fileService, CsvParser csvParser, CompanyTypeService companyTypeService, ConfigService configService,
+			CompanyRegisterRepository companyRegisterRepository, BulkLoadService bulkLoadService, StagingTableService stagingTableService,
+			RemoteFileStateService remoteFileStateService, ImportGenerationService importGenerationService,
+			CompanyRegisterNumberIndexService companyRegisterNumberIndexService) {
+		this.fileService = fileService;
+		this.csvParser = csvParser;
+		this.companyTypeService = companyTypeService;
+		this.configService = configService;
 		this.companyRegisterRepository = companyRegisterRepository;
+		this.bulkLoadService = bulkLoadService;
+		this.stagingTableService = stagingTableService;
+		this.remoteFileStateService = remoteFileStateService;
+		this.importGenerationService = importGenerationService;
+		this.companyRegisterNumberIndexService = companyRegisterNumberIndexService;
+	}
+
+	@Override
+	public ImportJobType getJobType() {
+		return ImportJobType.COMPANY_REGISTER;
+	}
+
+	@Override
+	public String getCacheName() {
+		return CompanyRegisterServiceImpl.COMPANY_REGISTER_CACHE;
+	}
+
+	@Override
+	public void reload() {
+		companyRegisterNumberIndexService.reload();
 	}
 
-    public void importData() {
-        log.info("Company data import started");
-        byte[] csvFileBytes = fileService.downloadFileByUrl(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK));
-        if (csvFileBytes != null && csvFileBytes.length > 0) {
-            try (InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(csvFileBytes))) {
-                importCompanyData(reader);
-            } catch (IOException e) {
-                log.error("Error closing input stream", e);
-            }
-        } else {
-            log.warn("Company data CSV file could not be downloaded");
-        }
-        log.info("Company data import finished");
-    }
-
-	public void importCompanyData(Reader file) {
-
-        List<String[]> lineData = csvParser.getDataLines(file);
-
-        saveUniqueCompanyTypes(getUniqueCompanyTypes(lineData));
-        Map<String, CompanyType> companyTypeMap = companyTypeRepository.findAll()
-                .stream()
-                .collect(Collectors.toMap(CompanyType::getCode, Function.identity()));
-
-        truncateCompanyRegisterTable();
-        batchInsertCompanyRegister(getCompaniesLists(lineData, companyTypeMap));
-    }
-
-    protected List<CompanyRegister> getCompaniesLists(List<String[]> lineData, Map<String, CompanyType> companyTypeMap) {
-        List<CompanyRegister> companyRegisterList = new ArrayList<>();
-        lineData.forEach(line -> {
-            CompanyType companyType = companyTypeMap.getOrDefault(line[9], null);
-            companyRegisterList.add(getCompanyData(Arrays.asList(line), companyType));
-        });
-        return companyRegisterList;
-    }
-
-    public void batchInsertCompanyRegister(List<CompanyRegister> companyRegisterList) {
-        String sql = """
-                
-                INSERT INTO company_register
-                    (register_number, sepa_code, "name", name_before_quotes, name_in_quotes, name_after_quotes, without_quotes, company_type_id, registered_date, terminated_date)
-                    VALUES(?, ?, ?, ?, ?, ?, ?, ?, ?, ?);
-                """;
-
-        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
-            @Override
-            public void setValues(@NotNull PreparedStatement ps, int i) throws SQLException {
-                CompanyRegister companyRegister = companyRegisterList.get(i);
-                ps.setString(1, companyRegister.getRegisterNumber());
-                ps.setString(2, companyRegister.getSepaCode());
-                ps.setString(3, companyRegister.getName());
-                ps.setString(4, companyRegister.getNameBeforeQuotes());
-                ps.setString(5, companyRegister.getNameInQuotes());
-                ps.setString(6, companyRegister.getNameAfterQuotes());
-                ps.setString(7, companyRegister.getWithoutQuotes());
-                if (companyRegister.getCompanyType() != null) {
-                    ps.setLong(8, companyRegister.getCompanyType().getId());
-                } else {
-                    ps.setNull(8, Types.BIGINT);
-                }
-                if (companyRegister.getRegisteredDate() != null) {
-                    ps.setDate(9, java.sql.Date.valueOf(companyRegister.getRegisteredDate()));
-                } else {
-                    ps.setNull(9, Types.DATE);
-                }
-                if (companyRegister.getTerminatedDate() != null) {
-                    ps.setDate(10, java.sql.Date.valueOf(companyRegister.getTerminatedDate()));
-                } else {
-                    ps.setNull(10, Types.DATE);
-                }
-            }
-
-            @Override
-            public int getBatchSize() {
-                return companyRegisterList.size();
-            }
-        });
-    }
-
-
-    public void truncateCompanyRegisterTable() {
-        jdbcTemplate.execute("TRUNCATE TABLE company_register");
-    }
-
-
-    public Set<Map.Entry<String, String>> getUniqueCompanyTypes(List<String[]> lineData) {
-        return lineData.stream()
-                .map(line -> new AbstractMap.SimpleEntry<>(line[9], line[10]))
-                .collect(Collectors.toSet());
-    }
-
-    protected CompanyRegister getCompanyData(List<String> csvLineInArray, CompanyType companyType) {
-        CompanyRegister companyRegister = new CompanyRegister();
-        companyRegister.setRegisterNumber(csvLineInArray.get(0));
-        companyRegister.setSepaCode(csvLineInArray.get(1));
-        companyRegister.setName(csvLineInArray.get(2));
-        companyRegister.setNameBeforeQuotes(csvLineInArray.get(3));
+	@Override
+	@CacheEvict(value = CompanyRegisterServiceImpl.COMPANY_REGISTER_CACHE, allEntries = true)
+	public void run(ImportJobContext context) {
+		log.info("Company data import started");
+		String downloadLink = configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK);
+		Path downloadPath = fileService.getDownloadDirectoryPath().resolve(COMPANY_REGISTER_DOWNLOAD_FILE);
+		Optional<String> loadedChecksum = context.getCheckpoint(LOADED_CHECKPOINT);
+		if (loadedChecksum.isPresent()) {
+			log.info("Resuming company import job {} from the loaded staging table", context.getJobId());
+			DownloadedFile csvFile = context.getDownloadCheckpoint(downloadPath)
+					.orElseGet(() -> new DownloadedFile(downloadPath, loadedChecksum.get(), 0));
+			publishStagingTable(context);
+			remoteFileStateService.saveState(DegraConfig.COMPANY_DOWNLOAD_LINK, downloadLink, csvFile);
+			log.info("Company data import finished");
+			return;
+		}
+
+		context.enterStage(ImportJobStatus.DOWNLOADING);
+		RemoteFileState previousState = remoteFileStateService.getState(DegraConfig.COMPANY_DOWNLOAD_LINK, downloadLink);
+		DownloadedFile csvFile = fileService.downloadFileIfModified(downloadLink, downloadPath, previousState).orElse(null);
+		if (csvFile == null) {
+			log.info("Company data CSV file has not changed");
+		} else if (csvFile.isEmpty()) {
+			log.warn("Company data CSV file could not be downloaded");
+			fileService.cleanUpFile(csvFile.getPath());
+		} else {
+			try {
+				if (previousState.hasSameContent(csvFile)) {
+					log.info("Company data CSV file has not changed");
+				} else {
+					long committedRows = getCommittedRows(context, csvFile);
+					context.checkpointDownload(csvFile);
+					importCompanyData(() -> openCsvFile(csvFile.getPath()), csvFile.getChecksum(), committedRows, context);
+				}
+				remoteFileStateService.saveState(DegraConfig.COMPANY_DOWNLOAD_LINK, downloadLink, csvFile);
+			} finally {
+				fileService.cleanUpFile(csvFile.getPath());
+			}
+		}
+		log.info("Company data import finished");
+	}
+
+	/**
+	 * Rows that a failed run of this job committed to the staging table, as long as the file downloaded again is the one
+	 * it was loading.
+	 */
+	private static long getCommittedRows(ImportJobContext context, DownloadedFile csvFile) {
+		boolean sameFile = context.getDownloadCheckpoint(csvFile.getPath())
+				.filter(loading -> loading.getChecksum().equals(csvFile.getChecksum()))
+				.isPresent();
+		return sameFile ? context.getCheckpoint(ROWS_CHECKPOINT).map(Long::parseLong).orElse(0L) : 0;
+	}
+
+	private static Reader openCsvFile(Path csvFile) {
+		try {
+			return Files.newBufferedReader(csvFile, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The rows committed to the staging table are checkpointed as they are loaded, and a resumed job loads the rest of
+	 * the same file into the staging table it left behind. Once the staging table is loaded it is checkpointed together
+	 * with the checksum of its source, so a resumed job only has to index and swap it. The download it came from is
+	 * checkpointed by {@link #run(ImportJobContext)}, so the resumed job still remembers its validators for the next
+	 * conditional request.
+	 */
+	protected void importCompanyData(Supplier<Reader> csvFile, String checksum, long committedRows, ImportJobContext context) {
+		context.enterStage(ImportJobStatus.PARSING);
+		CompanyTypeLookup companyTypes = companyTypeService.saveAll(getUniqueCompanyTypes(csvFile.get()));
+
+		context.enterStage(ImportJobStatus.LOADING);
+		String stagingTableName;
+		if (committedRows > 0) {
+			log.info("Resuming company import job {} after {} committed rows", context.getJobId(), committedRows);
+			stagingTableName = COMPANY_REGISTER_STAGING_TABLE.getStagingTableName();
+		} else {
+			stagingTableName = stagingTableService.create(COMPANY_REGISTER_STAGING_TABLE);
+		}
+		try (CsvRecordReader records = csvParser.open(csvFile.get(), COMPANY_COLUMNS)) {
+			Iterator<CompanyRegister> companies = getCompanies(records, companyTypes, context);
+			for (long skipped = 0; skipped < committedRows && companies.hasNext(); skipped++) {
+				companies.next();
+			}
+			context.rowsLoaded(batchInsertCompanyRegister(companies, stagingTableName,
+					rows -> context.checkpoint(ROWS_CHECKPOINT, String.valueOf(committedRows + rows))));
+			context.checkpoint(LOADED_CHECKPOINT, checksum);
+		} catch (RuntimeException e) {
+			if (context.isResumable()) {
+				log.warn("Keeping {} so that import job {} can be resumed", COMPANY_REGISTER_STAGING_TABLE.getStagingTableName(),
+						context.getJobId());
+			} else {
+				stagingTableService.drop(COMPANY_REGISTER_STAGING_TABLE);
+				context.clearCheckpoints();
+			}
+			throw e;
+		}
+		publishStagingTable(context);
+	}
+
+	private void publishStagingTable(ImportJobContext context) {
+		try {
+			if (!context.isCheckpointed(INDEXED_CHECKPOINT)) {
+				context.enterStage(ImportJobStatus.INDEXING);
+				stagingTableService.buildIndexes(COMPANY_REGISTER_STAGING_TABLE);
+				context.checkpoint(INDEXED_CHECKPOINT);
+			}
+			context.enterStage(ImportJobStatus.SWAPPING);
+			stagingTableService.swap(COMPANY_REGISTER_STAGING_TABLE);
+			context.clearCheckpoints();
+			companyRegisterNumberIndexService.reload();
+			importGenerationService.publish(getJobType());
+		} catch (RuntimeException e) {
+			if (context.isResumable()) {
+				log.warn("Keeping {} so that import job {} can be resumed", COMPANY_REGISTER_STAGING_TABLE.getStagingTableName(),
+						context.getJobId());
+			} else {
+				stagingTableService.drop(COMPANY_REGISTER_STAGING_TABLE);
+				context.clearCheckpoints();
+			}
+			throw e;
+		}
+	}
+
+	protected Iterator<CompanyRegister> getCompanies(CsvRecordReader records, CompanyTypeLookup companyTypes,
+			ImportJobContext context) {
+		return records.map(line -> {
+			context.rowParsed();
+			return getCompanyData(line, companyTypes.get(line.get(COMPANY_TYPE_CODE_COLUMN)));
+		});
+	}
+
+	public long batchInsertCompanyRegister(Iterator<CompanyRegister> companyRegisters, String tableName,
+			LongConsumer committedRows) {
+		return bulkLoadService.load(COMPANY_REGISTER_TABLE.withTableName(tableName), companyRegisters, committedRows);
+	}
+
+	protected static Object[] toRowValues(CompanyRegister companyRegister) {
+		return new Object[] { companyRegister.getRegisterNumber(), companyRegister.getSepaCode(), companyRegister.getName(),
+				companyRegister.getNameBeforeQuotes(), companyRegister.getNameInQuotes(), companyRegister.getNameAfterQuotes(),
+				companyRegister.getWithoutQuotes(),
+				companyRegister.getCompanyType() != null ? companyRegister.getCompanyType().getId() : null,
+				companyRegister.getRegisteredDate(), companyRegister.getTerminatedDate() };
+	}
+
+
+	/**
+	 * Company type names by code, in order of first appearance. Only the two type columns are parsed, so this pass
+	 * holds nothing but the handful of distinct types in memory.
+	 */
+	public Map<String, String> getUniqueCompanyTypes(Reader file) {
+		Map<String, String> uniqueCompanyTypes = new LinkedHashMap<>();
+		try (CsvRecordReader records = csvParser.open(file, COMPANY_TYPE_CODE_COLUMN, COMPANY_TYPE_NAME_COLUMN)) {
+			while (records.next()) {
+				uniqueCompanyTypes.putIfAbsent(records.get(COMPANY_TYPE_CODE_COLUMN), records.get(COMPANY_TYPE_NAME_COLUMN));
+			}
+		}
+		return uniqueCompanyTypes;
+	}
+
+	protected CompanyRegister getCompanyData(List<String> csvLineInArray, CompanyType companyType) {
+		CompanyRegister companyRegister = new CompanyRegister();
+		companyRegister.setRegisterNumber(csvLineInArray.get(0));
+		companyRegister.setSepaCode(csvLineInArray.get(1));
+		companyRegister.setName(csvLineInArray.get(2));
+		companyRegister.setNameBeforeQuotes(csvLineInArray.get(3));
 		String nameInQuotes = csvLineInArray.get(4).isEmpty() ?
 				(csvLineInArray.get(3).isEmpty() ? companyRegister.getName() : csvLineInArray.get(3))
 				: csvLineInArray.get(4);
 		companyRegister.setNameInQuotes(nameInQuotes);
-        companyRegister.setNameAfterQuotes(csvLineInArray.get(5));
-        companyRegister.setCompanyType(companyType);
-        companyRegister.setRegisteredDate(csvLineInArray.get(11).isEmpty() ? null : LocalDate.parse(csvLineInArray.get(11)));
-        companyRegister.setTerminatedDate(csvLineInArray.get(12).isEmpty() ? null : LocalDate.parse(csvLineInArray.get(12)));
-        if (companyRegister.getNameNormalized() == null) {
-            log.error(companyRegister.getRegisterNumber());
-        }
-        companyRegister.setName(companyRegister.getNameNormalized());
-
-        return companyRegister;
-    }
-
-    public void saveUniqueCompanyTypes(Set<Map.Entry<String, String>> uniqueCompanyTypes) {
-        uniqueCompanyTypes.forEach(entry -> {
-            String code = entry.getKey();
-            String name = entry.getValue();
-            CompanyType existingType = companyTypeRepository.getByCode(code).orElse(null);
-            if (existingType == null) {
-                CompanyType newType = new CompanyType();
-                newType.setCode(code);
-                newType.setName(name);
-                companyTypeRepository.save(newType);
-            }
-        });
-    }
+		companyRegister.setNameAfterQuotes(csvLineInArray.get(5));
+		companyRegister.setCompanyType(companyType);
+		companyRegister.setRegisteredDate(csvLineInArray.get(11).isEmpty() ? null : LocalDate.parse(csvLineInArray.get(11)));
+		companyRegister.setTerminatedDate(csvLineInArray.get(12).isEmpty() ? null : LocalDate.parse(csvLineInArray.get(12)));
+		if (companyRegister.getNameNormalized() == null) {
+			log.error(companyRegister.getRegisterNumber());
+		}
+		companyRegister.setName(companyRegister.getNameNormalized());
+
+		return companyRegister;
+	}
 }
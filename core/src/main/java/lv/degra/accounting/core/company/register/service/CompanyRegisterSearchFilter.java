@@ -0,0 +1,51 @@
+package lv.degra.accounting.core.company.register.service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+import lv.degra.accounting.core.system.cache.PrefixSearchFilter;
+import lv.degra.accounting.core.utils.TrigramSimilarity;
+
+/**
+ * Replays the company suggestion query on cached results: whole-word name match or register number prefix. Because
+ * name words must match whole, a query can only be narrowed from a broader one that ends on a word boundary.
+ */
+public class CompanyRegisterSearchFilter implements PrefixSearchFilter<CompanyRegisterDto> {
+
+	private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	@Override
+	public boolean canNarrow(String broaderQuery, String narrowerQuery) {
+		return narrowerQuery.startsWith(broaderQuery) && !toWords(broaderQuery).isEmpty()
+				&& (isSeparator(broaderQuery.charAt(broaderQuery.length() - 1))
+				|| isSeparator(narrowerQuery.charAt(broaderQuery.length())));
+	}
+
+	@Override
+	public boolean matches(String query, CompanyRegisterDto company) {
+		if (company.getRegisterNumber() != null && company.getRegisterNumber().startsWith(query)) {
+			return true;
+		}
+		List<String> queryWords = toWords(query);
+		return company.getName() != null && !queryWords.isEmpty() && toWords(company.getName()).containsAll(queryWords);
+	}
+
+	@Override
+	public Comparator<CompanyRegisterDto> ranking(String query) {
+		return Comparator.<CompanyRegisterDto>comparingDouble(company -> TrigramSimilarity.similarity(company.getName(), query))
+				.reversed()
+				.thenComparing(CompanyRegisterDto::getName, Comparator.nullsLast(Comparator.naturalOrder()));
+	}
+
+	private static boolean isSeparator(char character) {
+		return !Character.isLetterOrDigit(character);
+	}
+
+	private static List<String> toWords(String value) {
+		return Arrays.stream(WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))).filter(word -> !word.isEmpty()).toList();
+	}
+}
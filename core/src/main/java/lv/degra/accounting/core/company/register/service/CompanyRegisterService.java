@@ -1,11 +1,17 @@
 package lv.degra.accounting.core.company.register.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterLookupDto;
 
 public interface CompanyRegisterService {
 	List<CompanyRegisterDto> findByNameContainingIgnoreCase(String name);
 
 	boolean existsByRegistrationNumber(String registrationNumber);
+
+	void streamSuggestions(String query, String afterName, Long afterId, int limit, Consumer<CompanyRegisterDto> consumer);
+
+	List<CompanyRegisterLookupDto> lookupByRegistrationNumbers(List<String> registrationNumbers);
 }
@@ -1,20 +1,37 @@
 package lv.degra.accounting.core.company.register.service;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import lombok.RequiredArgsConstructor;
 import lv.degra.accounting.core.company.CompanyRegisterMapper;
 import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterLookupDto;
 import lv.degra.accounting.core.company.register.model.CompanyRegisterRepository;
+import lv.degra.accounting.core.company.register.search.CompanyRegisterNumberIndexService;
+import lv.degra.accounting.core.exception.InvalidRequestException;
 
 @Service
 @RequiredArgsConstructor
 public class CompanyRegisterServiceImpl implements CompanyRegisterService {
 
+    public static final String COMPANY_REGISTER_CACHE = "companyRegisterCache";
+    public static final int COMPANY_SUGGESTION_LIMIT = 15;
+    public static final int MAX_SUGGESTION_PAGE_SIZE = 10_000;
+    public static final int MAX_LOOKUP_SIZE = 50_000;
+    static final int LOOKUP_CHUNK_SIZE = 10_000;
+
     private final CompanyRegisterRepository companyRegisterRepository;
+    private final CompanyRegisterNumberIndexService companyRegisterNumberIndexService;
 
+    @Cacheable(COMPANY_REGISTER_CACHE)
     public List<CompanyRegisterDto> findByNameContainingIgnoreCase(String name) {
         return companyRegisterRepository.findTopByNameContainingIgnoreCase(name)
 				.stream()
@@ -22,7 +39,55 @@ public class CompanyRegisterServiceImpl implements CompanyRegisterService {
 				.toList();
     }
 
+    /**
+     * Answered from the in-memory number index, which is reloaded with every published company import, so both hits and
+     * misses are trusted. The database is only asked while the index is not built or cannot encode the number.
+     */
     public boolean existsByRegistrationNumber(String registrationNumber) {
-        return companyRegisterRepository.existsByRegisterNumber(registrationNumber);
+        return companyRegisterNumberIndexService.contains(registrationNumber)
+                .orElseGet(() -> companyRegisterRepository.existsByRegisterNumber(registrationNumber));
+    }
+
+    /**
+     * Streams one keyset page straight from the database cursor. The transaction keeps the cursor open so that the
+     * driver fetches rows in chunks instead of buffering the whole page.
+     */
+    @Transactional(readOnly = true)
+    public void streamSuggestions(String query, String afterName, Long afterId, int limit, Consumer<CompanyRegisterDto> consumer) {
+        if (limit < 1 || limit > MAX_SUGGESTION_PAGE_SIZE) {
+            throw new InvalidRequestException("limit must be between 1 and " + MAX_SUGGESTION_PAGE_SIZE);
+        }
+        if ((afterName == null) != (afterId == null)) {
+            throw new InvalidRequestException("afterName and afterId must be given together");
+        }
+        CompanyRegisterDto after = afterId != null ? new CompanyRegisterDto(afterId, null, null, afterName, null, null) : null;
+        companyRegisterRepository.streamSuggestions(query, after, limit, consumer);
+    }
+
+    /**
+     * Resolves the distinct numbers in chunks of {@link #LOOKUP_CHUNK_SIZE}, one array-bound query per chunk, and answers
+     * in request order. Duplicates in the request are repeated in the answer; misses come back with {@code found} unset.
+     */
+    @Transactional(readOnly = true)
+    public List<CompanyRegisterLookupDto> lookupByRegistrationNumbers(List<String> registrationNumbers) {
+        if (registrationNumbers.size() > MAX_LOOKUP_SIZE) {
+            throw new InvalidRequestException("At most " + MAX_LOOKUP_SIZE + " registration numbers can be looked up at once");
+        }
+        List<String> distinctNumbers = registrationNumbers.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        Map<String, CompanyRegisterDto> companies = new HashMap<>(distinctNumbers.size() * 2);
+        for (int from = 0; from < distinctNumbers.size(); from += LOOKUP_CHUNK_SIZE) {
+            List<String> chunk = distinctNumbers.subList(from, Math.min(from + LOOKUP_CHUNK_SIZE, distinctNumbers.size()));
+            companyRegisterRepository.findByRegisterNumbers(chunk)
+                    .forEach(company -> companies.putIfAbsent(company.getRegisterNumber(), company));
+        }
+        return registrationNumbers.stream()
+                .map(number -> {
+                    CompanyRegisterDto company = number != null ? companies.get(number) : null;
+                    return new CompanyRegisterLookupDto(number, company != null, company);
+                })
+                .toList();
     }
 }
@@ -1,8 +1,7 @@
 package lv.degra.accounting.core.company.register.service;
 
 import java.io.Reader;
-import java.util.List;
 
 public interface CsvParser {
-	List<String[]> getDataLines(Reader file);
+	CsvRecordReader open(Reader file, int... columns);
 }
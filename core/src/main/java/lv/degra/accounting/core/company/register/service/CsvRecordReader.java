@@ -0,0 +1,165 @@
+package lv.degra.accounting.core.company.register.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Streaming CSV reader over a reusable char buffer. Only the requested columns are materialized into strings, the rest
+ * are skipped while scanning. Quoted fields may span lines and use doubled quotes for a literal quote. An instance keeps
+ * its parse state in fields and must only be used by one thread; the current record is overwritten by {@link #next()}.
+ */
+public class CsvRecordReader implements Closeable {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final String EMPTY = "";
+
+	private final Reader reader;
+	private final char separator;
+	private final char quote;
+	private final boolean[] materialized;
+	private final String[] values;
+	private final List<String> record;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private char[] field = new char[256];
+	private int fieldLength;
+	private int position;
+	private int limit;
+
+	public CsvRecordReader(Reader reader, char separator, char quote, int... columns) {
+		this.reader = reader;
+		this.separator = separator;
+		this.quote = quote;
+		int columnCount = Arrays.stream(columns).max().orElse(-1) + 1;
+		this.materialized = new boolean[columnCount];
+		Arrays.stream(columns).forEach(column -> materialized[column] = true);
+		this.values = new String[columnCount];
+		this.record = Arrays.asList(values);
+	}
+
+	public boolean next() {
+		try {
+			return readRecord();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error reading CSV record", e);
+		}
+	}
+
+	/**
+	 * Current record as a fixed-size view; columns that were not requested, or are missing from the line, are empty.
+	 */
+	public List<String> getRecord() {
+		return record;
+	}
+
+	public String get(int column) {
+		return values[column];
+	}
+
+	public <T> Iterator<T> map(Function<List<String>, T> mapper) {
+		return new Iterator<>() {
+			private Boolean hasNext;
+
+			@Override
+			public boolean hasNext() {
+				if (hasNext == null) {
+					hasNext = CsvRecordReader.this.next();
+				}
+				return hasNext;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				hasNext = null;
+				return mapper.apply(record);
+			}
+		};
+	}
+
+	@Override
+	public void close() {
+		try {
+			reader.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException("Error closing CSV reader", e);
+		}
+	}
+
+	private boolean readRecord() throws IOException {
+		Arrays.fill(values, EMPTY);
+		int column = 0;
+		boolean inQuotes = false;
+		boolean hasData = false;
+		fieldLength = 0;
+
+		while (position < limit || fill()) {
+			char character = buffer[position++];
+			if (inQuotes) {
+				if (character != quote) {
+					append(column, character);
+				} else if (peek() == quote) {
+					position++;
+					append(column, character);
+				} else {
+					inQuotes = false;
+				}
+			} else if (character == quote) {
+				inQuotes = true;
+				hasData = true;
+			} else if (character == separator) {
+				endField(column++);
+				hasData = true;
+			} else if (character == '\n') {
+				if (hasData || fieldLength > 0) {
+					endField(column);
+					return true;
+				}
+			} else if (character != '\r') {
+				append(column, character);
+				hasData = true;
+			}
+		}
+
+		if (hasData || fieldLength > 0) {
+			endField(column);
+			return true;
+		}
+		return false;
+	}
+
+	private boolean fill() throws IOException {
+		int read = reader.read(buffer);
+		position = 0;
+		limit = Math.max(read, 0);
+		return read > 0;
+	}
+
+	private int peek() throws IOException {
+		return position < limit || fill() ? buffer[position] : -1;
+	}
+
+	private void append(int column, char character) {
+		if (column < materialized.length && materialized[column]) {
+			if (fieldLength == field.length) {
+				field = Arrays.copyOf(field, field.length * 2);
+			}
+			field[fieldLength++] = character;
+		}
+	}
+
+	private void endField(int column) {
+		if (column < materialized.length && materialized[column]) {
+			values[column] = new String(field, 0, fieldLength);
+		}
+		fieldLength = 0;
+	}
+}
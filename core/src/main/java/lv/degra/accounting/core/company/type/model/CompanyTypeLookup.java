@@ -0,0 +1,54 @@
+package lv.degra.accounting.core.company.type.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Read-only company type lookup used while streaming the company register. Type codes are at most three characters,
+ * so each code is packed into a {@code long} together with its length and the types are found by binary search over
+ * a sorted {@code long[]}, without hashing or boxing per CSV row.
+ */
+public class CompanyTypeLookup {
+
+	private static final int MAX_CODE_LENGTH = 3;
+	private static final long NOT_PACKABLE = -1;
+
+	private final long[] keys;
+	private final CompanyType[] companyTypes;
+
+	public CompanyTypeLookup(Collection<CompanyType> companyTypes) {
+		CompanyType[] sorted = companyTypes.stream()
+				.filter(companyType -> pack(companyType.getCode()) != NOT_PACKABLE)
+				.sorted((left, right) -> Long.compare(pack(left.getCode()), pack(right.getCode())))
+				.toArray(CompanyType[]::new);
+		this.keys = new long[sorted.length];
+		for (int i = 0; i < sorted.length; i++) {
+			keys[i] = pack(sorted[i].getCode());
+		}
+		this.companyTypes = sorted;
+	}
+
+	public CompanyType get(String code) {
+		long key = pack(code);
+		if (key == NOT_PACKABLE) {
+			return null;
+		}
+		int index = Arrays.binarySearch(keys, key);
+		return index >= 0 ? companyTypes[index] : null;
+	}
+
+	public int size() {
+		return keys.length;
+	}
+
+	static long pack(String code) {
+		if (code == null || code.length() > MAX_CODE_LENGTH) {
+			return NOT_PACKABLE;
+		}
+		long key = code.length();
+		for (int i = 0; i < code.length(); i++) {
+			key = key << Character.SIZE | code.charAt(i);
+		}
+		return key << Character.SIZE * (MAX_CODE_LENGTH - code.length());
+	}
+}
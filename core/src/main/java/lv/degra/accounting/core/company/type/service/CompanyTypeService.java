@@ -0,0 +1,10 @@
+package lv.degra.accounting.core.company.type.service;
+
+import java.util.Map;
+
+import lv.degra.accounting.core.company.type.model.CompanyTypeLookup;
+
+public interface CompanyTypeService {
+
+	CompanyTypeLookup saveAll(Map<String, String> namesByCode);
+}
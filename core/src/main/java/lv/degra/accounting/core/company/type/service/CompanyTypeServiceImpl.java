@@ -0,0 +1,58 @@
+package lv.degra.accounting.core.company.type.service;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.company.type.model.CompanyType;
+import lv.degra.accounting.core.company.type.model.CompanyTypeLookup;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class CompanyTypeServiceImpl implements CompanyTypeService {
+
+	/**
+	 * Inserts the missing types and returns every requested type in one statement. The {@code inserted} CTE returns the
+	 * new rows; the second branch reads the statement's snapshot, which only contains the rows that existed before.
+	 */
+	private static final String UPSERT_SQL = """
+			WITH input (code, name) AS (SELECT * FROM unnest(?::varchar[], ?::varchar[])),
+			inserted AS (
+				INSERT INTO company_type (code, name, created_date_time, last_modified_date_time)
+				SELECT code, name, LOCALTIMESTAMP, LOCALTIMESTAMP FROM input
+				ON CONFLICT (code) DO NOTHING
+				RETURNING id, code, name
+			)
+			SELECT id, code, name FROM inserted
+			UNION ALL
+			SELECT company_type.id, company_type.code, company_type.name FROM company_type JOIN input ON input.code = company_type.code
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public CompanyTypeLookup saveAll(Map<String, String> namesByCode) {
+		if (namesByCode.isEmpty()) {
+			return new CompanyTypeLookup(List.of());
+		}
+		String[] codes = namesByCode.keySet().toArray(String[]::new);
+		String[] names = namesByCode.values().toArray(String[]::new);
+		List<CompanyType> companyTypes = jdbcTemplate.query(connection -> {
+			PreparedStatement statement = connection.prepareStatement(UPSERT_SQL);
+			Array codeArray = connection.createArrayOf("varchar", codes);
+			Array nameArray = connection.createArrayOf("varchar", names);
+			statement.setArray(1, codeArray);
+			statement.setArray(2, nameArray);
+			return statement;
+		}, (rs, rowNum) -> new CompanyType(rs.getInt("id"), rs.getString("code"), rs.getString("name")));
+		log.info("Resolved {} company types", companyTypes.size());
+		return new CompanyTypeLookup(companyTypes);
+	}
+}
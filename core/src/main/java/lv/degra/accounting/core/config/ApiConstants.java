@@ -15,7 +15,12 @@ public class ApiConstants {
 	public static final String ENDPOINT_ADDRESS = "/address";
 	public static final String ENDPOINT_COMPANY = BASE_API_URL+ "/companys";
 	public static final String ENDPOINT_SUGGESTIONS = "/suggestions";
+	public static final String ENDPOINT_SUGGESTIONS_STREAM = ENDPOINT_SUGGESTIONS + "/stream";
+	public static final String ENDPOINT_LOOKUP = "/lookup";
 	public static final String ENDPOINT_IMPORT = "/import";
+	public static final String ENDPOINT_IMPORT_JOB = ENDPOINT_IMPORT + "/{id}";
+	public static final String ENDPOINT_IMPORT_JOB_RESUME = ENDPOINT_IMPORT_JOB + "/resume";
+	public static final String ENDPOINT_IMPORT_LOCK = ENDPOINT_IMPORT + "/lock";
 
 
 	public static final String FREIGHT_TRACKING_PATH = BASE_API_URL + "/freight";
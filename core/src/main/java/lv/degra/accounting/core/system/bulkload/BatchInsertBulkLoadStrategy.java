@@ -0,0 +1,64 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class BatchInsertBulkLoadStrategy implements BulkLoadStrategy {
+
+	public static final int BATCH_SIZE = 5000;
+
+	@Override
+	public boolean supports(Connection connection) {
+		return true;
+	}
+
+	@Override
+	public <T> long load(Connection connection, BulkLoadTable<T> table, Iterator<T> rows, LongConsumer committedRows)
+			throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		long rowCount = 0;
+		int pendingRows = 0;
+
+		try (PreparedStatement ps = connection.prepareStatement(getInsertSql(table))) {
+			while (rows.hasNext()) {
+				Object[] values = table.getRowMapper().apply(rows.next());
+				for (int i = 0; i < values.length; i++) {
+					ps.setObject(i + 1, values[i]);
+				}
+				ps.addBatch();
+				rowCount++;
+				if (++pendingRows == BATCH_SIZE) {
+					executeBatch(ps, rowCount, autoCommit, committedRows);
+					pendingRows = 0;
+				}
+			}
+			if (pendingRows > 0) {
+				executeBatch(ps, rowCount, autoCommit, committedRows);
+			}
+		}
+		return rowCount;
+	}
+
+	private static void executeBatch(PreparedStatement ps, long rowCount, boolean autoCommit, LongConsumer committedRows)
+			throws SQLException {
+		ps.executeBatch();
+		if (autoCommit) {
+			committedRows.accept(rowCount);
+		}
+	}
+
+	protected String getInsertSql(BulkLoadTable<?> table) {
+		String placeholders = String.join(", ", Collections.nCopies(table.getColumns().size(), "?"));
+		return "INSERT INTO " + table.getTableName() + " (" + table.getQuotedColumns() + ") VALUES (" + placeholders + ")";
+	}
+}
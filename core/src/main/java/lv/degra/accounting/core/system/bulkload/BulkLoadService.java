@@ -0,0 +1,15 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+public interface BulkLoadService {
+
+	<T> long load(BulkLoadTable<T> table, Iterator<T> rows);
+
+	/**
+	 * Loads the rows, reporting the number of rows committed so far to {@code committedRows}, so that a failed load can
+	 * be resumed after them. Nothing is reported while the load runs inside a transaction.
+	 */
+	<T> long load(BulkLoadTable<T> table, Iterator<T> rows, LongConsumer committedRows);
+}
@@ -0,0 +1,56 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.system.bulkload.exception.BulkLoadException;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class BulkLoadServiceImpl implements BulkLoadService {
+
+	private final DataSource dataSource;
+	private final List<BulkLoadStrategy> strategies;
+
+	@Override
+	public <T> long load(BulkLoadTable<T> table, Iterator<T> rows) {
+		return load(table, rows, committedRows -> {
+		});
+	}
+
+	@Override
+	public <T> long load(BulkLoadTable<T> table, Iterator<T> rows, LongConsumer committedRows) {
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try {
+			BulkLoadStrategy strategy = getStrategy(connection);
+			long rowCount = strategy.load(connection, table, rows, committedRows);
+			log.info("Loaded {} rows into {} using {}", rowCount, table.getTableName(), strategy.getClass().getSimpleName());
+			return rowCount;
+		} catch (SQLException e) {
+			log.error("Error loading data into table: {}", table.getTableName(), e);
+			throw new BulkLoadException("Error loading data into table: " + table.getTableName(), e);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	protected BulkLoadStrategy getStrategy(Connection connection) throws SQLException {
+		for (BulkLoadStrategy strategy : strategies) {
+			if (strategy.supports(connection)) {
+				return strategy;
+			}
+		}
+		throw new BulkLoadException("No bulk load strategy supports the current connection", null);
+	}
+}
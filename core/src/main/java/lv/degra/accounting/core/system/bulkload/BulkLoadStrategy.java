@@ -0,0 +1,18 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+public interface BulkLoadStrategy {
+
+	boolean supports(Connection connection) throws SQLException;
+
+	/**
+	 * Loads the rows and returns their count. Whenever a part of the load is committed on its own, the number of rows
+	 * committed so far is passed to {@code committedRows}.
+	 */
+	<T> long load(Connection connection, BulkLoadTable<T> table, Iterator<T> rows, LongConsumer committedRows)
+			throws SQLException;
+}
@@ -0,0 +1,21 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.util.List;
+import java.util.function.Function;
+
+import lombok.Value;
+
+@Value
+public class BulkLoadTable<T> {
+	String tableName;
+	List<String> columns;
+	Function<T, Object[]> rowMapper;
+
+	public BulkLoadTable<T> withTableName(String otherTableName) {
+		return new BulkLoadTable<>(otherTableName, columns, rowMapper);
+	}
+
+	public String getQuotedColumns() {
+		return String.join(", ", columns.stream().map(column -> "\"" + column + "\"").toList());
+	}
+}
@@ -0,0 +1,94 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.function.LongConsumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class CopyBulkLoadStrategy implements BulkLoadStrategy {
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+	private static final char SEPARATOR = ',';
+	private static final char QUOTE = '"';
+	private static final char NEW_LINE = '\n';
+
+	@Override
+	public boolean supports(Connection connection) throws SQLException {
+		return connection.isWrapperFor(PGConnection.class);
+	}
+
+	@Override
+	public <T> long load(Connection connection, BulkLoadTable<T> table, Iterator<T> rows, LongConsumer committedRows)
+			throws SQLException {
+		boolean autoCommit = connection.getAutoCommit();
+		CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(getCopySql(table));
+		StringBuilder buffer = new StringBuilder(BUFFER_SIZE);
+		long rowCount = 0;
+
+		try {
+			while (rows.hasNext()) {
+				appendCsvRow(buffer, table.getRowMapper().apply(rows.next()));
+				rowCount++;
+				if (buffer.length() >= BUFFER_SIZE) {
+					writeBuffer(copyIn, buffer);
+				}
+			}
+			writeBuffer(copyIn, buffer);
+			copyIn.endCopy();
+			if (autoCommit) {
+				committedRows.accept(rowCount);
+			}
+			return rowCount;
+		} finally {
+			if (copyIn.isActive()) {
+				copyIn.cancelCopy();
+			}
+		}
+	}
+
+	protected String getCopySql(BulkLoadTable<?> table) {
+		return "COPY " + table.getTableName() + " (" + table.getQuotedColumns() + ") FROM STDIN WITH (FORMAT csv)";
+	}
+
+	protected static void appendCsvRow(StringBuilder buffer, Object[] values) {
+		for (int i = 0; i < values.length; i++) {
+			if (i > 0) {
+				buffer.append(SEPARATOR);
+			}
+			if (values[i] != null) {
+				appendCsvValue(buffer, values[i].toString());
+			}
+		}
+		buffer.append(NEW_LINE);
+	}
+
+	private static void appendCsvValue(StringBuilder buffer, String value) {
+		buffer.append(QUOTE);
+		for (int i = 0; i < value.length(); i++) {
+			char currentChar = value.charAt(i);
+			if (currentChar == QUOTE) {
+				buffer.append(QUOTE);
+			}
+			buffer.append(currentChar);
+		}
+		buffer.append(QUOTE);
+	}
+
+	private void writeBuffer(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+		if (buffer.isEmpty()) {
+			return;
+		}
+		byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+		copyIn.writeToCopy(bytes, 0, bytes.length);
+		buffer.setLength(0);
+	}
+}
@@ -0,0 +1,22 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import java.util.List;
+
+import lombok.Value;
+
+@Value
+public class StagingTable {
+	public static final String STAGING_SUFFIX = "_staging";
+
+	String tableName;
+	List<TableConstraint> constraints;
+	List<TableIndex> indexes;
+
+	public String getStagingTableName() {
+		return getStagingName(tableName);
+	}
+
+	public static String getStagingName(String name) {
+		return name + STAGING_SUFFIX;
+	}
+}
@@ -0,0 +1,12 @@
+package lv.degra.accounting.core.system.bulkload;
+
+public interface StagingTableService {
+
+	String create(StagingTable stagingTable);
+
+	void buildIndexes(StagingTable stagingTable);
+
+	void swap(StagingTable stagingTable);
+
+	void drop(StagingTable stagingTable);
+}
@@ -0,0 +1,81 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import static lv.degra.accounting.core.system.bulkload.StagingTable.getStagingName;
+
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class StagingTableServiceImpl implements StagingTableService {
+
+	private static final String SWAP_LOCK_TIMEOUT = "30s";
+	private static final String OWNED_SEQUENCES_SQL = """
+			SELECT seq.relname AS sequence_name, col.attname AS column_name
+			FROM pg_depend dep
+			JOIN pg_class seq ON seq.oid = dep.objid AND seq.relkind = 'S'
+			JOIN pg_attribute col ON col.attrelid = dep.refobjid AND col.attnum = dep.refobjsubid
+			WHERE dep.refobjid = ?::regclass AND dep.deptype = 'a'
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+
+	@Override
+	public String create(StagingTable stagingTable) {
+		String stagingTableName = stagingTable.getStagingTableName();
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTableName);
+		jdbcTemplate.execute("CREATE TABLE " + stagingTableName + " (LIKE " + stagingTable.getTableName()
+				+ " INCLUDING ALL EXCLUDING INDEXES)");
+		log.info("Created staging table {}", stagingTableName);
+		return stagingTableName;
+	}
+
+	@Override
+	public void buildIndexes(StagingTable stagingTable) {
+		String stagingTableName = stagingTable.getStagingTableName();
+		stagingTable.getConstraints().forEach(constraint -> jdbcTemplate.execute(
+				"ALTER TABLE " + stagingTableName + " ADD CONSTRAINT " + getStagingName(constraint.getName()) + " "
+						+ constraint.getDefinition()));
+		stagingTable.getIndexes().forEach(index -> jdbcTemplate.execute(
+				"CREATE INDEX " + getStagingName(index.getName()) + " ON " + stagingTableName + " " + index.getDefinition()));
+		jdbcTemplate.execute("ANALYZE " + stagingTableName);
+		log.info("Built indexes on staging table {}", stagingTableName);
+	}
+
+	@Override
+	@Transactional
+	public void swap(StagingTable stagingTable) {
+		String tableName = stagingTable.getTableName();
+		String stagingTableName = stagingTable.getStagingTableName();
+
+		jdbcTemplate.execute("SET LOCAL lock_timeout = '" + SWAP_LOCK_TIMEOUT + "'");
+		reassignOwnedSequences(tableName, stagingTableName);
+		jdbcTemplate.execute("DROP TABLE " + tableName);
+		jdbcTemplate.execute("ALTER TABLE " + stagingTableName + " RENAME TO " + tableName);
+		stagingTable.getConstraints().forEach(constraint -> jdbcTemplate.execute(
+				"ALTER TABLE " + tableName + " RENAME CONSTRAINT " + getStagingName(constraint.getName()) + " TO "
+						+ constraint.getName()));
+		stagingTable.getIndexes().forEach(index -> jdbcTemplate.execute(
+				"ALTER INDEX " + getStagingName(index.getName()) + " RENAME TO " + index.getName()));
+		log.info("Swapped staging table {} into {}", stagingTableName, tableName);
+	}
+
+	@Override
+	public void drop(StagingTable stagingTable) {
+		jdbcTemplate.execute("DROP TABLE IF EXISTS " + stagingTable.getStagingTableName());
+	}
+
+	private void reassignOwnedSequences(String tableName, String stagingTableName) {
+		List<String> statements = jdbcTemplate.query(OWNED_SEQUENCES_SQL,
+				(rs, rowNum) -> "ALTER SEQUENCE " + rs.getString("sequence_name") + " OWNED BY " + stagingTableName + "."
+						+ rs.getString("column_name"), tableName);
+		statements.forEach(jdbcTemplate::execute);
+	}
+}
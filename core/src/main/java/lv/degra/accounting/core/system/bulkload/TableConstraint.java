@@ -0,0 +1,9 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import lombok.Value;
+
+@Value
+public class TableConstraint {
+	String name;
+	String definition;
+}
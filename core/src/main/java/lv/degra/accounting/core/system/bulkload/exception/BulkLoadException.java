@@ -0,0 +1,7 @@
+package lv.degra.accounting.core.system.bulkload.exception;
+
+public class BulkLoadException extends RuntimeException {
+	public BulkLoadException(String message, Throwable cause) {
+		super(message, cause);
+	}
+}
@@ -0,0 +1,66 @@
+package lv.degra.accounting.core.system.cache;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+
+/**
+ * Search result cache that answers a query missing from the cache by filtering the cached results of a shorter query,
+ * provided those results were complete (fewer than the result limit). Typing "Rīga B" after "Rīga" then needs no
+ * database round-trip.
+ */
+public class PrefixSearchCache<T> extends CaffeineCache {
+
+	private final int resultLimit;
+	private final PrefixSearchFilter<T> filter;
+
+	public PrefixSearchCache(String name, Cache<Object, Object> cache, int resultLimit, PrefixSearchFilter<T> filter) {
+		super(name, cache);
+		this.resultLimit = resultLimit;
+		this.filter = filter;
+	}
+
+	@Override
+	protected Object lookup(Object key) {
+		Object cached = super.lookup(key);
+		if (cached != null || !(key instanceof String query)) {
+			return cached;
+		}
+
+		List<T> derived = deriveFromBroaderQuery(query);
+		if (derived != null) {
+			put(query, derived);
+		}
+		return derived;
+	}
+
+	@Override
+	public <V> V get(Object key, Callable<V> valueLoader) {
+		ValueWrapper cached = get(key);
+		return cached != null ? fromCachedValue(cached) : super.get(key, valueLoader);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <V> V fromCachedValue(ValueWrapper cached) {
+		return (V) cached.get();
+	}
+
+	@SuppressWarnings("unchecked")
+	private List<T> deriveFromBroaderQuery(String query) {
+		for (int length = query.length() - 1; length > 0; length--) {
+			String broaderQuery = query.substring(0, length);
+			if (filter.canNarrow(broaderQuery, query)
+					&& getNativeCache().asMap().get(broaderQuery) instanceof List<?> broaderResults
+					&& broaderResults.size() < resultLimit) {
+				return ((List<T>) broaderResults).stream()
+						.filter(item -> filter.matches(query, item))
+						.sorted(filter.ranking(query))
+						.toList();
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,17 @@
+package lv.degra.accounting.core.system.cache;
+
+import java.util.Comparator;
+
+public interface PrefixSearchFilter<T> {
+
+	/**
+	 * Whether every result of {@code narrowerQuery} is guaranteed to be part of the results of {@code broaderQuery}.
+	 */
+	default boolean canNarrow(String broaderQuery, String narrowerQuery) {
+		return narrowerQuery.startsWith(broaderQuery);
+	}
+
+	boolean matches(String query, T item);
+
+	Comparator<T> ranking(String query);
+}
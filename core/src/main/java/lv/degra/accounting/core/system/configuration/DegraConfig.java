@@ -10,5 +10,8 @@ public class DegraConfig {
 
 	public static final String ADDRESS_DOWNLOAD_LINK = "ADDRESS_DATA_LINK";
 	public static final String COMPANY_DOWNLOAD_LINK = "COMPANY_DATA_LINK";
+	public static final String ADDRESS_IMPORT_MODE = "ADDRESS_IMPORT_MODE";
+	public static final String ADDRESS_SEARCH_INDEX_ENABLED = "ADDRESS_SEARCH_INDEX_ENABLED";
+	public static final String IMPORT_GENERATION_SUFFIX = "_IMPORT_GENERATION";
 
 }
@@ -0,0 +1,28 @@
+package lv.degra.accounting.core.system.files;
+
+import java.nio.file.Path;
+
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+@Value
+@AllArgsConstructor
+public class DownloadedFile {
+	Path path;
+	String checksum;
+	long size;
+	String etag;
+	String lastModified;
+
+	public DownloadedFile(Path path, String checksum, long size) {
+		this(path, checksum, size, null, null);
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public RemoteFileState toRemoteFileState() {
+		return new RemoteFileState(etag, lastModified, checksum);
+	}
+}
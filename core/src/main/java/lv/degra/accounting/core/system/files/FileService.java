@@ -1,18 +1,19 @@
 package lv.degra.accounting.core.system.files;
 
 import java.nio.file.Path;
+import java.util.Optional;
 
 import lv.degra.accounting.core.system.files.exception.ExtractZipFileException;
 
 public interface FileService {
 
-	byte[] downloadFileByUrl(String fileUrl);
+	DownloadedFile downloadFileByUrl(String fileUrl, Path targetFile);
 
-	byte[] loadFileLocally(String localFilePath);
+	Optional<DownloadedFile> downloadFileIfModified(String fileUrl, Path targetFile, RemoteFileState previous);
 
-	String unzipFileInFolder(byte[] csvFileBytes) throws ExtractZipFileException;
+	<T> T readZipEntry(Path zipFile, String entryName, ZipEntryReader<T> reader) throws ExtractZipFileException;
 
-	Path getTempDirectoryPath();
+	Path getDownloadDirectoryPath();
 
 	void saveFileInFolder(byte[] csvFileBytes, Path fileNamePath);
 
@@ -1,96 +1,199 @@
 package lv.degra.accounting.core.system.files;
 
-import static lv.degra.accounting.core.system.utils.DateUtil.getFormattedDate;
-import static org.apache.commons.lang3.RandomStringUtils.randomAlphanumeric;
-
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collections;
-import java.util.Date;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
-import org.apache.commons.lang3.ArrayUtils;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import lv.degra.accounting.core.system.files.exception.*;
 
-import net.lingala.zip4j.exception.ZipException;
+import net.lingala.zip4j.ZipFile;
+import net.lingala.zip4j.model.FileHeader;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class FileServiceImpl implements FileService {
 
-	private static final String ZIP_EXTENSION = ".zip";
-	private static final String TEMP_DIRECTORY_PREFIX = "extracted_zip";
+	private static final String DOWNLOAD_DIRECTORY = "degra_downloads";
+	private static final String PARTIAL_DOWNLOAD_SUFFIX = ".part";
+	private static final String CHECKSUM_ALGORITHM = "SHA-256";
+	private static final int DOWNLOAD_BUFFER_SIZE = 64 * 1024;
+	private static final int MAX_DOWNLOAD_ATTEMPTS = 3;
 
 	private final ZipFileFactory zipFileFactory;
 	private final RestTemplate restTemplate;
 
 	@Override
-	public byte[] downloadFileByUrl(String fileUrl) {
-		try {
-			HttpHeaders headers = new HttpHeaders();
-			headers.setAccept(Collections.singletonList(MediaType.APPLICATION_OCTET_STREAM));
+	public DownloadedFile downloadFileByUrl(String fileUrl, Path targetFile) {
+		return downloadFileIfModified(fileUrl, targetFile, RemoteFileState.NONE).orElseThrow();
+	}
 
-			HttpEntity<String> entity = new HttpEntity<>(headers);
-			ResponseEntity<byte[]> response = restTemplate.exchange(fileUrl, HttpMethod.GET, entity, byte[].class);
+	/**
+	 * Streams the response body to {@code targetFile} without buffering it in memory. The body is first written to a
+	 * ".part" file next to the target; a transfer interrupted within this call is resumed on retry with an HTTP Range
+	 * request guarded by If-Range, so a server whose file has changed in between answers with the whole new body instead
+	 * of splicing it onto the old prefix. A ".part" left behind by an earlier call is discarded, as the remote file may
+	 * have changed since. The validators of {@code previous} are sent as If-None-Match and If-Modified-Since, and an
+	 * empty result means the server answered 304 Not Modified.
+	 */
+	@Override
+	public Optional<DownloadedFile> downloadFileIfModified(String fileUrl, Path targetFile, RemoteFileState previous) {
+		Path partialFile = targetFile.resolveSibling(targetFile.getFileName() + PARTIAL_DOWNLOAD_SUFFIX);
+		AtomicReference<String> rangeValidator = new AtomicReference<>();
+		cleanUpFile(partialFile);
+		for (int attempt = 1; ; attempt++) {
+			try {
+				Files.createDirectories(targetFile.toAbsolutePath().getParent());
+				return Optional.ofNullable(restTemplate.execute(fileUrl, HttpMethod.GET,
+						request -> prepareDownloadRequest(request, partialFile, rangeValidator.get(), previous),
+						response -> writeDownloadedFile(response, partialFile, targetFile, rangeValidator)));
+			} catch (HttpClientErrorException e) {
+				if (e.getStatusCode().value() != HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value() || attempt >= MAX_DOWNLOAD_ATTEMPTS) {
+					log.error("Failed to download file from URL: {}", fileUrl, e);
+					throw new DownloadFileException("Error downloading file from URL: " + fileUrl, e);
+				}
+				log.warn("Partial download of {} is no longer valid, restarting", fileUrl);
+				cleanUpFile(partialFile);
+			} catch (IOException | RestClientException e) {
+				if (attempt >= MAX_DOWNLOAD_ATTEMPTS) {
+					log.error("Failed to download file from URL: {}", fileUrl, e);
+					throw new DownloadFileException("Error downloading file from URL: " + fileUrl, e);
+				}
+				log.warn("Download of {} interrupted (attempt {} of {}), resuming", fileUrl, attempt, MAX_DOWNLOAD_ATTEMPTS, e);
+			}
+		}
+	}
 
-			return response.getBody() != null ? response.getBody() : ArrayUtils.EMPTY_BYTE_ARRAY;
-		} catch (Exception e) {
-			log.error("Failed to download file from URL: {}", fileUrl, e);
-			throw new DownloadFileException("Error downloading file from URL: " + fileUrl, e);
+	private void prepareDownloadRequest(ClientHttpRequest request, Path partialFile, String rangeValidator, RemoteFileState previous)
+			throws IOException {
+		request.getHeaders().setAccept(List.of(MediaType.APPLICATION_OCTET_STREAM, MediaType.ALL));
+		if (previous.getEtag() != null) {
+			request.getHeaders().setIfNoneMatch(previous.getEtag());
+		}
+		if (previous.getLastModified() != null) {
+			request.getHeaders().set(HttpHeaders.IF_MODIFIED_SINCE, previous.getLastModified());
+		}
+		if (rangeValidator != null && Files.exists(partialFile) && Files.size(partialFile) > 0) {
+			request.getHeaders().setRange(List.of(HttpRange.createByteRange(Files.size(partialFile))));
+			request.getHeaders().set(HttpHeaders.IF_RANGE, rangeValidator);
 		}
 	}
 
-	@Override
-	public byte[] loadFileLocally(String localFilePath) {
-		Path path = Paths.get(localFilePath);
-		if (Files.notExists(path)) {
-			log.warn("File does not exist: {}", localFilePath);
-			return ArrayUtils.EMPTY_BYTE_ARRAY;
+	private DownloadedFile writeDownloadedFile(ClientHttpResponse response, Path partialFile, Path targetFile,
+			AtomicReference<String> rangeValidator) throws IOException {
+		if (response.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+			log.info("{} has not been modified since the last download", targetFile.getFileName());
+			return null;
+		}
+		boolean resumed = response.getStatusCode().value() == HttpStatus.PARTIAL_CONTENT.value();
+		if (!resumed) {
+			rangeValidator.set(getRangeValidator(response.getHeaders()));
+		}
+		MessageDigest digest = createDigest();
+		OpenOption[] openOptions = resumed ?
+				new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND } :
+				new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING };
+
+		try (FileChannel file = FileChannel.open(partialFile, openOptions);
+			 ReadableByteChannel body = Channels.newChannel(response.getBody())) {
+			ByteBuffer buffer = ByteBuffer.allocate(DOWNLOAD_BUFFER_SIZE);
+			if (resumed) {
+				updateDigest(digest, partialFile, buffer);
+			}
+			while (body.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer.array(), buffer.position(), buffer.remaining());
+				while (buffer.hasRemaining()) {
+					file.write(buffer);
+				}
+				buffer.clear();
+			}
 		}
 
-		try {
-			log.info("Loading file locally: {}", localFilePath);
-			return Files.readAllBytes(path);
-		} catch (IOException e) {
-			log.error("Error reading file locally: {}", localFilePath, e);
-			return ArrayUtils.EMPTY_BYTE_ARRAY;
+		long size = Files.size(partialFile);
+		Files.move(partialFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		log.info("Downloaded {} bytes to {}{}", size, targetFile, resumed ? " (resumed)" : "");
+		return new DownloadedFile(targetFile, HexFormat.of().formatHex(digest.digest()), size, response.getHeaders().getETag(),
+				response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+	}
+
+	/**
+	 * If-Range only accepts a strong ETag; without one the Last-Modified date is used, and a response carrying neither
+	 * is never resumed.
+	 */
+	private static String getRangeValidator(HttpHeaders headers) {
+		String etag = headers.getETag();
+		if (etag != null && !etag.startsWith("W/")) {
+			return etag;
 		}
+		return headers.getFirst(HttpHeaders.LAST_MODIFIED);
 	}
 
-	@Override
-	public String unzipFileInFolder(byte[] content) {
-		Path zipPath = createTempZipFile(content);
-		Path targetDir = getTempDirectoryPath();
+	private static void updateDigest(MessageDigest digest, Path file, ByteBuffer buffer) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			while (channel.read(buffer) != -1) {
+				buffer.flip();
+				digest.update(buffer.array(), buffer.position(), buffer.remaining());
+				buffer.clear();
+			}
+		}
+	}
 
+	private static MessageDigest createDigest() {
 		try {
-			Files.createDirectories(targetDir);
-			zipFileFactory.createZipFile(zipPath.toString()).extractAll(targetDir.toString());
-			return zipPath.getParent().toString();
-		} catch (ZipException e) {
-			log.error("Error extracting ZIP file: {}", zipPath, e);
-			throw new ExtractZipFileException("Failed to extract ZIP file: " + e.getMessage(), e);
-		} catch (IOException e) {
-			log.error("Error creating directory for ZIP extraction: {}", getTempDirectoryPath(), e);
-			throw new ExtractZipFileException("Failed to create directory for ZIP extraction: " + e.getMessage(), e);
-		} finally {
-			try {
-				cleanUpFile(zipPath);
-			} catch (DeleteFileException e) {
-				log.warn("Failed to clean up temporary ZIP file: {}", zipPath, e);
+			return MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(CHECKSUM_ALGORITHM + " is not available", e);
+		}
+	}
+
+	/**
+	 * Hands the decompressed stream of a single archive member to {@code reader} without extracting anything to disk.
+	 * Every call opens its own handle on the archive, so different members can be read concurrently.
+	 */
+	@Override
+	public <T> T readZipEntry(Path zipFile, String entryName, ZipEntryReader<T> reader) {
+		try (ZipFile archive = zipFileFactory.createZipFile(zipFile.toString())) {
+			FileHeader fileHeader = archive.getFileHeader(entryName);
+			if (fileHeader == null) {
+				throw new ExtractZipFileException("File " + entryName + " not found in ZIP file: " + zipFile);
 			}
+			try (InputStream entry = archive.getInputStream(fileHeader)) {
+				return reader.read(entry);
+			}
+		} catch (IOException e) {
+			log.error("Error reading {} from ZIP file: {}", entryName, zipFile, e);
+			throw new ExtractZipFileException("Failed to read " + entryName + " from ZIP file: " + e.getMessage(), e);
 		}
 	}
 
@@ -142,25 +245,7 @@ public class FileServiceImpl implements FileService {
 	}
 
 	@Override
-	public Path getTempDirectoryPath() {
-		String tempDir = System.getProperty("java.io.tmpdir");
-		String formattedDate = getFormattedDate(new Date());
-		return Paths.get(tempDir, TEMP_DIRECTORY_PREFIX + formattedDate);
-	}
-
-	private Path createTempZipFile(byte[] content) {
-		try {
-			Path tempDir = getTempDirectoryPath();
-			Files.createDirectories(tempDir);
-
-			String zipFileName = randomAlphanumeric(8) + ZIP_EXTENSION;
-			Path zipPath = tempDir.resolve(zipFileName);
-
-			saveFileInFolder(content, zipPath);
-			return zipPath;
-		} catch (IOException e) {
-			log.error("Failed to create temporary directory for ZIP file", e);
-			throw new SaveFileException("Error creating temporary directory for ZIP file", e);
-		}
+	public Path getDownloadDirectoryPath() {
+		return Paths.get(System.getProperty("java.io.tmpdir"), DOWNLOAD_DIRECTORY);
 	}
 }
@@ -0,0 +1,20 @@
+package lv.degra.accounting.core.system.files;
+
+import lombok.Value;
+
+/**
+ * Validators remembered from the last successfully imported copy of a remote file: the HTTP ETag and Last-Modified
+ * headers for conditional requests, and the content checksum for servers that send neither.
+ */
+@Value
+public class RemoteFileState {
+	public static final RemoteFileState NONE = new RemoteFileState(null, null, null);
+
+	String etag;
+	String lastModified;
+	String checksum;
+
+	public boolean hasSameContent(DownloadedFile file) {
+		return checksum != null && checksum.equals(file.getChecksum());
+	}
+}
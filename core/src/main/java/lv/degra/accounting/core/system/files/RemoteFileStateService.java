@@ -0,0 +1,8 @@
+package lv.degra.accounting.core.system.files;
+
+public interface RemoteFileStateService {
+
+	RemoteFileState getState(String linkKey, String fileUrl);
+
+	void saveState(String linkKey, String fileUrl, DownloadedFile file);
+}
@@ -0,0 +1,56 @@
+package lv.degra.accounting.core.system.files;
+
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import lombok.RequiredArgsConstructor;
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+
+/**
+ * Keeps {@link RemoteFileState} in the config table next to the link it belongs to, e.g. ADDRESS_DATA_LINK_ETAG. The
+ * hash of the URL is stored too, so the validators are dropped when the link is pointed somewhere else.
+ */
+@Service
+@RequiredArgsConstructor
+public class RemoteFileStateServiceImpl implements RemoteFileStateService {
+
+	static final String URL_SUFFIX = "_URL";
+	static final String ETAG_SUFFIX = "_ETAG";
+	static final String LAST_MODIFIED_SUFFIX = "_MODIFIED";
+	static final String CHECKSUM_SUFFIX = "_HASH";
+	private static final String NO_VALUE = "";
+
+	private final ConfigService configService;
+
+	@Override
+	public RemoteFileState getState(String linkKey, String fileUrl) {
+		if (!hashUrl(fileUrl).equals(configService.get(linkKey + URL_SUFFIX))) {
+			return RemoteFileState.NONE;
+		}
+		return new RemoteFileState(getValue(linkKey + ETAG_SUFFIX), getValue(linkKey + LAST_MODIFIED_SUFFIX),
+				getValue(linkKey + CHECKSUM_SUFFIX));
+	}
+
+	@Override
+	public void saveState(String linkKey, String fileUrl, DownloadedFile file) {
+		configService.save(linkKey + ETAG_SUFFIX, toValue(file.getEtag()));
+		configService.save(linkKey + LAST_MODIFIED_SUFFIX, toValue(file.getLastModified()));
+		configService.save(linkKey + CHECKSUM_SUFFIX, toValue(file.getChecksum()));
+		configService.save(linkKey + URL_SUFFIX, hashUrl(fileUrl));
+	}
+
+	private String getValue(String key) {
+		String value = configService.get(key);
+		return value == null || value.isEmpty() ? null : value;
+	}
+
+	private static String toValue(String value) {
+		return value != null ? value : NO_VALUE;
+	}
+
+	private static String hashUrl(String fileUrl) {
+		return DigestUtils.md5DigestAsHex(fileUrl.getBytes(StandardCharsets.UTF_8));
+	}
+}
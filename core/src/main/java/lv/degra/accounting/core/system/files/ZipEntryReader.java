@@ -0,0 +1,9 @@
+package lv.degra.accounting.core.system.files;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@FunctionalInterface
+public interface ZipEntryReader<T> {
+	T read(InputStream entry) throws IOException;
+}
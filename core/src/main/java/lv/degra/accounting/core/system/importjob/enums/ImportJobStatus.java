@@ -0,0 +1,24 @@
+package lv.degra.accounting.core.system.importjob.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public enum ImportJobStatus {
+    QUEUED(false),
+    DOWNLOADING(false),
+    PARSING(false),
+    LOADING(false),
+    INDEXING(false),
+    SWAPPING(false),
+    COMPLETED(true),
+    FAILED(true),
+    CANCELLED(true);
+
+    private final boolean finished;
+
+    public boolean isResumable() {
+        return this == FAILED || this == CANCELLED;
+    }
+}
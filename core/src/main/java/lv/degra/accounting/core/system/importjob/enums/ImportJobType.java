@@ -0,0 +1,6 @@
+package lv.degra.accounting.core.system.importjob.enums;
+
+public enum ImportJobType {
+    ADDRESS_REGISTER,
+    COMPANY_REGISTER
+}
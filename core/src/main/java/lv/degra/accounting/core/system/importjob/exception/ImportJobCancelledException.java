@@ -0,0 +1,7 @@
+package lv.degra.accounting.core.system.importjob.exception;
+
+public class ImportJobCancelledException extends RuntimeException {
+	public ImportJobCancelledException(String message) {
+		super(message);
+	}
+}
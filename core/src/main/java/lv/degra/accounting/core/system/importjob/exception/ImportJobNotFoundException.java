@@ -0,0 +1,9 @@
+package lv.degra.accounting.core.system.importjob.exception;
+
+import lv.degra.accounting.core.exception.ResourceNotFoundException;
+
+public class ImportJobNotFoundException extends ResourceNotFoundException {
+	public ImportJobNotFoundException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,9 @@
+package lv.degra.accounting.core.system.importjob.exception;
+
+import lv.degra.accounting.core.exception.InvalidRequestException;
+
+public class ImportJobStateException extends InvalidRequestException {
+	public ImportJobStateException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,76 @@
+package lv.degra.accounting.core.system.importjob.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+@Getter
+@Setter
+@Entity
+@Table(name = "import_job")
+@AllArgsConstructor
+@NoArgsConstructor
+public class ImportJob {
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@Column(name = "id", nullable = false)
+	private Long id;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "job_type", length = 30, nullable = false)
+	private ImportJobType jobType;
+
+	@Enumerated(EnumType.STRING)
+	@Column(name = "status", length = 20, nullable = false)
+	private ImportJobStatus status;
+
+	@Column(name = "rows_parsed", nullable = false)
+	private long rowsParsed;
+
+	@Column(name = "rows_loaded", nullable = false)
+	private long rowsLoaded;
+
+	@Column(name = "checkpoint", length = 2000)
+	private String checkpoint;
+
+	@Column(name = "cancel_requested", nullable = false)
+	private boolean cancelRequested;
+
+	@Column(name = "error_message", length = 1000)
+	private String errorMessage;
+
+	@Column(name = "started_at", nullable = false)
+	private LocalDateTime startedAt;
+
+	@Column(name = "stage_started_at")
+	private LocalDateTime stageStartedAt;
+
+	@Column(name = "finished_at")
+	private LocalDateTime finishedAt;
+
+	public ImportJob(ImportJobType jobType) {
+		this.jobType = jobType;
+		this.status = ImportJobStatus.QUEUED;
+		this.startedAt = LocalDateTime.now();
+	}
+
+	public long getRowsPerSecond() {
+		LocalDateTime end = finishedAt != null ? finishedAt : LocalDateTime.now();
+		long elapsedMillis = Duration.between(startedAt, end).toMillis();
+		return elapsedMillis > 0 ? rowsLoaded * 1000 / elapsedMillis : 0;
+	}
+}
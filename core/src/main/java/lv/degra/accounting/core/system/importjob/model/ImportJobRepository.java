@@ -0,0 +1,16 @@
+package lv.degra.accounting.core.system.importjob.model;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+	List<ImportJob> findTop20ByJobTypeOrderByIdDesc(ImportJobType jobType);
+
+	List<ImportJob> findByJobTypeInAndStatusIn(Collection<ImportJobType> jobTypes, Collection<ImportJobStatus> statuses);
+}
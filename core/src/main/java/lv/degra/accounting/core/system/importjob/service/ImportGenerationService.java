@@ -0,0 +1,8 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+public interface ImportGenerationService {
+
+	void publish(ImportJobType jobType);
+}
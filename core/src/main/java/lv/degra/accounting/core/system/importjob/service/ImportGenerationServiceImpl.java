@@ -0,0 +1,109 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.system.configuration.DegraConfig;
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+/**
+ * Lets every instance catch up with an import that ran elsewhere. Only the instance holding the cluster lock of a job
+ * type runs its import, so once new data is in place the runner publishes a new generation in the configuration table.
+ * Every instance compares it with the generation it last saw once a minute and, when it has changed, clears the cache of
+ * the job type and lets the runner reload what it keeps in memory. Runners are looked up lazily, as they publish through
+ * this service themselves.
+ */
+@Service
+@Slf4j
+public class ImportGenerationServiceImpl implements ImportGenerationService {
+
+	private static final long GENERATION_CHECK_INTERVAL_SECONDS = 60;
+
+	private final ConfigService configService;
+	private final ObjectProvider<ImportJobRunner> runners;
+	private final ObjectProvider<CacheManager> cacheManager;
+	private final Map<ImportJobType, String> seenGenerations = new ConcurrentHashMap<>();
+
+	public ImportGenerationServiceImpl(ConfigService configService, ObjectProvider<ImportJobRunner> runners,
+			ObjectProvider<CacheManager> cacheManager) {
+		this.configService = configService;
+		this.runners = runners;
+		this.cacheManager = cacheManager;
+	}
+
+	/**
+	 * Records that the data of the job type has been replaced; this instance has already reloaded it, so only the others
+	 * react.
+	 */
+	@Override
+	public void publish(ImportJobType jobType) {
+		String generation = UUID.randomUUID().toString();
+		configService.save(getConfigKey(jobType), generation);
+		seenGenerations.put(jobType, generation);
+		log.info("{} import generation {} published", jobType, generation);
+	}
+
+	/**
+	 * Runs before the in-memory indexes are built at startup, so an import finishing in between is reloaded once more
+	 * rather than missed.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	public void rememberGenerations() {
+		runners.orderedStream().forEach(runner -> seenGenerations.put(runner.getJobType(), getGeneration(runner.getJobType())));
+	}
+
+	@Scheduled(fixedDelay = GENERATION_CHECK_INTERVAL_SECONDS, initialDelay = GENERATION_CHECK_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+	public void reloadChangedImports() {
+		runners.orderedStream().forEach(runner -> {
+			ImportJobType jobType = runner.getJobType();
+			String generation = getGeneration(jobType);
+			String seenGeneration = seenGenerations.put(jobType, generation);
+			if (seenGeneration == null || seenGeneration.equals(generation)) {
+				return;
+			}
+			log.info("{} was imported on another instance, reloading", jobType);
+			try {
+				clearCache(runner.getCacheName());
+				runner.reload();
+			} catch (RuntimeException e) {
+				log.warn("Reloading {} after an import failed", jobType, e);
+			}
+		});
+	}
+
+	private void clearCache(String cacheName) {
+		if (cacheName == null) {
+			return;
+		}
+		cacheManager.ifAvailable(manager -> {
+			Cache cache = manager.getCache(cacheName);
+			if (cache != null) {
+				cache.clear();
+			}
+		});
+	}
+
+	private String getGeneration(ImportJobType jobType) {
+		return Objects.requireNonNullElse(configService.get(getConfigKey(jobType)), "");
+	}
+
+	private static String getConfigKey(ImportJobType jobType) {
+		return jobType.name() + DegraConfig.IMPORT_GENERATION_SUFFIX;
+	}
+}
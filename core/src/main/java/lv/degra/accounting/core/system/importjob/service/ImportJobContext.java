@@ -0,0 +1,221 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import lv.degra.accounting.core.system.files.DownloadedFile;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobCancelledException;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+
+/**
+ * Progress handle passed to an {@link ImportJobRunner}. Counters may be updated from several loader threads; the job
+ * row is written on every stage change and checkpoint, and at most every few seconds while rows are streaming.
+ * <p>
+ * Checkpoints are key/value pairs recorded after a unit of work has been committed. When a failed job is resumed, the
+ * runner gets its checkpoints back and can skip the work that already made it to the database.
+ */
+public class ImportJobContext {
+
+	private static final long PROGRESS_SAVE_INTERVAL_MILLIS = 5000;
+	private static final String CHECKPOINT_SEPARATOR = "\n";
+	private static final String CHECKPOINT_VALUE_SEPARATOR = "=";
+	private static final String DOWNLOAD_CHECKSUM_CHECKPOINT = "download.checksum";
+	private static final String DOWNLOAD_SIZE_CHECKPOINT = "download.size";
+	private static final String DOWNLOAD_ETAG_CHECKPOINT = "download.etag";
+	private static final String DOWNLOAD_LAST_MODIFIED_CHECKPOINT = "download.lastModified";
+
+	private final ImportJob job;
+	private final boolean resumed;
+	private final Consumer<ImportJob> jobSaver;
+	private final Map<String, String> checkpoints;
+	private final AtomicLong rowsParsed = new AtomicLong();
+	private final AtomicLong rowsLoaded = new AtomicLong();
+	private volatile boolean cancelRequested;
+	private volatile long lastSavedMillis = System.currentTimeMillis();
+
+	public ImportJobContext(ImportJob job, boolean resumed, Consumer<ImportJob> jobSaver) {
+		this.job = job;
+		this.resumed = resumed;
+		this.jobSaver = jobSaver;
+		this.checkpoints = resumed ? parseCheckpoints(job.getCheckpoint()) : new LinkedHashMap<>();
+		this.cancelRequested = job.isCancelRequested();
+	}
+
+	/**
+	 * Context for an import started outside the job engine: nothing is persisted and nothing can be resumed.
+	 */
+	public static ImportJobContext detached(ImportJobType jobType) {
+		return new ImportJobContext(new ImportJob(jobType), false, job -> {
+		});
+	}
+
+	public Long getJobId() {
+		return job.getId();
+	}
+
+	public ImportJobType getJobType() {
+		return job.getJobType();
+	}
+
+	public boolean isResumed() {
+		return resumed;
+	}
+
+	/**
+	 * Whether a failure should leave committed work in place for a later resume instead of rolling it back.
+	 */
+	public boolean isResumable() {
+		return job.getId() != null && !cancelRequested;
+	}
+
+	public synchronized void enterStage(ImportJobStatus stage) {
+		throwIfCancelled();
+		job.setStatus(stage);
+		job.setStageStartedAt(LocalDateTime.now());
+		save();
+	}
+
+	public ImportJobStatus getStage() {
+		return job.getStatus();
+	}
+
+	public void rowParsed() {
+		rowsParsed.incrementAndGet();
+		throwIfCancelled();
+		saveProgressPeriodically();
+	}
+
+	public void rowsLoaded(long rows) {
+		rowsLoaded.addAndGet(rows);
+		saveProgressPeriodically();
+	}
+
+	public long getRowsParsed() {
+		return rowsParsed.get();
+	}
+
+	public long getRowsLoaded() {
+		return rowsLoaded.get();
+	}
+
+	public synchronized Optional<String> getCheckpoint(String key) {
+		return Optional.ofNullable(checkpoints.get(key));
+	}
+
+	public boolean isCheckpointed(String key) {
+		return getCheckpoint(key).isPresent();
+	}
+
+	public void checkpoint(String key) {
+		checkpoint(key, "");
+	}
+
+	public synchronized void checkpoint(String key, String value) {
+		checkpoints.put(key, value);
+		save();
+	}
+
+	/**
+	 * Records the downloaded source of the import, so that a resumed job can remember its validators once it succeeds.
+	 */
+	public synchronized void checkpointDownload(DownloadedFile file) {
+		checkpoints.put(DOWNLOAD_CHECKSUM_CHECKPOINT, file.getChecksum());
+		checkpoints.put(DOWNLOAD_SIZE_CHECKPOINT, String.valueOf(file.getSize()));
+		putIfNotNull(DOWNLOAD_ETAG_CHECKPOINT, file.getEtag());
+		putIfNotNull(DOWNLOAD_LAST_MODIFIED_CHECKPOINT, file.getLastModified());
+		save();
+	}
+
+	public synchronized Optional<DownloadedFile> getDownloadCheckpoint(Path path) {
+		String checksum = checkpoints.get(DOWNLOAD_CHECKSUM_CHECKPOINT);
+		if (checksum == null) {
+			return Optional.empty();
+		}
+		return Optional.of(new DownloadedFile(path, checksum, Long.parseLong(checkpoints.get(DOWNLOAD_SIZE_CHECKPOINT)),
+				checkpoints.get(DOWNLOAD_ETAG_CHECKPOINT), checkpoints.get(DOWNLOAD_LAST_MODIFIED_CHECKPOINT)));
+	}
+
+	public synchronized void clearCheckpoints() {
+		checkpoints.clear();
+		save();
+	}
+
+	public void cancel() {
+		cancelRequested = true;
+	}
+
+	public boolean isCancelRequested() {
+		return cancelRequested;
+	}
+
+	public void throwIfCancelled() {
+		if (cancelRequested) {
+			throw new ImportJobCancelledException("Import job " + job.getId() + " was cancelled");
+		}
+	}
+
+	synchronized ImportJob finish(ImportJobStatus status, String errorMessage) {
+		job.setStatus(status);
+		job.setErrorMessage(errorMessage);
+		job.setFinishedAt(LocalDateTime.now());
+		save();
+		return job;
+	}
+
+	synchronized ImportJob snapshot() {
+		copyProgress();
+		return job;
+	}
+
+	private void putIfNotNull(String key, String value) {
+		if (value != null) {
+			checkpoints.put(key, value);
+		}
+	}
+
+	private void saveProgressPeriodically() {
+		long now = System.currentTimeMillis();
+		if (now - lastSavedMillis >= PROGRESS_SAVE_INTERVAL_MILLIS) {
+			synchronized (this) {
+				if (now - lastSavedMillis >= PROGRESS_SAVE_INTERVAL_MILLIS) {
+					save();
+				}
+			}
+		}
+	}
+
+	private void save() {
+		copyProgress();
+		jobSaver.accept(job);
+		lastSavedMillis = System.currentTimeMillis();
+	}
+
+	private void copyProgress() {
+		job.setRowsParsed(rowsParsed.get());
+		job.setRowsLoaded(rowsLoaded.get());
+		job.setCancelRequested(cancelRequested);
+		job.setCheckpoint(checkpoints.isEmpty() ? null : checkpoints.entrySet().stream()
+				.map(entry -> entry.getKey() + CHECKPOINT_VALUE_SEPARATOR + entry.getValue())
+				.collect(Collectors.joining(CHECKPOINT_SEPARATOR)));
+	}
+
+	private static Map<String, String> parseCheckpoints(String checkpoint) {
+		Map<String, String> result = new LinkedHashMap<>();
+		if (checkpoint == null || checkpoint.isEmpty()) {
+			return result;
+		}
+		for (String entry : checkpoint.split(CHECKPOINT_SEPARATOR)) {
+			String[] keyValue = entry.split(CHECKPOINT_VALUE_SEPARATOR, 2);
+			result.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+		}
+		return result;
+	}
+}
@@ -0,0 +1,23 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+public interface ImportJobRunner {
+
+	ImportJobType getJobType();
+
+	void run(ImportJobContext context);
+
+	/**
+	 * Cache of results derived from the imported data, cleared on the other instances after an import.
+	 */
+	default String getCacheName() {
+		return null;
+	}
+
+	/**
+	 * Reloads what this instance keeps in memory of the imported data, after an import that ran on another instance.
+	 */
+	default void reload() {
+	}
+}
@@ -0,0 +1,23 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
+
+public interface ImportJobService {
+
+	ImportJob submit(ImportJobType jobType);
+
+	ImportJob resume(Long jobId);
+
+	ImportJob cancel(Long jobId);
+
+	ImportJob get(Long jobId);
+
+	List<ImportJob> getRecent(ImportJobType jobType);
+
+	Optional<ClusterLock> getLock(ImportJobType jobType);
+}
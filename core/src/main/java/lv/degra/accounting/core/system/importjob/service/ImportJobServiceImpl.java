@@ -0,0 +1,250 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobCancelledException;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobNotFoundException;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobStateException;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.model.ImportJobRepository;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
+import lv.degra.accounting.core.system.lock.service.ClusterLockService;
+
+@Service
+@Slf4j
+public class ImportJobServiceImpl implements ImportJobService {
+
+	private static final int MAX_ERROR_MESSAGE_LENGTH = 1000;
+	public static final String METRIC_IMPORT_LOCK_HELD = "import.job.lock.held";
+	private static final String INTERRUPTED_MESSAGE = "Interrupted by application shutdown";
+	private static final String LOCK_NAME_PREFIX = "import:";
+	private static final long LEASE_RENEW_INTERVAL_SECONDS = 60;
+
+	private final ImportJobRepository importJobRepository;
+	private final ClusterLockService clusterLockService;
+	private final Map<ImportJobType, ImportJobRunner> runners = new EnumMap<>(ImportJobType.class);
+	private final Map<Long, ImportJobContext> runningJobs = new ConcurrentHashMap<>();
+	private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("import-job-", 0).factory());
+
+	public ImportJobServiceImpl(ImportJobRepository importJobRepository, ClusterLockService clusterLockService,
+			List<ImportJobRunner> runners, MeterRegistry meterRegistry) {
+		this.importJobRepository = importJobRepository;
+		this.clusterLockService = clusterLockService;
+		runners.forEach(runner -> this.runners.put(runner.getJobType(), runner));
+		this.runners.keySet().forEach(jobType -> Gauge.builder(METRIC_IMPORT_LOCK_HELD, runningJobs,
+						jobs -> findRunning(jobType) != null ? 1 : 0)
+				.tag("type", jobType.name())
+				.register(meterRegistry));
+	}
+
+	/**
+	 * Starts a job of the given type in the background, or returns the job of that type that is already running on this
+	 * or another instance. Only the instance holding the cluster lock of the job type runs it.
+	 */
+	@Override
+	public synchronized ImportJob submit(ImportJobType jobType) {
+		ImportJobRunner runner = getRunner(jobType);
+		ImportJobContext running = findRunning(jobType);
+		if (running != null) {
+			log.info("{} import job {} is already running", jobType, running.getJobId());
+			return running.snapshot();
+		}
+		ImportJob job = importJobRepository.save(new ImportJob(jobType));
+		if (!clusterLockService.tryAcquire(getLockName(jobType), job.getId())) {
+			importJobRepository.delete(job);
+			return getJobHoldingLock(jobType);
+		}
+		start(runner, new ImportJobContext(job, false, importJobRepository::save));
+		return job;
+	}
+
+	/**
+	 * Restarts a failed or cancelled job under the same id, handing the runner the checkpoints it recorded.
+	 */
+	@Override
+	public synchronized ImportJob resume(Long jobId) {
+		ImportJob job = get(jobId);
+		if (!job.getStatus().isResumable()) {
+			throw new ImportJobStateException("Import job " + jobId + " cannot be resumed from status " + job.getStatus());
+		}
+		ImportJobRunner runner = getRunner(job.getJobType());
+		if (findRunning(job.getJobType()) != null || !clusterLockService.tryAcquire(getLockName(job.getJobType()), jobId)) {
+			throw new ImportJobStateException("Another " + job.getJobType() + " import job is already running");
+		}
+		job.setStatus(ImportJobStatus.QUEUED);
+		job.setCancelRequested(false);
+		job.setErrorMessage(null);
+		job.setFinishedAt(null);
+		job = importJobRepository.save(job);
+		start(runner, new ImportJobContext(job, true, importJobRepository::save));
+		return job;
+	}
+
+	@Override
+	public ImportJob cancel(Long jobId) {
+		ImportJobContext running = runningJobs.get(jobId);
+		if (running != null) {
+			running.cancel();
+			log.info("Cancellation requested for import job {}", jobId);
+			return running.snapshot();
+		}
+		ImportJob job = get(jobId);
+		if (isRunningElsewhere(job)) {
+			throw new ImportJobStateException("Import job " + jobId + " is running on another instance");
+		}
+		if (!job.getStatus().isFinished()) {
+			job.setCancelRequested(true);
+			job.setStatus(ImportJobStatus.CANCELLED);
+			job.setFinishedAt(LocalDateTime.now());
+			job = importJobRepository.save(job);
+		}
+		return job;
+	}
+
+	@Override
+	public ImportJob get(Long jobId) {
+		ImportJobContext running = runningJobs.get(jobId);
+		if (running != null) {
+			return running.snapshot();
+		}
+		return importJobRepository.findById(jobId)
+				.orElseThrow(() -> new ImportJobNotFoundException("Import job " + jobId + " not found"));
+	}
+
+	@Override
+	public List<ImportJob> getRecent(ImportJobType jobType) {
+		return importJobRepository.findTop20ByJobTypeOrderByIdDesc(jobType);
+	}
+
+	@Override
+	public Optional<ClusterLock> getLock(ImportJobType jobType) {
+		return clusterLockService.get(getLockName(jobType));
+	}
+
+	/**
+	 * Keeps the cluster locks of running jobs alive. A job whose lease was lost, e.g. after a long database outage, is
+	 * cancelled, since another instance may already have taken over.
+	 */
+	@Scheduled(fixedDelay = LEASE_RENEW_INTERVAL_SECONDS, initialDelay = LEASE_RENEW_INTERVAL_SECONDS, timeUnit = TimeUnit.SECONDS)
+	public void renewLocks() {
+		runningJobs.values().forEach(context -> {
+			if (!clusterLockService.renew(getLockName(context.getJobType()))) {
+				log.error("{} import job {} lost its cluster lock, cancelling", context.getJobType(), context.getJobId());
+				context.cancel();
+			}
+		});
+		failInterruptedJobs();
+	}
+
+	/**
+	 * Jobs left unfinished by an instance that is gone can no longer make progress; mark them failed so they can be
+	 * resumed. A job still covered by a live cluster lock belongs to a running instance and is left alone. Only job
+	 * types this application runs are touched.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public synchronized void failInterruptedJobs() {
+		if (runners.isEmpty()) {
+			return;
+		}
+		List<ImportJobStatus> activeStatuses = Arrays.stream(ImportJobStatus.values()).filter(status -> !status.isFinished()).toList();
+		importJobRepository.findByJobTypeInAndStatusIn(runners.keySet(), activeStatuses).stream()
+				.filter(job -> !runningJobs.containsKey(job.getId()) && !isLockedFor(job))
+				.forEach(job -> {
+					log.warn("Marking interrupted {} import job {} as failed", job.getJobType(), job.getId());
+					job.setStatus(ImportJobStatus.FAILED);
+					job.setErrorMessage(INTERRUPTED_MESSAGE);
+					job.setFinishedAt(LocalDateTime.now());
+					importJobRepository.save(job);
+				});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		runningJobs.values().forEach(ImportJobContext::cancel);
+		executor.shutdownNow();
+	}
+
+	void run(ImportJobRunner runner, ImportJobContext context) {
+		try {
+			log.info("{} import job {} started{}", runner.getJobType(), context.getJobId(), context.isResumed() ? " (resumed)" : "");
+			runner.run(context);
+			context.finish(ImportJobStatus.COMPLETED, null);
+			log.info("{} import job {} completed: {} rows loaded", runner.getJobType(), context.getJobId(), context.getRowsLoaded());
+		} catch (ImportJobCancelledException e) {
+			context.finish(ImportJobStatus.CANCELLED, null);
+			log.info("{} import job {} cancelled during {}", runner.getJobType(), context.getJobId(), context.getStage());
+		} catch (RuntimeException e) {
+			log.error("{} import job {} failed during {}", runner.getJobType(), context.getJobId(), context.getStage(), e);
+			context.finish(ImportJobStatus.FAILED, truncate(String.valueOf(e.getMessage())));
+		} finally {
+			runningJobs.remove(context.getJobId());
+			clusterLockService.release(getLockName(runner.getJobType()));
+		}
+	}
+
+	private void start(ImportJobRunner runner, ImportJobContext context) {
+		runningJobs.put(context.getJobId(), context);
+		executor.submit(() -> run(runner, context));
+	}
+
+	private ImportJobContext findRunning(ImportJobType jobType) {
+		return runningJobs.values().stream()
+				.filter(context -> context.getJobType() == jobType)
+				.findFirst()
+				.orElse(null);
+	}
+
+	private ImportJob getJobHoldingLock(ImportJobType jobType) {
+		return getLock(jobType)
+				.map(ClusterLock::getJobId)
+				.flatMap(importJobRepository::findById)
+				.orElseThrow(() -> new ImportJobStateException(jobType + " import is running on another instance"));
+	}
+
+	private boolean isRunningElsewhere(ImportJob job) {
+		return !job.getStatus().isFinished() && isLockedFor(job);
+	}
+
+	private boolean isLockedFor(ImportJob job) {
+		return getLock(job.getJobType())
+				.filter(ClusterLock::isHeld)
+				.map(lock -> job.getId().equals(lock.getJobId()))
+				.orElse(false);
+	}
+
+	private static String getLockName(ImportJobType jobType) {
+		return LOCK_NAME_PREFIX + jobType.name();
+	}
+
+	private ImportJobRunner getRunner(ImportJobType jobType) {
+		ImportJobRunner runner = runners.get(jobType);
+		if (runner == null) {
+			throw new ImportJobStateException("No import runner registered for " + jobType);
+		}
+		return runner;
+	}
+
+	private static String truncate(String message) {
+		return message.length() > MAX_ERROR_MESSAGE_LENGTH ? message.substring(0, MAX_ERROR_MESSAGE_LENGTH) : message;
+	}
+}
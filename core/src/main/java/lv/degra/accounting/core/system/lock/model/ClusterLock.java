@@ -0,0 +1,20 @@
+package lv.degra.accounting.core.system.lock.model;
+
+import java.time.LocalDateTime;
+
+import lombok.Value;
+
+/**
+ * Current state of a lease row in {@code cluster_lock}. {@code held} is evaluated by the database clock, so it is
+ * comparable across instances.
+ */
+@Value
+public class ClusterLock {
+	String name;
+	String owner;
+	Long jobId;
+	LocalDateTime acquiredAt;
+	LocalDateTime renewedAt;
+	LocalDateTime expiresAt;
+	boolean held;
+}
@@ -0,0 +1,21 @@
+package lv.degra.accounting.core.system.lock.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
+
+public interface ClusterLockService {
+
+	boolean tryAcquire(String name, Long jobId);
+
+	boolean renew(String name);
+
+	void release(String name);
+
+	Optional<ClusterLock> get(String name);
+
+	List<ClusterLock> getAll();
+
+	String getOwner();
+}
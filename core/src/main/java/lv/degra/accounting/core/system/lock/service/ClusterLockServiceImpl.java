@@ -0,0 +1,107 @@
+package lv.degra.accounting.core.system.lock.service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
+
+/**
+ * Lease locks shared by all instances through the {@code cluster_lock} table. A lease is taken with a single upsert
+ * that only succeeds when the row is free or expired, and it expires on its own if the holder dies without releasing
+ * it. Holders must {@link #renew(String)} well within {@link #LEASE_DURATION_SECONDS}.
+ * <p>
+ * A lease row is used instead of a Postgres advisory lock because an advisory lock is tied to one connection, which
+ * would have to stay checked out of the pool for the whole import.
+ */
+@Service
+@Slf4j
+public class ClusterLockServiceImpl implements ClusterLockService {
+
+	public static final long LEASE_DURATION_SECONDS = 300;
+	private static final String ACQUIRE_SQL = """
+			INSERT INTO cluster_lock (name, owner, job_id, acquired_at, renewed_at, expires_at)
+			VALUES (?, ?, ?, LOCALTIMESTAMP, LOCALTIMESTAMP, LOCALTIMESTAMP + ? * INTERVAL '1 second')
+			ON CONFLICT (name) DO UPDATE SET owner = EXCLUDED.owner, job_id = EXCLUDED.job_id, acquired_at = EXCLUDED.acquired_at,
+				renewed_at = EXCLUDED.renewed_at, expires_at = EXCLUDED.expires_at
+			WHERE cluster_lock.expires_at < LOCALTIMESTAMP OR cluster_lock.owner = EXCLUDED.owner
+			""";
+	private static final String RENEW_SQL = """
+			UPDATE cluster_lock SET renewed_at = LOCALTIMESTAMP, expires_at = LOCALTIMESTAMP + ? * INTERVAL '1 second'
+			WHERE name = ? AND owner = ?
+			""";
+	private static final String RELEASE_SQL = "UPDATE cluster_lock SET expires_at = LOCALTIMESTAMP WHERE name = ? AND owner = ?";
+	private static final String SELECT_SQL = """
+			SELECT name, owner, job_id, acquired_at, renewed_at, expires_at, expires_at >= LOCALTIMESTAMP AS held
+			FROM cluster_lock
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final String owner;
+
+	public ClusterLockServiceImpl(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.owner = getHostName() + "/" + UUID.randomUUID().toString().substring(0, 8);
+	}
+
+	@Override
+	public boolean tryAcquire(String name, Long jobId) {
+		boolean acquired = jdbcTemplate.update(ACQUIRE_SQL, name, owner, jobId, LEASE_DURATION_SECONDS) > 0;
+		if (acquired) {
+			log.info("Acquired cluster lock {} as {}", name, owner);
+		} else {
+			log.info("Cluster lock {} is held by another instance", name);
+		}
+		return acquired;
+	}
+
+	@Override
+	public boolean renew(String name) {
+		return jdbcTemplate.update(RENEW_SQL, LEASE_DURATION_SECONDS, name, owner) > 0;
+	}
+
+	@Override
+	public void release(String name) {
+		jdbcTemplate.update(RELEASE_SQL, name, owner);
+		log.info("Released cluster lock {}", name);
+	}
+
+	@Override
+	public Optional<ClusterLock> get(String name) {
+		return jdbcTemplate.query(SELECT_SQL + " WHERE name = ?", ClusterLockServiceImpl::mapLock, name).stream().findFirst();
+	}
+
+	@Override
+	public List<ClusterLock> getAll() {
+		return jdbcTemplate.query(SELECT_SQL + " ORDER BY name", ClusterLockServiceImpl::mapLock);
+	}
+
+	@Override
+	public String getOwner() {
+		return owner;
+	}
+
+	private static ClusterLock mapLock(ResultSet rs, int rowNum) throws SQLException {
+		long jobId = rs.getLong("job_id");
+		return new ClusterLock(rs.getString("name"), rs.getString("owner"), rs.wasNull() ? null : jobId,
+				rs.getObject("acquired_at", LocalDateTime.class), rs.getObject("renewed_at", LocalDateTime.class),
+				rs.getObject("expires_at", LocalDateTime.class), rs.getBoolean("held"));
+	}
+
+	private static String getHostName() {
+		try {
+			return InetAddress.getLocalHost().getHostName();
+		} catch (UnknownHostException e) {
+			return "unknown";
+		}
+	}
+}
@@ -49,7 +49,7 @@ public class Truck extends AuditInfo implements Serializable {
 	@Column(name = "fuel_consumption_norm", nullable = false)
 	private Double fuelConsumptionNorm;
 
-	@OneToMany(mappedBy = "truck", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.EAGER)
+	@OneToMany(mappedBy = "truck", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
 	private List<TruckUserMap> userMappings = new ArrayList<>();
 
 	public void addUserMapping(TruckUserMap mapping) {
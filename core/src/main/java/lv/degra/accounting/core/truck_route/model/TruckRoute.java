@@ -9,15 +9,22 @@ import org.hibernate.envers.Audited;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
+import jakarta.persistence.NamedSubgraph;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotNull;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lv.degra.accounting.core.document.bill.model.UnitType;
@@ -29,13 +36,23 @@ import lv.degra.accounting.core.truck_route_page.model.TruckRoutePage;
 @Entity
 @Audited
 @Table(name = "truck_route")
+@EntityListeners(TruckRouteTotalsListener.class)
+@NamedEntityGraph(name = TruckRoute.GRAPH_DETAIL, attributeNodes = {
+		@NamedAttributeNode(value = "truckRoutePage", subgraph = "truckRoutePage"), @NamedAttributeNode("unitType"),
+		@NamedAttributeNode("outTruckObject"), @NamedAttributeNode("inTruckObject") }, subgraphs = @NamedSubgraph(name = "truckRoutePage",
+		attributeNodes = { @NamedAttributeNode("truck"), @NamedAttributeNode("user") }))
 public class TruckRoute {
+	/**
+	 * Everything {@code TruckRouteDto} reads, fetched with the route in one joined select.
+	 */
+	public static final String GRAPH_DETAIL = "TruckRoute.detail";
+
 	@Id
 	@Column(name = "uid", nullable = false, length = 36)
 	private String uid;
 
 	@NotNull
-	@ManyToOne(fetch = FetchType.EAGER, optional = false)
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
 	@JoinColumn(name = "truck_route_page_uid", nullable = false)
 	private TruckRoutePage truckRoutePage;
 
@@ -51,12 +68,12 @@ public class TruckRoute {
 	private Double cargoVolume;
 
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "unit_type_id")
 	private UnitType unitType;
 
 	@NotNull
-	@ManyToOne(fetch = FetchType.EAGER, optional = false)
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
 	@JoinColumn(name = "out_truck_object_uid", nullable = false)
 	private TruckObject outTruckObject;
 
@@ -72,7 +89,7 @@ public class TruckRoute {
 	@Column(name = "odometer_at_finish")
 	private Long odometerAtFinish;
 
-	@ManyToOne(fetch = FetchType.EAGER)
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "in_truck_object_uid")
 	private TruckObject inTruckObject;
 
@@ -100,6 +117,14 @@ public class TruckRoute {
 	@Column(name = "last_modified_date_time")
 	private Instant lastModifiedDateTime;
 
+	/**
+	 * Totals as the database last stored them: read on load and replaced by {@link TruckRouteTotalsListener} after each
+	 * write, so the next write is compared with the stored row rather than with in-memory values the columns round.
+	 */
+	@Transient
+	@Setter(AccessLevel.NONE)
+	private TruckRouteTotals persistedTotals;
+
 	@PrePersist
 	public void generateUid() {
 		if (this.uid == null) {
@@ -107,4 +132,13 @@ public class TruckRoute {
 		}
 	}
 
+	@PostLoad
+	void rememberPersistedTotals() {
+		this.persistedTotals = TruckRouteTotals.of(this);
+	}
+
+	void rememberPersistedTotals(TruckRouteTotals persistedTotals) {
+		this.persistedTotals = persistedTotals;
+	}
+
 }
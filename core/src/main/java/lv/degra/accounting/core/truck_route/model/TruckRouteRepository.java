@@ -1,20 +1,28 @@
 package lv.degra.accounting.core.truck_route.model;
 
+import java.util.Optional;
+
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface TruckRouteRepository extends JpaRepository<TruckRoute, String> {
-	@Query("""
+	@EntityGraph(TruckRoute.GRAPH_DETAIL)
+	@Query(value = """
         SELECT tr FROM TruckRoute tr
         WHERE tr.truckRoutePage.user.id = :userId
             ORDER BY tr.routeDate DESC
+    """, countQuery = """
+        SELECT COUNT(tr) FROM TruckRoute tr
+        WHERE tr.truckRoutePage.user.id = :userId
     """)
 	Page<TruckRoute> findByUserId(@Param("userId") Integer userId, Pageable pageable);
 
 
+	@EntityGraph(TruckRoute.GRAPH_DETAIL)
 	@Query("""
         SELECT tr FROM TruckRoute tr
         WHERE tr.truckRoutePage.user.id = :userId
@@ -22,11 +30,19 @@ public interface TruckRouteRepository extends JpaRepository<TruckRoute, String>
     """)
 	TruckRoute findByUserId(@Param("userId") Integer userId);
 	
-	@Query("""
+	@EntityGraph(TruckRoute.GRAPH_DETAIL)
+	@Query(value = """
         SELECT tr FROM TruckRoute tr
         WHERE tr.truckRoutePage.uid = :truckRoutePageUid
             ORDER BY tr.routeDate DESC
+    """, countQuery = """
+        SELECT COUNT(tr) FROM TruckRoute tr
+        WHERE tr.truckRoutePage.uid = :truckRoutePageUid
     """)
 	Page<TruckRoute> findByTruckRoutePageUid(@Param("truckRoutePageUid") String truckRoutePageUid, Pageable pageable);
 
+	@Override
+	@EntityGraph(TruckRoute.GRAPH_DETAIL)
+	Optional<TruckRoute> findById(String uid);
+
 }
@@ -0,0 +1,22 @@
+package lv.degra.accounting.core.truck_route.model;
+
+import java.util.Objects;
+
+import lombok.Value;
+
+/**
+ * What one route adds to the summable totals of its route page.
+ */
+@Value
+public class TruckRouteTotals {
+	String truckRoutePageUid;
+	long routeLength;
+	double fuelConsumed;
+	double fuelReceived;
+
+	public static TruckRouteTotals of(TruckRoute truckRoute) {
+		String truckRoutePageUid = truckRoute.getTruckRoutePage() != null ? truckRoute.getTruckRoutePage().getUid() : null;
+		return new TruckRouteTotals(truckRoutePageUid, Objects.requireNonNullElse(truckRoute.getRouteLength(), 0L),
+				Objects.requireNonNullElse(truckRoute.getFuelConsumed(), 0.0), Objects.requireNonNullElse(truckRoute.getFuelReceived(), 0.0));
+	}
+}
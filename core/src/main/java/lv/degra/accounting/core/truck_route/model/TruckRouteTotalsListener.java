@@ -0,0 +1,42 @@
+package lv.degra.accounting.core.truck_route.model;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lv.degra.accounting.core.truck_route_page.service.TruckRoutePageTotalsService;
+
+/**
+ * Keeps the route totals of {@code truck_route_page} in step with every route insert, update and delete. Runs after the
+ * route statement has been executed, inside the same transaction, and compares the totals the route had in the database
+ * before the write with the row as stored now. Created by Hibernate through the Spring bean container, so the service is
+ * looked up on first use.
+ */
+public class TruckRouteTotalsListener {
+
+	private final ObjectProvider<TruckRoutePageTotalsService> truckRoutePageTotalsService;
+
+	public TruckRouteTotalsListener(ObjectProvider<TruckRoutePageTotalsService> truckRoutePageTotalsService) {
+		this.truckRoutePageTotalsService = truckRoutePageTotalsService;
+	}
+
+	@PostPersist
+	public void afterInsert(TruckRoute truckRoute) {
+		truckRoute.rememberPersistedTotals(truckRoutePageTotalsService.getObject().applyChange(null, truckRoute.getUid()));
+	}
+
+	@PostUpdate
+	public void afterUpdate(TruckRoute truckRoute) {
+		truckRoute.rememberPersistedTotals(
+				truckRoutePageTotalsService.getObject().applyChange(truckRoute.getPersistedTotals(), truckRoute.getUid()));
+	}
+
+	@PostRemove
+	public void afterDelete(TruckRoute truckRoute) {
+		TruckRouteTotals persistedTotals = truckRoute.getPersistedTotals();
+		truckRoutePageTotalsService.getObject()
+				.applyChange(persistedTotals != null ? persistedTotals : TruckRouteTotals.of(truckRoute), truckRoute.getUid());
+		truckRoute.rememberPersistedTotals(null);
+	}
+}
@@ -11,7 +11,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lv.degra.accounting.core.config.mapper.FreightMapper;
 import lv.degra.accounting.core.exception.ResourceNotFoundException;
 import lv.degra.accounting.core.truck.dto.TruckDto;
@@ -24,11 +27,10 @@ import lv.degra.accounting.core.truck_route.model.TruckRoute;
 import lv.degra.accounting.core.truck_route.model.TruckRouteRepository;
 import lv.degra.accounting.core.truck_route_page.dto.TruckRoutePageDto;
 import lv.degra.accounting.core.truck_route_page.service.TruckRoutePageService;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
 import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
-import lv.degra.accounting.core.user.model.User;
-import lv.degra.accounting.core.user.service.UserService;
+import lv.degra.accounting.core.truck_user_map.service.TruckUserAccessService;
 import lv.degra.accounting.core.utils.TruckAccessUtils;
-import lv.degra.accounting.core.utils.UserContextUtils;
 
 @Service
 public class TruckRouteServiceImpl implements TruckRouteService {
@@ -38,30 +40,33 @@ public class TruckRouteServiceImpl implements TruckRouteService {
 	private static final Double DEFAULT_CONSUMPTION_NORM = 1.0;
 	private final TruckRouteRepository truckRouteRepository;
 	private final TruckRoutePageService truckRoutePageService;
-	private final UserService userService;
 	private final TruckService truckService;
 	private final FreightMapper freightMapper;
+	private final TruckUserAccessService truckUserAccessService;
 	private final TruckUserMapRepository truckUserMapRepository;
 	private final TruckObjectRepository truckObjectRepository;
 
+	@PersistenceContext
+	private EntityManager entityManager;
+
 	public TruckRouteServiceImpl(TruckRouteRepository truckRouteRepository, TruckRoutePageService truckRoutePageService,
-			UserService userService, TruckService truckService, FreightMapper freightMapper,
+			TruckService truckService, FreightMapper freightMapper, TruckUserAccessService truckUserAccessService,
 			TruckUserMapRepository truckUserMapRepository, TruckObjectRepository truckObjectRepository) {
 		this.truckRouteRepository = truckRouteRepository;
 		this.truckRoutePageService = truckRoutePageService;
-		this.userService = userService;
 		this.truckService = truckService;
 		this.freightMapper = freightMapper;
+		this.truckUserAccessService = truckUserAccessService;
 		this.truckUserMapRepository = truckUserMapRepository;
 		this.truckObjectRepository = truckObjectRepository;
 	}
 
 	public Page<TruckRouteDto> getLastTruckRoutesByUserId(String userId, int page, int size) {
-		User user = userService.getUserByUserId(userId);
+		Integer id = truckUserAccessService.getAccess(userId).getUserId();
 
 		Pageable pageable = PageRequest.of(page, size, Sort.by("id").descending());
 
-		return truckRouteRepository.findByUserId(user.getId(), pageable).map(freightMapper::toDto);
+		return truckRouteRepository.findByUserId(id, pageable).map(freightMapper::toDto);
 	}
 	
 	@Override
@@ -74,21 +79,26 @@ public class TruckRouteServiceImpl implements TruckRouteService {
 		return truckRouteRepository.findByTruckRoutePageUid(truckRoutePageUid, pageable).map(freightMapper::toDto);
 	}
 
-	protected void validateUserAccessToTruck(String truckUid, User user) {
-		TruckAccessUtils.validateUserAccessToTruck(truckUid, user, truckUserMapRepository);
+	protected void validateUserAccessToTruck(String truckUid, TruckUserAccess access) {
+		TruckAccessUtils.validateUserAccessToTruck(truckUid, access, truckUserMapRepository);
 	}
 
+	/**
+	 * Runs in one transaction so that the page and the route are saved together and the merged route's lazy
+	 * associations can still be read while it is mapped back. The route is flushed before mapping and its page refreshed,
+	 * as the page totals are updated in the database by the route write and not in the loaded page.
+	 */
+	@Transactional
 	public TruckRouteDto createOrUpdateTruckRoute(TruckRouteDto truckRouteDto) {
-		String userId = UserContextUtils.getCurrentUserId();
-		User user = userService.getUserByUserId(userId);
+		TruckUserAccess access = truckUserAccessService.getCurrentUserAccess();
 
 		String truckUid = truckRouteDto.getTruckRoutePage().getTruck().getUid();
 
-		validateUserAccessToTruck(truckUid, user);
+		validateUserAccessToTruck(truckUid, access);
 
 		TruckDto truckDto = truckService.findTruckDtoById(truckUid);
 
-		truckRouteDto.setTruckRoutePage(truckRoutePageService.getOrCreateUserRoutePageByRouteDate(truckRouteDto, user, truckDto));
+		truckRouteDto.setTruckRoutePage(truckRoutePageService.getOrCreateUserRoutePageByRouteDate(truckRouteDto, access, truckDto));
 
 		truckRouteDto.setRouteLength(calculateRouteLength(truckRouteDto));
 		truckRouteDto.setFuelConsumed(calculateFuelConsume(truckRouteDto));
@@ -104,7 +114,9 @@ public class TruckRouteServiceImpl implements TruckRouteService {
 //		resolveTruckObjects(truckRouteDto);
 
 		TruckRoute truckRoute = freightMapper.toEntity(truckRouteDto);
-		return freightMapper.toDto(truckRouteRepository.save(truckRoute));
+		TruckRoute savedTruckRoute = truckRouteRepository.saveAndFlush(truckRoute);
+		entityManager.refresh(savedTruckRoute.getTruckRoutePage());
+		return freightMapper.toDto(savedTruckRoute);
 	}
 
 	protected int calculateRouteLength(TruckRouteDto truckRouteDto) {
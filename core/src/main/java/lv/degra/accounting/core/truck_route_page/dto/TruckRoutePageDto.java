@@ -30,6 +30,7 @@ public class TruckRoutePageDto implements Serializable {
 	private Double fuelBalanceAtStart;
 	private Double fuelBalanceAtFinish;
 
+	private Integer routeCount;
 	private Double totalFuelReceivedOnRoutes;
 	private Double totalFuelConsumedOnRoutes;
 	private Double fuelBalanceAtRoutesFinish;
@@ -1,12 +1,8 @@
 package lv.degra.accounting.core.truck_route_page.model;
 
 import java.io.Serializable;
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
 
 import org.hibernate.envers.Audited;
@@ -19,10 +15,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
-import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -42,7 +39,14 @@ import lv.degra.accounting.core.user.model.User;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "truck_route_page")
+@NamedEntityGraph(name = TruckRoutePage.GRAPH_TRUCK_AND_USER, attributeNodes = { @NamedAttributeNode("truck"), @NamedAttributeNode("user") })
 public class TruckRoutePage extends AuditInfo implements Serializable {
+	/**
+	 * Everything {@code TruckRoutePageDto} reads. Routes are never part of a page fetch; their totals are columns of the
+	 * page itself.
+	 */
+	public static final String GRAPH_TRUCK_AND_USER = "TruckRoutePage.truckAndUser";
+
 	@Id
 	@Column(name = "uid", nullable = false, length = 36)
 	private String uid;
@@ -55,12 +59,12 @@ public class TruckRoutePage extends AuditInfo implements Serializable {
 	private LocalDate dateTo;
 
 	@NotNull
-	@ManyToOne(fetch = FetchType.EAGER, optional = false)
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
 	@JoinColumn(name = "truck_uid", nullable = false)
 	private Truck truck;
 
 	@NotNull
-	@ManyToOne(fetch = FetchType.EAGER, optional = false)
+	@ManyToOne(fetch = FetchType.LAZY, optional = false)
 	@JoinColumn(name = "user_id", nullable = false)
 	@NotAudited
 	private User user;
@@ -71,51 +75,41 @@ public class TruckRoutePage extends AuditInfo implements Serializable {
 	@Column(name = "fuel_balance_at_end", nullable = false)
 	private Double fuelBalanceAtFinish;
 
-	@OneToMany(mappedBy = "truckRoutePage", fetch = FetchType.EAGER, cascade = CascadeType.ALL, orphanRemoval = true)
+	@OneToMany(mappedBy = "truckRoutePage", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
 	private List<TruckRoute> routes;
 
-	@Transient
+	/*
+	 * Route totals are maintained by the database statements of TruckRoutePageTotalsService whenever a route is written,
+	 * so they are never written from the entity and not audited.
+	 */
+	@NotAudited
+	@Column(name = "route_count", insertable = false, updatable = false)
+	private Integer routeCount;
+
+	@NotAudited
+	@Column(name = "total_fuel_received", insertable = false, updatable = false)
 	private Double totalFuelReceivedOnRoutes;
 
-	@Transient
+	@NotAudited
+	@Column(name = "total_fuel_consumed", insertable = false, updatable = false)
 	private Double totalFuelConsumedOnRoutes;
 
-	@Transient
+	@NotAudited
+	@Column(name = "fuel_balance_at_routes_finish", insertable = false, updatable = false)
 	private Double fuelBalanceAtRoutesFinish;
 
-	@Transient
+	@NotAudited
+	@Column(name = "odometer_at_route_start", insertable = false, updatable = false)
 	private Long odometerAtRouteStart;
 
-	@Transient
+	@NotAudited
+	@Column(name = "odometer_at_route_finish", insertable = false, updatable = false)
 	private Long odometerAtRouteFinish;
 
-	@Transient
+	@NotAudited
+	@Column(name = "total_routes_length", insertable = false, updatable = false)
 	private Long computedTotalRoutesLength;
 
-	public void calculateSummary() {
-		if (routes == null || routes.isEmpty()) {
-			return;
-		}
-
-		routes.sort(Comparator.comparing(TruckRoute::getOutDateTime));
-
-		TruckRoute firstRoute = routes.getFirst();
-		TruckRoute lastRoute = routes.getLast();
-
-		this.odometerAtRouteStart = firstRoute.getOdometerAtStart();
-		this.odometerAtRouteFinish = lastRoute.getInDateTime() == null ? lastRoute.getOdometerAtStart() : lastRoute.getOdometerAtFinish();
-		this.fuelBalanceAtRoutesFinish = lastRoute.getFuelBalanceAtFinish();
-
-		this.totalFuelConsumedOnRoutes = BigDecimal.valueOf(
-						routes.stream().mapToDouble(route -> Optional.ofNullable(route.getFuelConsumed()).orElse(0.0)).sum())
-				.setScale(2, RoundingMode.HALF_UP).doubleValue();
-
-		this.computedTotalRoutesLength = routes.stream().mapToLong(route -> Optional.ofNullable(route.getRouteLength()).orElse(0L)).sum();
-
-		this.totalFuelReceivedOnRoutes = routes.stream().mapToDouble(route -> Optional.ofNullable(route.getFuelReceived()).orElse(0.0))
-				.sum();
-	}
-
 	@PrePersist
 	public void generateUid() {
 		if (this.uid == null) {
@@ -5,6 +5,7 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,8 +14,10 @@ import lv.degra.accounting.core.truck.model.Truck;
 import lv.degra.accounting.core.user.model.User;
 
 public interface TruckRoutePageRepository extends JpaRepository<TruckRoutePage, String> {
+	@EntityGraph(TruckRoutePage.GRAPH_TRUCK_AND_USER)
 	Page<TruckRoutePage> findByUser(User user, Pageable pageable);
 
+	@EntityGraph(TruckRoutePage.GRAPH_TRUCK_AND_USER)
 	@Query("""
 			    SELECT trp FROM TruckRoutePage trp 
 			    WHERE trp.user = :user 
@@ -24,5 +27,10 @@ public interface TruckRoutePageRepository extends JpaRepository<TruckRoutePage,
 	Optional<TruckRoutePage> findByUserAndTruckAndRouteDate(@Param("user") User user, @Param("truck") Truck truck,
 			@Param("routeDate") LocalDate routeDate);
 
+	@Override
+	@EntityGraph(TruckRoutePage.GRAPH_TRUCK_AND_USER)
+	Optional<TruckRoutePage> findById(String uid);
+
 	long countByUser(User user);
-}
\ No newline at end of file
+
+}
@@ -8,14 +8,14 @@ import lv.degra.accounting.core.truck.dto.TruckDto;
 import lv.degra.accounting.core.truck_route.dto.TruckRouteDto;
 import lv.degra.accounting.core.truck_route_page.dto.TruckRoutePageDto;
 import lv.degra.accounting.core.truck_route_page.model.TruckRoutePage;
-import lv.degra.accounting.core.user.model.User;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
 
 public interface TruckRoutePageService {
 	List<TruckRoutePage> getUserRoutePages(String userId, int page, int size);
 
 	List<TruckRoutePageDto> getUserRoutePagesDto(String userId, int page, int size);
 
-	TruckRoutePageDto getOrCreateUserRoutePageByRouteDate(@NotNull TruckRouteDto truckRouteDto, @NotNull User user,
+	TruckRoutePageDto getOrCreateUserRoutePageByRouteDate(@NotNull TruckRouteDto truckRouteDto, @NotNull TruckUserAccess access,
 			@NotNull TruckDto truckDto);
 
 	TruckRoutePageDto userRoutePageByRouteDateExists(LocalDate routeDate, String userId, String truckUid);
@@ -19,77 +19,70 @@ import lv.degra.accounting.core.truck_route.dto.TruckRouteDto;
 import lv.degra.accounting.core.truck_route_page.dto.TruckRoutePageDto;
 import lv.degra.accounting.core.truck_route_page.model.TruckRoutePage;
 import lv.degra.accounting.core.truck_route_page.model.TruckRoutePageRepository;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
 import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+import lv.degra.accounting.core.truck_user_map.service.TruckUserAccessService;
 import lv.degra.accounting.core.user.model.User;
-import lv.degra.accounting.core.user.service.UserService;
 import lv.degra.accounting.core.utils.TruckAccessUtils;
 
 @Service
 public class TruckRoutePageServiceImpl implements TruckRoutePageService {
 
 	private final TruckRoutePageRepository truckRoutePageRepository;
-	private final UserService userService;
 	private final TruckService truckService;
 	private final FreightMapper freightMapper;
+	private final TruckUserAccessService truckUserAccessService;
 	private final TruckUserMapRepository truckUserMapRepository;
 
-	public TruckRoutePageServiceImpl(TruckRoutePageRepository truckRoutePageRepository, UserService userService, TruckService truckService,
-			FreightMapper freightMapper, TruckUserMapRepository truckUserMapRepository) {
+	public TruckRoutePageServiceImpl(TruckRoutePageRepository truckRoutePageRepository, TruckService truckService,
+			FreightMapper freightMapper, TruckUserAccessService truckUserAccessService, TruckUserMapRepository truckUserMapRepository) {
 		this.truckRoutePageRepository = truckRoutePageRepository;
-		this.userService = userService;
 		this.truckService = truckService;
 		this.freightMapper = freightMapper;
+		this.truckUserAccessService = truckUserAccessService;
 		this.truckUserMapRepository = truckUserMapRepository;
 	}
 
-	protected void validateUserAccessToTruck(String truckId, User user) {
-		TruckAccessUtils.validateUserAccessToTruck(truckId, user, truckUserMapRepository);
+	protected void validateUserAccessToTruck(String truckId, TruckUserAccess access) {
+		TruckAccessUtils.validateUserAccessToTruck(truckId, access, truckUserMapRepository);
 	}
 
 	public List<TruckRoutePage> getUserRoutePages(String userId, int page, int size) {
 
-		User user = userService.getUserByUserId(userId);
+		User user = truckUserAccessService.getAccess(userId).toUser();
 
-		List<TruckRoutePage> routePages = truckRoutePageRepository.findByUser(user,
-				PageRequest.of(page, size, Sort.by(Sort.Order.desc("uid")))).getContent();
-
-		routePages.forEach(TruckRoutePage::calculateSummary);
-		return routePages;
+		return truckRoutePageRepository.findByUser(user, PageRequest.of(page, size, Sort.by(Sort.Order.desc("uid")))).getContent();
 	}
 
 	public List<TruckRoutePageDto> getUserRoutePagesDto(String userId, int page, int size) {
 		return getUserRoutePages(userId, page, size).stream().map(freightMapper::toDto).toList();
 	}
 
-	public TruckRoutePageDto getOrCreateUserRoutePageByRouteDate(TruckRouteDto truckRouteDto, User user, TruckDto truckDto) {
+	public TruckRoutePageDto getOrCreateUserRoutePageByRouteDate(TruckRouteDto truckRouteDto, TruckUserAccess access, TruckDto truckDto) {
 		String truckId = truckDto.getUid();
 
-		validateUserAccessToTruck(truckId, user);
+		validateUserAccessToTruck(truckId, access);
 
-		return truckRoutePageRepository.findByUserAndTruckAndRouteDate(user, freightMapper.toEntity(truckDto), truckRouteDto.getRouteDate())
-				.map(this::convertAndCalculateSummary).orElseGet(() -> createNewTruckRoutePage(truckRouteDto, user));
+		return truckRoutePageRepository.findByUserAndTruckAndRouteDate(access.toUser(), freightMapper.toEntity(truckDto),
+						truckRouteDto.getRouteDate())
+				.map(freightMapper::toDto).orElseGet(() -> createNewTruckRoutePage(truckRouteDto, access, truckDto));
 	}
 
 	public TruckRoutePageDto userRoutePageByRouteDateExists(LocalDate routeDate, String userId, String truckId) {
-		User user = userService.getUserByUserId(userId);
+		TruckUserAccess access = truckUserAccessService.getAccess(userId);
 
-		List<TruckDto> allUserTrucks = truckService.getAllTrucksByUserFirstDefault(userId);
-		if (allUserTrucks.stream().noneMatch(truckDto -> truckDto.getUid().equals(truckId))) {
+		if (!access.hasTruck(truckId) && !truckUserMapRepository.existsByUserIdAndTruckUid(access.getUserId(), truckId)) {
 			throw new ResourceNotFoundException("Truck with ID: " + truckId + " is not allowed for user with ID " + userId);
 		}
 
 		Truck truck = truckService.findTruckById(truckId);
 
-		return truckRoutePageRepository.findByUserAndTruckAndRouteDate(user, truck, routeDate).map(this::convertAndCalculateSummary)
+		return truckRoutePageRepository.findByUserAndTruckAndRouteDate(access.toUser(), truck, routeDate).map(freightMapper::toDto)
 				.orElseThrow(() -> new ResourceNotFoundException("Truck route page not found for user and truck on date " + routeDate));
 	}
 
-	private TruckRoutePageDto convertAndCalculateSummary(TruckRoutePage truckRoutePage) {
-		truckRoutePage.calculateSummary();
-		return freightMapper.toDto(truckRoutePage);
-	}
-
-	private TruckRoutePageDto createNewTruckRoutePage(TruckRouteDto truckRouteDto, User user) {
+	private TruckRoutePageDto createNewTruckRoutePage(TruckRouteDto truckRouteDto, TruckUserAccess access, TruckDto truckDto) {
+		User user = access.toUser();
 		LocalDate routeDate = truckRouteDto.getRouteDate();
 
 		TruckRoutePage truckRoutePageDto = Optional.ofNullable(truckRouteDto.getTruckRoutePage())
@@ -98,8 +91,9 @@ public class TruckRoutePageServiceImpl implements TruckRoutePageService {
 						.fuelBalanceAtStart(truckRouteDto.getFuelBalanceAtStart()).user(user).build())
 				.orElseThrow(() -> new IllegalArgumentException("TruckRoutePage is required in TruckRouteDto"));
 
-		Truck truck = truckService.getDefaultTruckForUser(user)
+		String defaultTruckUid = Optional.ofNullable(access.getDefaultTruckUid())
 				.orElseThrow(() -> new ResourceNotFoundException("No default truck found for user: " + user.getId()));
+		Truck truck = defaultTruckUid.equals(truckDto.getUid()) ? freightMapper.toEntity(truckDto) : truckService.findTruckById(defaultTruckUid);
 
 		truckRoutePageDto.setTruck(truck);
 
@@ -111,6 +105,7 @@ public class TruckRoutePageServiceImpl implements TruckRoutePageService {
 				.orElseThrow(() -> new ResourceNotFoundException("No truck route pages found with ID: " + uid));
 	}
 
+	@Transactional
 	public TruckRoutePageDto save(TruckRoutePageDto truckRoutePageDto) {
 		TruckRoutePage entity = freightMapper.toEntity(truckRoutePageDto);
 		entity = truckRoutePageRepository.save(entity);
@@ -135,19 +130,18 @@ public class TruckRoutePageServiceImpl implements TruckRoutePageService {
 	@Transactional
 	public void deleteTruckRoutePage(String uid, String userId) {
 
-		User user = userService.getUserByUserId(userId);
+		TruckUserAccess access = truckUserAccessService.getAccess(userId);
 
 		TruckRoutePage page = truckRoutePageRepository.findById(uid)
 				.orElseThrow(() -> new ResourceNotFoundException("Truck route page not found with ID: " + uid));
 
-		validateUserAccessToTruck(page.getTruck().getUid(), user);
+		validateUserAccessToTruck(page.getTruck().getUid(), access);
 
 		truckRoutePageRepository.delete(page);
 	}
 
 	@Override
 	public long countUserRoutePages(String userId) {
-		User user = userService.getUserByUserId(userId);
-		return truckRoutePageRepository.countByUser(user);
+		return truckRoutePageRepository.countByUser(truckUserAccessService.getAccess(userId).toUser());
 	}
 }
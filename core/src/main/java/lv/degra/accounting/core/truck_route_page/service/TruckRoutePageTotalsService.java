@@ -0,0 +1,10 @@
+package lv.degra.accounting.core.truck_route_page.service;
+
+import lv.degra.accounting.core.truck_route.model.TruckRouteTotals;
+
+public interface TruckRoutePageTotalsService {
+
+	TruckRouteTotals applyChange(TruckRouteTotals before, String truckRouteUid);
+
+	int repairAll();
+}
@@ -0,0 +1,157 @@
+package lv.degra.accounting.core.truck_route_page.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.slf4j.Slf4j;
+import lv.degra.accounting.core.truck_route.model.TruckRouteTotals;
+
+/**
+ * Maintains the route totals stored on {@code truck_route_page}. Sums move by the difference between a route's old and
+ * new values as stored in {@code truck_route}, so they always agree with what {@link #repairAll()} recomputes; the fuel
+ * columns hold whole litres, which keeps the sums exact without the rounding the summaries used to apply. First and last
+ * route values are re-read through the (truck_route_page_uid, out_date_time) index. The affected page rows are locked in
+ * uid order before they are changed, so a concurrent route write or a repair waits for this transaction and then reads
+ * its routes, and two routes moved between the same pages in opposite directions cannot deadlock. The locks are
+ * {@code FOR NO KEY UPDATE}, which does not conflict with the key share lock a route insert takes on its page.
+ */
+@Slf4j
+@Service
+public class TruckRoutePageTotalsServiceImpl implements TruckRoutePageTotalsService {
+
+	static final int REPAIR_BATCH_SIZE = 500;
+
+	private static final String SELECT_ROUTE_TOTALS_SQL =
+			"SELECT truck_route_page_uid, route_length, fuel_consumed, fuel_received FROM truck_route WHERE uid = ?";
+	private static final String LOCK_PAGES_SQL = "SELECT uid FROM truck_route_page WHERE uid = ANY(?) ORDER BY uid FOR NO KEY UPDATE";
+	private static final String APPLY_DELTA_SQL = """
+			UPDATE truck_route_page p
+			SET route_count = p.route_count + ?,
+				total_routes_length = p.total_routes_length + ?,
+				total_fuel_consumed = p.total_fuel_consumed + ?,
+				total_fuel_received = p.total_fuel_received + ?,
+				odometer_at_route_start = (
+					SELECT r.odometer_at_start FROM truck_route r
+					WHERE r.truck_route_page_uid = p.uid
+					ORDER BY r.out_date_time, r.uid
+					LIMIT 1),
+				(odometer_at_route_finish, fuel_balance_at_routes_finish) = (
+					SELECT CASE WHEN r.in_date_time IS NULL THEN r.odometer_at_start ELSE r.odometer_at_finish END, r.fuel_balance_at_finish
+					FROM truck_route r
+					WHERE r.truck_route_page_uid = p.uid
+					ORDER BY r.out_date_time DESC, r.uid DESC
+					LIMIT 1)
+			WHERE p.uid = ?
+			""";
+	private static final String SELECT_PAGE_UIDS_SQL = "SELECT uid FROM truck_route_page ORDER BY uid";
+	private static final String REPAIR_SQL = """
+			UPDATE truck_route_page p
+			SET route_count = t.route_count,
+				total_routes_length = t.total_routes_length,
+				total_fuel_consumed = t.total_fuel_consumed,
+				total_fuel_received = t.total_fuel_received,
+				odometer_at_route_start = t.odometer_at_route_start,
+				odometer_at_route_finish = t.odometer_at_route_finish,
+				fuel_balance_at_routes_finish = t.fuel_balance_at_routes_finish
+			FROM (
+				SELECT pg.uid,
+					count(r.uid) AS route_count,
+					coalesce(sum(r.route_length), 0) AS total_routes_length,
+					coalesce(sum(r.fuel_consumed), 0) AS total_fuel_consumed,
+					coalesce(sum(r.fuel_received), 0) AS total_fuel_received,
+					(array_agg(r.odometer_at_start ORDER BY r.out_date_time, r.uid))[1] AS odometer_at_route_start,
+					(array_agg(CASE WHEN r.in_date_time IS NULL THEN r.odometer_at_start ELSE r.odometer_at_finish END
+						ORDER BY r.out_date_time DESC, r.uid DESC))[1] AS odometer_at_route_finish,
+					(array_agg(r.fuel_balance_at_finish ORDER BY r.out_date_time DESC, r.uid DESC))[1] AS fuel_balance_at_routes_finish
+				FROM truck_route_page pg
+				LEFT JOIN truck_route r ON r.truck_route_page_uid = pg.uid
+				WHERE pg.uid = ANY(?)
+				GROUP BY pg.uid
+			) t
+			WHERE p.uid = t.uid
+			""";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+
+	public TruckRoutePageTotalsServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Applies one route write: {@code before} holds the route's totals as stored before it, {@code null} for an insert,
+	 * and the route row is read back to get the stored totals after it, none once the route has been deleted. A route
+	 * moved to another page is taken off the old page and added to the new one. Returns the stored totals after the write.
+	 */
+	public TruckRouteTotals applyChange(TruckRouteTotals before, String truckRouteUid) {
+		TruckRouteTotals after = jdbcTemplate.query(SELECT_ROUTE_TOTALS_SQL,
+				(resultSet, rowNum) -> new TruckRouteTotals(resultSet.getString("truck_route_page_uid"), resultSet.getLong("route_length"),
+						resultSet.getDouble("fuel_consumed"), resultSet.getDouble("fuel_received")), truckRouteUid).stream().findFirst().orElse(null);
+		String beforePageUid = before != null ? before.getTruckRoutePageUid() : null;
+		String afterPageUid = after != null ? after.getTruckRoutePageUid() : null;
+		if (beforePageUid != null && beforePageUid.equals(afterPageUid)) {
+			if (!before.equals(after)) {
+				lockPages(afterPageUid);
+				applyDelta(afterPageUid, 0, after.getRouteLength() - before.getRouteLength(),
+						subtract(after.getFuelConsumed(), before.getFuelConsumed()), subtract(after.getFuelReceived(), before.getFuelReceived()));
+			}
+			return after;
+		}
+		lockPages(Stream.of(beforePageUid, afterPageUid).filter(Objects::nonNull).toArray(String[]::new));
+		if (beforePageUid != null) {
+			applyDelta(beforePageUid, -1, -before.getRouteLength(), BigDecimal.valueOf(before.getFuelConsumed()).negate(),
+					BigDecimal.valueOf(before.getFuelReceived()).negate());
+		}
+		if (afterPageUid != null) {
+			applyDelta(afterPageUid, 1, after.getRouteLength(), BigDecimal.valueOf(after.getFuelConsumed()),
+					BigDecimal.valueOf(after.getFuelReceived()));
+		}
+		return after;
+	}
+
+	/**
+	 * Recomputes the totals of every page from its routes, one locked batch per transaction, and returns the number of
+	 * pages whose stored totals were rewritten.
+	 */
+	public int repairAll() {
+		List<String> pageUids = jdbcTemplate.queryForList(SELECT_PAGE_UIDS_SQL, String.class);
+		int repaired = 0;
+		for (int from = 0; from < pageUids.size(); from += REPAIR_BATCH_SIZE) {
+			String[] batch = pageUids.subList(from, Math.min(from + REPAIR_BATCH_SIZE, pageUids.size())).toArray(String[]::new);
+			repaired += Objects.requireNonNull(transactionTemplate.execute(status -> {
+				lockPages(batch);
+				return jdbcTemplate.update(REPAIR_SQL, bindUids(batch));
+			}));
+		}
+		log.info("Truck route page totals recomputed for {} pages", repaired);
+		return repaired;
+	}
+
+	private void lockPages(String... pageUids) {
+		if (pageUids.length > 0) {
+			jdbcTemplate.query(LOCK_PAGES_SQL, bindUids(pageUids), resultSet -> {
+			});
+		}
+	}
+
+	private static PreparedStatementSetter bindUids(String[] uids) {
+		return statement -> statement.setArray(1, statement.getConnection().createArrayOf("varchar", uids));
+	}
+
+	private void applyDelta(String pageUid, int routeCount, long routeLength, BigDecimal fuelConsumed, BigDecimal fuelReceived) {
+		jdbcTemplate.update(APPLY_DELTA_SQL, routeCount, routeLength, fuelConsumed, fuelReceived, pageUid);
+	}
+
+	private static BigDecimal subtract(double after, double before) {
+		return BigDecimal.valueOf(after).subtract(BigDecimal.valueOf(before));
+	}
+}
@@ -0,0 +1,33 @@
+package lv.degra.accounting.core.truck_user_map.model;
+
+import java.util.Set;
+
+import lombok.Value;
+import lv.degra.accounting.core.user.model.User;
+
+/**
+ * Snapshot of what a Keycloak subject resolves to in freight tracking: the local user id, the trucks the user may use
+ * and the default truck. It holds no entities, so it can be shared between requests and threads.
+ */
+@Value
+public class TruckUserAccess {
+	String subject;
+	Integer userId;
+	Set<String> truckUids;
+	String defaultTruckUid;
+
+	public boolean hasTruck(String truckUid) {
+		return truckUids.contains(truckUid);
+	}
+
+	/**
+	 * Detached user carrying only the identifiers. Enough to bind as a query parameter or to set on an association
+	 * that does not cascade to the user.
+	 */
+	public User toUser() {
+		User user = new User();
+		user.setId(userId);
+		user.setUserId(subject);
+		return user;
+	}
+}
@@ -8,6 +8,7 @@ import org.hibernate.envers.NotAudited;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -29,6 +30,7 @@ import lv.degra.accounting.core.user.model.User;
 @Setter
 @Entity
 @Audited
+@EntityListeners(TruckUserMapChangeListener.class)
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "truck_user_map")
@@ -0,0 +1,37 @@
+package lv.degra.accounting.core.truck_user_map.model;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lv.degra.accounting.core.truck_user_map.service.TruckUserAccessService;
+
+/**
+ * Evicts the cached truck access of a user whenever one of the user's truck mappings changes. Created by Hibernate
+ * through the Spring bean container; the service is looked up on first use because the entity manager factory is
+ * built before it.
+ */
+public class TruckUserMapChangeListener {
+
+	private final ObjectProvider<TruckUserAccessService> truckUserAccessService;
+
+	public TruckUserMapChangeListener(ObjectProvider<TruckUserAccessService> truckUserAccessService) {
+		this.truckUserAccessService = truckUserAccessService;
+	}
+
+	@PostPersist
+	@PostUpdate
+	@PostRemove
+	public void onChange(TruckUserMap truckUserMap) {
+		TruckUserAccessService service = truckUserAccessService.getIfAvailable();
+		if (service == null) {
+			return;
+		}
+		if (truckUserMap.getUser() != null && truckUserMap.getUser().getUserId() != null) {
+			service.evict(truckUserMap.getUser().getUserId());
+		} else {
+			service.evictAll();
+		}
+	}
+}
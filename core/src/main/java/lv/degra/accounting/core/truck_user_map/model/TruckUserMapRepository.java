@@ -1,11 +1,28 @@
 package lv.degra.accounting.core.truck_user_map.model;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import lv.degra.accounting.core.user.model.User;
 
+/**
+ * The access queries read only {@code truck_user_map} and are answered from the {@code uq_truck_user_map} unique index
+ * on (user_id, truck_uid); {@code m.truck.uid} is the foreign key column, so no truck row is joined or loaded.
+ */
 public interface TruckUserMapRepository extends JpaRepository<TruckUserMap, String> {
 	List<TruckUserMap> findByUser(User user);
+
+	@Query("SELECT m.truck.uid AS truckUid, m.isDefault AS isDefault FROM TruckUserMap m WHERE m.user.id = :userId")
+	List<TruckUserMapView> findViewsByUserId(@Param("userId") Integer userId);
+
+	@Query("SELECT COUNT(m) > 0 FROM TruckUserMap m WHERE m.user.id = :userId AND m.truck.uid = :truckUid")
+	boolean existsByUserIdAndTruckUid(@Param("userId") Integer userId, @Param("truckUid") String truckUid);
+
+	@Query("SELECT m.truck.uid FROM TruckUserMap m WHERE m.user.id = :userId AND m.truck.uid IN :truckUids")
+	Set<String> findTruckUidsByUserIdAndTruckUidIn(@Param("userId") Integer userId, @Param("truckUids") Collection<String> truckUids);
 }
@@ -0,0 +1,10 @@
+package lv.degra.accounting.core.truck_user_map.model;
+
+/**
+ * Truck assignment of a user without loading the truck or user entities.
+ */
+public interface TruckUserMapView {
+	String getTruckUid();
+
+	Boolean getIsDefault();
+}
@@ -0,0 +1,14 @@
+package lv.degra.accounting.core.truck_user_map.service;
+
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+
+public interface TruckUserAccessService {
+
+	TruckUserAccess getAccess(String userId);
+
+	TruckUserAccess getCurrentUserAccess();
+
+	void evict(String userId);
+
+	void evictAll();
+}
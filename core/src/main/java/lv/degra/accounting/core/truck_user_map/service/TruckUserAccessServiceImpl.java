@@ -0,0 +1,109 @@
+package lv.degra.accounting.core.truck_user_map.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapView;
+import lv.degra.accounting.core.user.model.User;
+import lv.degra.accounting.core.user.service.UserService;
+import lv.degra.accounting.core.utils.UserContextUtils;
+
+/**
+ * Resolves a Keycloak subject to its {@link TruckUserAccess} once per request. Within a request the snapshot is kept as
+ * a request attribute; across requests it is shared for a short time so that a burst of route writes does not reload
+ * the mappings every time. Local mapping changes evict the entry, again after commit so that a concurrent reader can
+ * not cache the old mappings; changes made by another process, such as a truck revoked in usermanager, are only picked
+ * up when the entry expires. Reads may therefore show a revoked truck for up to the TTL, while writes re-check the
+ * mapping in the database, see {@link lv.degra.accounting.core.utils.TruckAccessUtils}.
+ */
+@Service
+public class TruckUserAccessServiceImpl implements TruckUserAccessService {
+
+	private static final String REQUEST_ATTRIBUTE_PREFIX = TruckUserAccess.class.getName() + ".";
+	private static final long MAXIMUM_SIZE = 10_000;
+
+	private final UserService userService;
+	private final TruckUserMapRepository truckUserMapRepository;
+	private final Cache<String, TruckUserAccess> accessBySubject;
+
+	public TruckUserAccessServiceImpl(UserService userService, TruckUserMapRepository truckUserMapRepository,
+			@Value("${application.truck-access-cache.ttl:PT30S}") Duration ttl) {
+		this.userService = userService;
+		this.truckUserMapRepository = truckUserMapRepository;
+		this.accessBySubject = Caffeine.newBuilder()
+				.maximumSize(MAXIMUM_SIZE)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	public TruckUserAccess getAccess(String userId) {
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if (requestAttributes == null) {
+			return accessBySubject.get(userId, this::load);
+		}
+		String attributeName = REQUEST_ATTRIBUTE_PREFIX + userId;
+		TruckUserAccess access = (TruckUserAccess) requestAttributes.getAttribute(attributeName, RequestAttributes.SCOPE_REQUEST);
+		if (access == null) {
+			access = accessBySubject.get(userId, this::load);
+			requestAttributes.setAttribute(attributeName, access, RequestAttributes.SCOPE_REQUEST);
+		}
+		return access;
+	}
+
+	public TruckUserAccess getCurrentUserAccess() {
+		return getAccess(UserContextUtils.getCurrentUserId());
+	}
+
+	public void evict(String userId) {
+		accessBySubject.invalidate(userId);
+		RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+		if (requestAttributes != null) {
+			requestAttributes.removeAttribute(REQUEST_ATTRIBUTE_PREFIX + userId, RequestAttributes.SCOPE_REQUEST);
+		}
+		afterCommit(() -> accessBySubject.invalidate(userId));
+	}
+
+	public void evictAll() {
+		accessBySubject.invalidateAll();
+		afterCommit(accessBySubject::invalidateAll);
+	}
+
+	private TruckUserAccess load(String userId) {
+		User user = userService.getUserByUserId(userId);
+		List<TruckUserMapView> mappings = truckUserMapRepository.findViewsByUserId(user.getId());
+		Set<String> truckUids = mappings.stream()
+				.map(TruckUserMapView::getTruckUid)
+				.collect(Collectors.toUnmodifiableSet());
+		String defaultTruckUid = mappings.stream()
+				.filter(mapping -> Boolean.TRUE.equals(mapping.getIsDefault()))
+				.map(TruckUserMapView::getTruckUid)
+				.findFirst()
+				.orElse(null);
+		return new TruckUserAccess(userId, user.getId(), truckUids, defaultTruckUid);
+	}
+
+	private static void afterCommit(Runnable action) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					action.run();
+				}
+			});
+		}
+	}
+}
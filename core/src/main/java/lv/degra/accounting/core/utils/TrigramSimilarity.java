@@ -0,0 +1,50 @@
+package lv.degra.accounting.core.utils;
+
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Java counterpart of pg_trgm similarity(), used to rank results filtered in memory the same way the database does.
+ */
+public class TrigramSimilarity {
+
+	private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+	private TrigramSimilarity() {
+	}
+
+	public static double similarity(String first, String second) {
+		Set<String> firstTrigrams = trigrams(first);
+		Set<String> secondTrigrams = trigrams(second);
+		if (firstTrigrams.isEmpty() || secondTrigrams.isEmpty()) {
+			return 0;
+		}
+
+		int common = 0;
+		for (String trigram : firstTrigrams) {
+			if (secondTrigrams.contains(trigram)) {
+				common++;
+			}
+		}
+		return (double) common / (firstTrigrams.size() + secondTrigrams.size() - common);
+	}
+
+	static Set<String> trigrams(String value) {
+		Set<String> trigrams = new HashSet<>();
+		if (value == null) {
+			return trigrams;
+		}
+		for (String word : WORD_SEPARATOR.split(value.toLowerCase(Locale.ROOT))) {
+			if (word.isEmpty()) {
+				continue;
+			}
+			String padded = "  " + word + " ";
+			for (int i = 0; i + 3 <= padded.length(); i++) {
+				trigrams.add(padded.substring(i, i + 3));
+			}
+		}
+		return trigrams;
+	}
+}
@@ -1,12 +1,16 @@
 package lv.degra.accounting.core.utils;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
 
 import static lv.degra.accounting.core.config.ApiConstants.USER_MANAGER_ROLE_NAME;
 import static lv.degra.accounting.core.config.ApiConstants.USER_ROLE_NAME;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
 import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
-import lv.degra.accounting.core.user.model.User;
 
 /**
  * Utilīšu klase kravas auto piekļuves pārbaudēm
@@ -15,27 +19,64 @@ import lv.degra.accounting.core.user.model.User;
 public class TruckAccessUtils {
     
     /**
-     * Pārbauda lietotāja piekļuves tiesības kravas auto
+     * Pārbauda lietotāja piekļuves tiesības kravas auto pirms izmaiņām. Piesaiste vienmēr tiek pārbaudīta datubāzē ar
+     * vienu indeksa vaicājumu, jo kešotā piekļuve neatspoguļo piesaistes, kas pievienotas vai atsauktas citā procesā
+     * (piemēram, lietotāju pārvaldībā), līdz tās derīguma beigām.
      * 
      * @param truckId kravas auto ID
-     * @param user lietotājs
+     * @param access lietotāja kravas auto piekļuve
      * @param truckUserMapRepository repozitorijs kravas auto-lietotāju saistībām
      * @throws AccessDeniedException ja lietotājam nav piekļuves tiesību
      */
-    public static void validateUserAccessToTruck(String truckId, User user, TruckUserMapRepository truckUserMapRepository) {
-        if (UserContextUtils.hasGroup(USER_MANAGER_ROLE_NAME)) {
+    public static void validateUserAccessToTruck(String truckId, TruckUserAccess access, TruckUserMapRepository truckUserMapRepository) {
+        if (!requiresTruckAssociation()) {
+            return;
+        }
+
+        if (!truckUserMapRepository.existsByUserIdAndTruckUid(access.getUserId(), truckId)) {
+            throw new AccessDeniedException("User does not have access to this truck");
+        }
+    }
+
+    /**
+     * Pārbauda lietotāja piekļuves tiesības vairākām kravas automašīnām ar vienu datubāzes vaicājumu, kā
+     * {@link #validateUserAccessToTruck(String, TruckUserAccess, TruckUserMapRepository)}
+     *
+     * @param truckIds kravas auto ID
+     * @param access lietotāja kravas auto piekļuve
+     * @param truckUserMapRepository repozitorijs kravas auto-lietotāju saistībām
+     * @throws AccessDeniedException ja lietotājam nav piekļuves kaut vienai no kravas automašīnām
+     */
+    public static void validateUserAccessToTrucks(Collection<String> truckIds, TruckUserAccess access,
+            TruckUserMapRepository truckUserMapRepository) {
+        if (!requiresTruckAssociation()) {
             return;
         }
-        
+
+        List<String> distinctTruckIds = truckIds.stream()
+                .distinct()
+                .toList();
+        if (distinctTruckIds.isEmpty()) {
+            return;
+        }
+
+        Set<String> associatedTruckIds = truckUserMapRepository.findTruckUidsByUserIdAndTruckUidIn(access.getUserId(), distinctTruckIds);
+        List<String> deniedTruckIds = distinctTruckIds.stream()
+                .filter(truckId -> !associatedTruckIds.contains(truckId))
+                .toList();
+        if (!deniedTruckIds.isEmpty()) {
+            throw new AccessDeniedException("User does not have access to trucks: " + String.join(", ", deniedTruckIds));
+        }
+    }
+
+    private static boolean requiresTruckAssociation() {
+        if (UserContextUtils.hasGroup(USER_MANAGER_ROLE_NAME)) {
+            return false;
+        }
+
         if (!UserContextUtils.hasGroup(USER_ROLE_NAME)) {
             throw new AccessDeniedException("User must have USER role to edit truck routes");
         }
-        
-        boolean hasTruckAssociation = truckUserMapRepository.findByUser(user).stream()
-                .anyMatch(mapping -> mapping.getTruck().getUid().equals(truckId));
-        
-        if (!hasTruckAssociation) {
-            throw new AccessDeniedException("User does not have access to this truck");
-        }
+        return true;
     }
 }
@@ -0,0 +1,24 @@
+package lv.degra.accounting.core.address;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class AddressSearchNormalizerTest {
+
+	@Test
+	void testNormalize_FoldsLatvianDiacritics() {
+		assertEquals("acegiklnsuz acegiklnsuz", AddressSearchNormalizer.normalize("āčēģīķļņšūž ĀČĒĢĪĶĻŅŠŪŽ"));
+	}
+
+	@Test
+	void testNormalize_LowercasesAddress() {
+		assertEquals("brivibas iela 1, riga, lv-1010", AddressSearchNormalizer.normalize("Brīvības iela 1, Rīga, LV-1010"));
+	}
+
+	@Test
+	void testNormalize_Null() {
+		assertNull(AddressSearchNormalizer.normalize(null));
+	}
+}
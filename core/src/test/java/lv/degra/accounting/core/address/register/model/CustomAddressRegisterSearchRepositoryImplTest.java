@@ -1,6 +1,8 @@
 package lv.degra.accounting.core.address.register.model;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
@@ -17,11 +19,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.TypedQuery;
-import jakarta.persistence.criteria.CriteriaBuilder;
-import jakarta.persistence.criteria.CriteriaQuery;
-import jakarta.persistence.criteria.Predicate;
-import jakarta.persistence.criteria.Root;
+import jakarta.persistence.Query;
 
 class CustomAddressRegisterSearchRepositoryImplTest {
 
@@ -31,13 +29,7 @@ class CustomAddressRegisterSearchRepositoryImplTest {
 	private EntityManager entityManager;
 
 	@Mock
-	private CriteriaBuilder criteriaBuilder;
-
-	@Mock
-	private CriteriaQuery<AddressRegister> criteriaQuery;
-
-	@Mock
-	private Root<AddressRegister> root;
+	private Query query;
 
 	@BeforeEach
 	void setUp() {
@@ -45,99 +37,69 @@ class CustomAddressRegisterSearchRepositoryImplTest {
 		repository = new CustomAddressRegisterSearchRepositoryImpl();
 		repository.entityManager = entityManager;
 
-		when(entityManager.getCriteriaBuilder()).thenReturn(criteriaBuilder);
-		when(criteriaBuilder.createQuery(AddressRegister.class)).thenReturn(criteriaQuery);
-		when(criteriaQuery.from(AddressRegister.class)).thenReturn(root);
+		when(entityManager.createNativeQuery(anyString(), eq(AddressRegister.class))).thenReturn(query);
+		when(query.setParameter(anyInt(), any())).thenReturn(query);
+		when(query.setMaxResults(CustomAddressRegisterSearchRepositoryImpl.MAX_RESULTS)).thenReturn(query);
 	}
 
 	@Test
 	void testSearchByMultipleWords_SingleWord() {
-		String searchString = "Test";
-		Predicate mockPredicate = mock(Predicate.class);
-
-		when(criteriaBuilder.like(any(), eq("%test%"))).thenReturn(mockPredicate);
-		when(criteriaBuilder.and(mockPredicate)).thenReturn(mockPredicate);
-		when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-		when(criteriaQuery.where(mockPredicate)).thenReturn(criteriaQuery);
-
-		TypedQuery<AddressRegister> mockTypedQuery = mock(TypedQuery.class);
-		when(mockTypedQuery.setMaxResults(20)).thenReturn(mockTypedQuery);
 		List<AddressRegister> mockResults = List.of(mock(AddressRegister.class));
-		when(mockTypedQuery.getResultList()).thenReturn(mockResults);
-
-		when(entityManager.createQuery(criteriaQuery)).thenReturn(mockTypedQuery);
+		when(query.getResultList()).thenReturn(mockResults);
 
-		List<AddressRegister> result = repository.searchByMultipleWords(searchString);
+		List<AddressRegister> result = repository.searchByMultipleWords("Test");
 
 		assertEquals(mockResults, result);
-		verify(criteriaBuilder).like(any(), eq("%test%"));
-		verify(entityManager).createQuery(criteriaQuery);
-		verify(mockTypedQuery).setMaxResults(20);
-		verify(mockTypedQuery).getResultList();
+		verify(entityManager).createNativeQuery(CustomAddressRegisterSearchRepositoryImpl.buildSearchSql(1), AddressRegister.class);
+		verify(query).setParameter(1, "%test%");
+		verify(query).setParameter(2, "test");
+		verify(query).setMaxResults(20);
 	}
 
-
 	@Test
-	void testSearchByMultipleWords_MultipleWords() {
-		String searchString = "Test Address";
-		Predicate predicate1 = mock(Predicate.class);
-		Predicate predicate2 = mock(Predicate.class);
-		when(criteriaBuilder.like(any(), eq("%test%"))).thenReturn(predicate1);
-		when(criteriaBuilder.like(any(), eq("%address%"))).thenReturn(predicate2);
-
-		when(criteriaBuilder.and(predicate1, predicate2)).thenReturn(predicate1);
-		when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-		when(criteriaQuery.where(predicate1)).thenReturn(criteriaQuery);
-
-		TypedQuery<AddressRegister> mockTypedQuery = mock(TypedQuery.class);
-		when(mockTypedQuery.setMaxResults(20)).thenReturn(mockTypedQuery);
+	void testSearchByMultipleWords_MultipleWordsAreNormalized() {
 		List<AddressRegister> mockResults = List.of(mock(AddressRegister.class), mock(AddressRegister.class));
-		when(mockTypedQuery.getResultList()).thenReturn(mockResults);
+		when(query.getResultList()).thenReturn(mockResults);
 
-		when(entityManager.createQuery(criteriaQuery)).thenReturn(mockTypedQuery);
-
-		List<AddressRegister> result = repository.searchByMultipleWords(searchString);
+		List<AddressRegister> result = repository.searchByMultipleWords("Rīga,  Brīvības_Iela");
 
 		assertEquals(mockResults, result);
-		verify(criteriaBuilder).like(any(), eq("%test%"));
-		verify(criteriaBuilder).like(any(), eq("%address%"));
-		verify(entityManager).createQuery(criteriaQuery);
-		verify(mockTypedQuery).setMaxResults(20);
-		verify(mockTypedQuery).getResultList();
+		verify(entityManager).createNativeQuery(CustomAddressRegisterSearchRepositoryImpl.buildSearchSql(2), AddressRegister.class);
+		verify(query).setParameter(1, "%riga%");
+		verify(query).setParameter(2, "%brivibas\\_iela%");
+		verify(query).setParameter(3, "riga brivibas_iela");
 	}
 
 	@Test
 	void testSearchByMultipleWords_NoResults() {
-		String searchString = "NonExistingWord";
-		Predicate mockPredicate = mock(Predicate.class);
-
-		when(criteriaBuilder.like(any(), eq("%nonexistingword%"))).thenReturn(mockPredicate);
-		when(criteriaBuilder.and(mockPredicate)).thenReturn(mockPredicate);
-		when(criteriaQuery.select(root)).thenReturn(criteriaQuery);
-		when(criteriaQuery.where(mockPredicate)).thenReturn(criteriaQuery);
+		when(query.getResultList()).thenReturn(new ArrayList<>());
 
-		TypedQuery<AddressRegister> mockTypedQuery = mock(TypedQuery.class);
-		when(mockTypedQuery.setMaxResults(20)).thenReturn(mockTypedQuery); // Simulē setMaxResults
-		when(mockTypedQuery.getResultList()).thenReturn(new ArrayList<>()); // Atgriež tukšu sarakstu
-
-		when(entityManager.createQuery(criteriaQuery)).thenReturn(mockTypedQuery); // Simulē createQuery
-
-		List<AddressRegister> result = repository.searchByMultipleWords(searchString);
+		List<AddressRegister> result = repository.searchByMultipleWords("NonExistingWord");
 
 		assertEquals(0, result.size());
-
-		verify(entityManager).createQuery(criteriaQuery);
+		verify(query).setParameter(1, "%nonexistingword%");
 	}
 
-
 	@Test
 	void testSearchByMultipleWords_EmptyString() {
-		String searchString = "";
+		List<AddressRegister> result = repository.searchByMultipleWords("");
+
+		assertEquals(0, result.size());
+		verify(entityManager, never()).createNativeQuery(anyString(), eq(AddressRegister.class));
+	}
 
-		List<AddressRegister> result = repository.searchByMultipleWords(searchString);
+	@Test
+	void testSearchByMultipleWords_OnlySeparators() {
+		List<AddressRegister> result = repository.searchByMultipleWords(" , ,, ");
 
 		assertEquals(0, result.size());
-		verify(entityManager, never()).createQuery(any(CriteriaQuery.class));
+		verify(entityManager, never()).createNativeQuery(anyString(), eq(AddressRegister.class));
 	}
 
+	@Test
+	void testBuildSearchSql() {
+		assertEquals("SELECT a.* FROM address_register a WHERE a.search_address LIKE ?1 AND a.search_address LIKE ?2"
+				+ " ORDER BY similarity(a.search_address, ?3) DESC, a.full_address",
+				CustomAddressRegisterSearchRepositoryImpl.buildSearchSql(2));
+	}
 }
@@ -0,0 +1,75 @@
+package lv.degra.accounting.core.address.register.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+import lv.degra.accounting.core.system.cache.PrefixSearchCache;
+
+class AddressRegisterSearchFilterTest {
+
+	private static final AddressRegister BRIVIBAS = address(1, "Brīvības iela 10, Rīga");
+	private static final AddressRegister ZABRIVIBAS = address(2, "Zabrīvības iela 1, Rīga");
+	private static final AddressRegister BRIVIBAS_GATVE = address(3, "Brīvības gatve 200, Rīga");
+
+	private final AddressRegisterSearchFilter filter = new AddressRegisterSearchFilter();
+	private PrefixSearchCache<AddressRegister> cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new PrefixSearchCache<>("addressRegisterCache", Caffeine.newBuilder().build(), 20, filter);
+	}
+
+	@Test
+	void testGet_IndexResultsNarrowByTokenPrefixAndShortestAddressFirst() {
+		cache.put(AddressRegisterSearchFilter.toCacheKey(true, "brīv"), List.of(BRIVIBAS_GATVE, BRIVIBAS));
+
+		assertEquals(List.of(BRIVIBAS, BRIVIBAS_GATVE), cache.get(AddressRegisterSearchFilter.toCacheKey(true, "brīvības"), List.class));
+	}
+
+	@Test
+	void testGet_DatabaseResultsNarrowBySubstringAndSimilarity() {
+		cache.put(AddressRegisterSearchFilter.toCacheKey(false, "brīv"), List.of(ZABRIVIBAS, BRIVIBAS_GATVE, BRIVIBAS));
+
+		List<?> result = cache.get(AddressRegisterSearchFilter.toCacheKey(false, "brīvības iela"), List.class);
+
+		assertEquals(List.of(BRIVIBAS, ZABRIVIBAS), result);
+	}
+
+	@Test
+	void testMatches_IndexIgnoresWordsInsideTokens() {
+		assertFalse(filter.matches(AddressRegisterSearchFilter.toCacheKey(true, "brīvības"), ZABRIVIBAS));
+		assertTrue(filter.matches(AddressRegisterSearchFilter.toCacheKey(false, "brīvības"), ZABRIVIBAS));
+	}
+
+	@Test
+	void testCanNarrow_OnlyWithinOneBackend() {
+		assertTrue(filter.canNarrow("index:brīv", "index:brīvības"));
+		assertFalse(filter.canNarrow("database:brīv", "index:brīvības"));
+		cache.put(AddressRegisterSearchFilter.toCacheKey(false, "brīv"), List.of(ZABRIVIBAS));
+
+		assertNull(cache.get(AddressRegisterSearchFilter.toCacheKey(true, "brīvības")));
+	}
+
+	@Test
+	void testCanNarrow_NotFromQueryWithoutWords() {
+		assertFalse(filter.canNarrow("index:, ", "index:, rīga"));
+		assertFalse(filter.canNarrow("database:, ", "database:, rīga"));
+	}
+
+	private static AddressRegister address(int code, String fullAddress) {
+		AddressRegister address = new AddressRegister();
+		address.setCode(code);
+		address.setFullAddress(fullAddress);
+		return address;
+	}
+}
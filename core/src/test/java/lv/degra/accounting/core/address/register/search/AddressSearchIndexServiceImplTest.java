@@ -0,0 +1,85 @@
+package lv.degra.accounting.core.address.register.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+import lv.degra.accounting.core.system.configuration.DegraConfig;
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+
+class AddressSearchIndexServiceImplTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private ConfigService configService;
+	private SimpleMeterRegistry meterRegistry;
+	private AddressSearchIndexServiceImpl indexService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		configService = mock(ConfigService.class);
+		meterRegistry = new SimpleMeterRegistry();
+		indexService = new AddressSearchIndexServiceImpl(jdbcTemplate, configService, meterRegistry);
+	}
+
+	@Test
+	void testSearch_EmptyBeforeRebuild() {
+		assertTrue(indexService.search("Rīga", 20).isEmpty());
+	}
+
+	@Test
+	void testReload_SkipsInstanceWithoutIndex() {
+		when(configService.getBoolean(DegraConfig.ADDRESS_SEARCH_INDEX_ENABLED)).thenReturn(true);
+
+		indexService.reload();
+
+		verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+		assertTrue(indexService.search("Rīga", 20).isEmpty());
+	}
+
+	@Test
+	void testRebuild_LoadsAddressesAndReportsFootprint() throws Exception {
+		when(configService.getBoolean(DegraConfig.ADDRESS_SEARCH_INDEX_ENABLED)).thenReturn(true);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getInt("code")).thenReturn(101);
+		when(resultSet.getString("full_address")).thenReturn("Brīvības iela 1, Rīga, LV-1010");
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(resultSet);
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+		indexService.rebuild();
+
+		List<AddressRegister> result = indexService.search("brivibas", 20).orElseThrow();
+		assertEquals(101, result.get(0).getCode());
+		assertEquals(1, meterRegistry.get(AddressSearchIndexServiceImpl.METRIC_INDEX_SIZE).gauge().value());
+		assertTrue(meterRegistry.get(AddressSearchIndexServiceImpl.METRIC_INDEX_MEMORY).gauge().value() > 0);
+	}
+
+	@Test
+	void testRebuild_DisabledSkipsLoading() {
+		when(configService.getBoolean(DegraConfig.ADDRESS_SEARCH_INDEX_ENABLED)).thenReturn(false);
+
+		indexService.rebuild();
+
+		assertTrue(indexService.search("Rīga", 20).isEmpty());
+		verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+	}
+}
@@ -0,0 +1,80 @@
+package lv.degra.accounting.core.address.register.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import lv.degra.accounting.core.address.register.model.AddressRegister;
+
+class AddressSearchIndexTest {
+
+	private AddressSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = AddressSearchIndex.builder()
+				.add(101, "Brīvības iela 10, Rīga, LV-1010")
+				.add(102, "Brīvības iela 1, Rīga, LV-1010")
+				.add(103, "Brīvības iela 1, Ogre, Ogres nov., LV-5001")
+				.add(104, "Skolas iela 2, Rīga, LV-1010")
+				.add(105, null)
+				.build();
+	}
+
+	@Test
+	void testSearch_IntersectsWordsAndRanksShortestFirst() {
+		List<AddressRegister> result = index.search("rīga brīv", 20);
+
+		assertEquals(List.of(102, 101), result.stream().map(AddressRegister::getCode).toList());
+		assertEquals("Brīvības iela 1, Rīga, LV-1010", result.get(0).getFullAddress());
+		assertNull(result.get(0).getStatus());
+	}
+
+	@Test
+	void testSearch_FoldsDiacriticsAndMatchesTokenPrefixes() {
+		List<AddressRegister> result = index.search("BRIVIBAS, og", 20);
+
+		assertEquals(List.of(103), result.stream().map(AddressRegister::getCode).toList());
+	}
+
+	@Test
+	void testSearch_AppliesLimit() {
+		List<AddressRegister> result = index.search("iela", 2);
+
+		assertEquals(List.of(104, 102), result.stream().map(AddressRegister::getCode).toList());
+	}
+
+	@Test
+	void testSearch_KeepsBestRankedAcrossManyMatchesAndBreaksTiesByCode() {
+		AddressSearchIndex.Builder builder = AddressSearchIndex.builder();
+		for (int code = 1; code <= 60; code++) {
+			int house = (code * 37) % 60 + 1;
+			builder.add(1000 - code, "Lauku iela " + house + ", Rīga");
+		}
+		AddressSearchIndex largeIndex = builder.build();
+
+		List<AddressRegister> result = largeIndex.search("lauku", 12);
+
+		assertEquals(List.of(940, 948, 956, 961, 969, 974, 982, 987, 995, 941, 942, 943),
+				result.stream().map(AddressRegister::getCode).toList());
+		assertTrue(largeIndex.search("lauku", 0).isEmpty());
+	}
+
+	@Test
+	void testSearch_NoMatches() {
+		assertTrue(index.search("Liepāja", 20).isEmpty());
+		assertTrue(index.search(" ", 20).isEmpty());
+	}
+
+	@Test
+	void testSizeAndMemoryFootprint() {
+		assertEquals(4, index.size());
+		assertTrue(index.getTermCount() > 0);
+		assertTrue(index.getMemoryFootprint() > 0);
+	}
+}
@@ -1,41 +1,70 @@
 package lv.degra.accounting.core.address.register.service;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
-import java.io.IOException;
-import java.nio.file.Files;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.LongConsumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.jdbc.core.JdbcTemplate;
+import org.mockito.Spy;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
+import lv.degra.accounting.core.address.register.enums.ArImportMode;
+import lv.degra.accounting.core.address.register.enums.ArRecordStatus;
 import lv.degra.accounting.core.address.register.enums.ArZipContentFiles;
 import lv.degra.accounting.core.address.register.exception.ReadArCsvFileContentException;
 import lv.degra.accounting.core.address.register.model.AddressRegister;
 import lv.degra.accounting.core.address.register.model.AddressRegisterRepository;
+import lv.degra.accounting.core.address.register.search.AddressSearchIndexService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadService;
+import lv.degra.accounting.core.system.bulkload.StagingTableService;
 import lv.degra.accounting.core.system.configuration.DegraConfig;
 import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.files.DownloadedFile;
 import lv.degra.accounting.core.system.files.FileService;
+import lv.degra.accounting.core.system.files.FileServiceImpl;
+import lv.degra.accounting.core.system.files.RemoteFileState;
+import lv.degra.accounting.core.system.files.RemoteFileStateService;
+import lv.degra.accounting.core.system.files.ZipFileFactory;
+import lv.degra.accounting.core.system.files.exception.ExtractZipFileException;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.service.ImportGenerationService;
+import lv.degra.accounting.core.system.importjob.service.ImportJobContext;
 
 class AddressRegisterServiceImplTest {
 
-	private static final String TEST_ZIP_FILE_PATH = "src/test/resources/aw_csv.zip";
+	private static final Path TEST_ZIP_FILE = Path.of("src/test/resources/aw_csv.zip");
 	private static final String DOWNLOAD_FILE_URL = "http://example.com/address-data.zip";
+	private static final FileServiceImpl ARCHIVE_READER = new FileServiceImpl(new ZipFileFactory(), null);
+	private static final RemoteFileState PREVIOUS_STATE = new RemoteFileState("\"v1\"", "Mon, 06 Oct 2025 08:00:00 GMT", "oldChecksum");
+	private final ImportJobContext context = ImportJobContext.detached(ImportJobType.ADDRESS_REGISTER);
 
 	@InjectMocks
 	private AddressRegisterServiceImpl service;
@@ -47,13 +76,31 @@ class AddressRegisterServiceImplTest {
 	private FileService fileService;
 
 	@Mock
-	private JdbcTemplate jdbcTemplate;
+	private ConfigService configService;
 
 	@Mock
-	private ObjectMapper objectMapper;
+	private BulkLoadService bulkLoadService;
 
 	@Mock
-	private ConfigService configService;
+	private StagingTableService stagingTableService;
+
+	@Mock
+	private AddressRegisterSyncService addressRegisterSyncService;
+
+	@Mock
+	private AddressSearchIndexService addressSearchIndexService;
+
+	@Mock
+	private RemoteFileStateService remoteFileStateService;
+
+	@Mock
+	private ImportGenerationService importGenerationService;
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@TempDir
+	Path tempDir;
 
 	@BeforeEach
 	void setUp() {
@@ -61,30 +108,104 @@ class AddressRegisterServiceImplTest {
 	}
 
 	@Test
-	void testDownloadCsvFile_Success() throws IOException {
-		byte[] expectedFileBytes = Files.readAllBytes(Path.of(TEST_ZIP_FILE_PATH));
+	void testDownloadCsvFile_SendsPreviousValidators() {
+		Path targetFile = tempDir.resolve("address_register.zip");
+		DownloadedFile expectedFile = new DownloadedFile(targetFile, "checksum", 10);
+		when(fileService.getDownloadDirectoryPath()).thenReturn(tempDir);
+		when(fileService.downloadFileIfModified(DOWNLOAD_FILE_URL, targetFile, PREVIOUS_STATE)).thenReturn(Optional.of(expectedFile));
 
+		Optional<DownloadedFile> result = service.downloadCsvFile(DOWNLOAD_FILE_URL, PREVIOUS_STATE);
 
-		when(configService.get(DegraConfig.ADDRESS_DOWNLOAD_LINK)).thenReturn(DOWNLOAD_FILE_URL);
-		when(fileService.downloadFileByUrl(DOWNLOAD_FILE_URL)).thenReturn(expectedFileBytes);
+		assertEquals(Optional.of(expectedFile), result);
+	}
 
-		byte[] result = service.downloadCsvFile();
+	@Test
+	void testImportData_NotModifiedSkipsImport() {
+		givenPreviousState();
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), eq(PREVIOUS_STATE))).thenReturn(Optional.empty());
 
-		assertNotNull(result);
-		assertArrayEquals(expectedFileBytes, result);
-		verify(fileService).downloadFileByUrl(DOWNLOAD_FILE_URL);
+		service.run(context);
+
+		verify(fileService, never()).readZipEntry(any(Path.class), anyString(), any());
+		verify(addressSearchIndexService, never()).rebuild();
+		verify(importGenerationService, never()).publish(any());
+		verify(remoteFileStateService, never()).saveState(anyString(), anyString(), any());
 	}
 
 	@Test
-	void testDownloadCsvFile_NoData() {
+	void testImportData_EmptyDownloadSkipsImport() {
+		givenPreviousState();
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any()))
+				.thenReturn(Optional.of(new DownloadedFile(tempDir.resolve("address_register.zip"), "checksum", 0)));
+
+		service.run(context);
+
+		verify(fileService, never()).readZipEntry(any(Path.class), anyString(), any());
+		verify(addressSearchIndexService, never()).rebuild();
+		verify(remoteFileStateService, never()).saveState(anyString(), anyString(), any());
+	}
 
+	@Test
+	void testImportData_SameContentOnlyRefreshesValidators() {
+		givenPreviousState();
+		Path targetFile = tempDir.resolve("address_register.zip");
+		DownloadedFile zipFile = new DownloadedFile(targetFile, PREVIOUS_STATE.getChecksum(), 10, "\"v2\"", null);
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.of(zipFile));
+
+		service.run(context);
+
+		verify(fileService, never()).readZipEntry(any(Path.class), anyString(), any());
+		verify(remoteFileStateService).saveState(DegraConfig.ADDRESS_DOWNLOAD_LINK, DOWNLOAD_FILE_URL, zipFile);
+		verify(fileService).cleanUpFile(targetFile);
+	}
+
+	@Test
+	void testImportData_ImportFailureKeepsPreviousValidators() {
+		givenPreviousState();
+		Path targetFile = tempDir.resolve("address_register.zip");
+		when(fileService.readZipEntry(any(Path.class), anyString(), any())).thenThrow(new ExtractZipFileException("Not a ZIP file"));
+		when(stagingTableService.create(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE)).thenReturn("address_register_staging");
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any()))
+				.thenReturn(Optional.of(new DownloadedFile(targetFile, "newChecksum", 10)));
+
+		assertThrows(RuntimeException.class, () -> service.run(context));
+
+		verify(remoteFileStateService, never()).saveState(anyString(), anyString(), any());
+		verify(fileService).cleanUpFile(targetFile);
+	}
+
+	private void givenZipEntriesReadFromArchive() {
+		when(fileService.readZipEntry(any(Path.class), anyString(), any())).thenAnswer(invocation -> ARCHIVE_READER.readZipEntry(
+				invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+	}
+
+	private static List<String> readArchiveLines(ArZipContentFiles fileInfo) {
+		return ARCHIVE_READER.readZipEntry(TEST_ZIP_FILE, fileInfo.getFileName(),
+				entry -> new BufferedReader(new InputStreamReader(entry, StandardCharsets.UTF_8)).lines().toList());
+	}
+
+	private void givenPreviousState() {
 		when(configService.get(DegraConfig.ADDRESS_DOWNLOAD_LINK)).thenReturn(DOWNLOAD_FILE_URL);
-		when(fileService.downloadFileByUrl(DOWNLOAD_FILE_URL)).thenReturn(null);
+		when(fileService.getDownloadDirectoryPath()).thenReturn(tempDir);
+		when(remoteFileStateService.getState(DegraConfig.ADDRESS_DOWNLOAD_LINK, DOWNLOAD_FILE_URL)).thenReturn(PREVIOUS_STATE);
+	}
+
+	@Test
+	void testGetByMultipleWords_AnswersFromSearchIndex() {
+		List<AddressRegister> indexed = List.of(new AddressRegister());
+		when(addressSearchIndexService.search("Rīga", 20)).thenReturn(Optional.of(indexed));
+
+		assertEquals(indexed, service.getByMultipleWords("Rīga"));
+		verify(repository, never()).searchByMultipleWords(anyString());
+	}
 
-		byte[] result = service.downloadCsvFile();
+	@Test
+	void testGetByMultipleWords_FallsBackToRepositoryWithoutIndex() {
+		List<AddressRegister> found = List.of(new AddressRegister());
+		when(addressSearchIndexService.search("Rīga", 20)).thenReturn(Optional.empty());
+		when(repository.searchByMultipleWords("Rīga")).thenReturn(found);
 
-		assertNull(result);
-		verify(fileService).downloadFileByUrl(DOWNLOAD_FILE_URL);
+		assertEquals(found, service.getByMultipleWords("Rīga"));
 	}
 
 	@Test
@@ -93,21 +214,145 @@ class AddressRegisterServiceImplTest {
 		when(fileInfo.getFileName()).thenReturn("invalid.csv");
 		when(fileInfo.getClasName()).thenAnswer(invocation -> AddressRegister.class);
 
-		byte[] mockFileContent = "invalid_data".getBytes();
-		when(fileService.loadFileLocally(anyString())).thenReturn(mockFileContent);
+		givenZipEntriesReadFromArchive();
+
+		assertThrows(ReadArCsvFileContentException.class, () -> service.processFile(TEST_ZIP_FILE, fileInfo, "address_register_staging", ArImportMode.FULL, context));
+	}
+
+	@Test
+	void testProcessFile_StreamsRowsSkippingErrorStatus() {
+		givenZipEntriesReadFromArchive();
+		List<AddressRegister> loadedRows = new ArrayList<>();
+		when(bulkLoadService.load(eq(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.withTableName("address_register_staging")),
+				any(), any())).thenAnswer(invocation -> {
+			Iterator<AddressRegister> rows = invocation.getArgument(1);
+			rows.forEachRemaining(loadedRows::add);
+			return (long) loadedRows.size();
+		});
+
+		service.processFile(TEST_ZIP_FILE, ArZipContentFiles.ADDRESS_ZIP_FILE_CONTENT_BUILDINGS, "address_register_staging", ArImportMode.FULL, context);
+
+		long expectedRows = readArchiveLines(ArZipContentFiles.ADDRESS_ZIP_FILE_CONTENT_BUILDINGS)
+				.stream().skip(1).filter(line -> !line.contains("#ERR#")).count();
+		assertEquals(expectedRows, loadedRows.size());
+		AddressRegister first = loadedRows.get(0);
+		assertEquals(101000034, first.getCode());
+		assertEquals(100015122, first.getParentCode());
+		assertEquals("LV-4211", first.getZip());
+		assertEquals(LocalDate.of(2021, 6, 30), first.getUpdateDatePublic());
+	}
+
+	@Test
+	void testProcessFile_ResumesAfterCommittedRows() {
+		givenZipEntriesReadFromArchive();
+		ArZipContentFiles fileInfo = ArZipContentFiles.ADDRESS_ZIP_FILE_CONTENT_BUILDINGS;
+		ImportJob job = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		job.setId(1L);
+		job.setCheckpoint("rows:" + fileInfo.getFileName() + "=2");
+		ImportJobContext resumed = new ImportJobContext(job, true, saved -> {
+		});
+		List<AddressRegister> loadedRows = new ArrayList<>();
+		when(bulkLoadService.load(eq(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.withTableName("address_register_staging")),
+				any(), any())).thenAnswer(invocation -> {
+			Iterator<AddressRegister> rows = invocation.getArgument(1);
+			rows.forEachRemaining(loadedRows::add);
+			invocation.<LongConsumer>getArgument(2).accept(loadedRows.size());
+			return (long) loadedRows.size();
+		});
+
+		service.processFile(TEST_ZIP_FILE, fileInfo, "address_register_staging", ArImportMode.FULL, resumed);
+
+		long expectedRows = readArchiveLines(fileInfo).stream().skip(1).filter(line -> !line.contains("#ERR#")).count();
+		assertEquals(expectedRows - 2, loadedRows.size());
+		assertEquals(Optional.of(String.valueOf(expectedRows)), resumed.getCheckpoint("rows:" + fileInfo.getFileName()));
+	}
+
+	@Test
+	void testProcessAndImportData_LoadsStagingTableAndSwaps() {
+		givenZipEntriesReadFromArchive();
+		when(stagingTableService.create(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE)).thenReturn("address_register_staging");
+
+		service.processAndImportData(TEST_ZIP_FILE, context);
+
+		verify(bulkLoadService, times(ArZipContentFiles.values().length)).load(
+				eq(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.withTableName("address_register_staging")), any(), any());
+		verify(stagingTableService).buildIndexes(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE);
+		verify(stagingTableService).swap(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE);
+		verify(stagingTableService, never()).drop(any());
+		for (ArZipContentFiles fileInfo : ArZipContentFiles.values()) {
+			assertEquals(1, meterRegistry.get(AddressRegisterServiceImpl.METRIC_FILE_IMPORT_TIME)
+					.tag("file", fileInfo.getFileName()).timer().count());
+			assertNotNull(meterRegistry.get(AddressRegisterServiceImpl.METRIC_FILE_IMPORT_ROWS)
+					.tag("file", fileInfo.getFileName()).counter());
+		}
+	}
+
+	@Test
+	void testProcessFile_DeltaModeKeepsErrorStatusRows() {
+		givenZipEntriesReadFromArchive();
+		List<AddressRegister> loadedRows = new ArrayList<>();
+		when(bulkLoadService.load(eq(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.withTableName("address_register_delta")),
+				any(), any())).thenAnswer(invocation -> {
+			Iterator<AddressRegister> rows = invocation.getArgument(1);
+			rows.forEachRemaining(loadedRows::add);
+			return (long) loadedRows.size();
+		});
+
+		service.processFile(TEST_ZIP_FILE, ArZipContentFiles.ADDRESS_ZIP_FILE_CONTENT_BUILDINGS, "address_register_delta", ArImportMode.DELTA, context);
+
+		long expectedRows = readArchiveLines(ArZipContentFiles.ADDRESS_ZIP_FILE_CONTENT_BUILDINGS)
+				.stream().skip(1).count();
+		assertEquals(expectedRows, loadedRows.size());
+	}
+
+	@Test
+	void testProcessAndImportData_DeltaModeAppliesDelta() {
+		givenZipEntriesReadFromArchive();
+		when(configService.get(DegraConfig.ADDRESS_IMPORT_MODE)).thenReturn("DELTA");
+		when(addressRegisterSyncService.createDeltaTable()).thenReturn("address_register_delta");
+
+		service.processAndImportData(TEST_ZIP_FILE, context);
+
+		verify(bulkLoadService, times(ArZipContentFiles.values().length)).load(
+				eq(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.withTableName("address_register_delta")), any(), any());
+		verify(addressRegisterSyncService).applyDelta();
+		verify(addressRegisterSyncService).dropDeltaTable();
+		verify(stagingTableService, never()).create(any());
+	}
+
+	@Test
+	void testProcessAndImportData_DeltaModeDropsDeltaTableWhenLoadFails() {
+		when(fileService.readZipEntry(any(Path.class), anyString(), any())).thenThrow(new ExtractZipFileException("Not a ZIP file"));
+		when(configService.get(DegraConfig.ADDRESS_IMPORT_MODE)).thenReturn("DELTA");
+		when(addressRegisterSyncService.createDeltaTable()).thenReturn("address_register_delta");
+
+		assertThrows(ExtractZipFileException.class, () -> service.processAndImportData(tempDir.resolve("address_register.zip"), context));
+
+		verify(addressRegisterSyncService, never()).applyDelta();
+		verify(addressRegisterSyncService).dropDeltaTable();
+	}
+
+	@Test
+	void testProcessAndImportData_DropsStagingTableWhenLoadFails() {
+		when(fileService.readZipEntry(any(Path.class), anyString(), any())).thenThrow(new ExtractZipFileException("Not a ZIP file"));
+		when(stagingTableService.create(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE)).thenReturn("address_register_staging");
+
+		assertThrows(ExtractZipFileException.class, () -> service.processAndImportData(tempDir.resolve("address_register.zip"), context));
 
-		assertThrows(ReadArCsvFileContentException.class, () -> service.processFile(fileInfo));
+		verify(stagingTableService).drop(AddressRegisterServiceImpl.ADDRESS_REGISTER_STAGING_TABLE);
+		verify(stagingTableService, never()).swap(any());
 	}
 
 	@Test
-	void testIsArDataChanged() {
-		byte[] oldChecksum = "oldChecksum".getBytes();
-		service.setPreviousArResponseChecksum(oldChecksum);
+	void testToRowValues() {
+		AddressRegister address = new AddressRegister(100003366, "Ainaži", 104, "EKS", LocalDate.of(1999, 3, 16), 100016606);
 
-		byte[] newFileBytes = "newFileContent".getBytes();
-		boolean result = service.isArDataChanged(newFileBytes);
+		Object[] values = AddressRegisterServiceImpl.toRowValues(address);
 
-		assertTrue(result);
-		assertNotEquals(oldChecksum, service.getPreviousArResponseChecksum());
+		assertEquals(AddressRegisterServiceImpl.ADDRESS_REGISTER_TABLE.getColumns().size(), values.length);
+		assertEquals(100003366, values[0]);
+		assertEquals(ArRecordStatus.EXIST.getStatusOnSystem(), values[2]);
+		assertEquals(0, values[4]);
+		assertNull(values[10]);
 	}
 }
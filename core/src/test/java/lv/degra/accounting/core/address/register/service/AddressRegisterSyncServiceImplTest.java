@@ -0,0 +1,77 @@
+package lv.degra.accounting.core.address.register.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import lv.degra.accounting.core.address.register.enums.ArRecordStatus;
+
+class AddressRegisterSyncServiceImplTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private AddressRegisterSyncServiceImpl syncService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		syncService = new AddressRegisterSyncServiceImpl(jdbcTemplate);
+	}
+
+	@Test
+	void testCreateDeltaTable_RecreatesUnloggedTable() {
+		String deltaTableName = syncService.createDeltaTable();
+
+		assertEquals(AddressRegisterSyncServiceImpl.DELTA_TABLE_NAME, deltaTableName);
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS address_register_delta");
+		inOrder.verify(jdbcTemplate).execute(startsWith("CREATE UNLOGGED TABLE address_register_delta AS SELECT code,"));
+	}
+
+	@Test
+	void testApplyDelta_UpsertsChangedDeletesErrorsAndRetiresExpired() {
+		int errorStatus = ArRecordStatus.STATUS_ERROR.getStatusOnSystem();
+		int deletedStatus = ArRecordStatus.DELETED.getStatusOnSystem();
+		when(jdbcTemplate.update(startsWith("INSERT INTO address_register"), eq(errorStatus))).thenReturn(5);
+		when(jdbcTemplate.update(startsWith("DELETE FROM address_register"), eq(errorStatus))).thenReturn(2);
+		when(jdbcTemplate.update(startsWith("UPDATE address_register"), eq(deletedStatus), eq(deletedStatus))).thenReturn(1);
+
+		AddressRegisterSyncResult result = syncService.applyDelta();
+
+		assertEquals(new AddressRegisterSyncResult(5, 2, 1), result);
+		verify(jdbcTemplate).execute("ANALYZE address_register_delta");
+	}
+
+	@Test
+	void testApplyDelta_KeepsOnlyLatestRowPerCodeBeforeUpsertAndDelete() {
+		int errorStatus = ArRecordStatus.STATUS_ERROR.getStatusOnSystem();
+
+		syncService.applyDelta();
+
+		ArgumentCaptor<String> discardSql = ArgumentCaptor.forClass(String.class);
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).update(discardSql.capture());
+		inOrder.verify(jdbcTemplate).execute("ANALYZE address_register_delta");
+		inOrder.verify(jdbcTemplate).update(startsWith("INSERT INTO address_register"), eq(errorStatus));
+		inOrder.verify(jdbcTemplate).update(startsWith("DELETE FROM address_register a"), eq(errorStatus));
+		assertTrue(discardSql.getValue().startsWith("DELETE FROM address_register_delta d"));
+		assertTrue(discardSql.getValue().contains("SELECT DISTINCT ON (code) code, ctid AS latest"));
+	}
+
+	@Test
+	void testDropDeltaTable() {
+		syncService.dropDeltaTable();
+
+		verify(jdbcTemplate).execute("DROP TABLE IF EXISTS address_register_delta");
+	}
+}
@@ -0,0 +1,138 @@
+package lv.degra.accounting.core.company.register.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+
+class CustomCompanyRegisterSearchRepositoryImplTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private Connection connection;
+	private PreparedStatement statement;
+	private CustomCompanyRegisterSearchRepositoryImpl repository;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		connection = mock(Connection.class);
+		statement = mock(PreparedStatement.class);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		repository = new CustomCompanyRegisterSearchRepositoryImpl(jdbcTemplate);
+	}
+
+	@Test
+	void testStreamSuggestions_FirstPageOrdersBySimilarity() throws Exception {
+		repository.streamSuggestions("krastnieki", null, 100, company -> {
+		});
+
+		String sql = prepareCapturedStatement();
+		assertTrue(sql.contains("c.name_tsv @@ plainto_tsquery('simple', ?)"));
+		assertTrue(sql.endsWith("ORDER BY similarity(c.search_name, lower(?)) DESC, c.name, c.id LIMIT ?"));
+		assertFalse(sql.contains(") > ("));
+		verify(statement).setFetchSize(500);
+		verify(statement).setObject(5, 100);
+	}
+
+	@Test
+	void testStreamSuggestions_NextPageSeeksPastCursor() throws Exception {
+		CompanyRegisterDto after = new CompanyRegisterDto(42L, null, null, "KRASTNIEKI, IK", null, null);
+
+		repository.streamSuggestions("krastnieki", after, 100, company -> {
+		});
+
+		String sql = prepareCapturedStatement();
+		assertTrue(sql.contains("(-similarity(c.search_name, lower(?)), c.name, c.id) > (-similarity(lower(?), lower(?)), ?, ?)"));
+		verify(statement).setObject(5, "KRASTNIEKI, IK");
+		verify(statement).setObject(8, 42L);
+		verify(statement).setObject(10, 100);
+	}
+
+	@Test
+	void testStreamSuggestions_EmptyQueryPagesWholeRegisterByName() throws Exception {
+		CompanyRegisterDto after = new CompanyRegisterDto(42L, null, null, "A, SIA", null, null);
+
+		repository.streamSuggestions("", after, 10, company -> {
+		});
+
+		String sql = prepareCapturedStatement();
+		assertFalse(sql.contains("plainto_tsquery"));
+		assertTrue(sql.contains("AND (c.name, c.id) > (?, ?)"));
+		assertTrue(sql.endsWith("ORDER BY c.name, c.id LIMIT ?"));
+		verify(statement).setObject(1, "A, SIA");
+		verify(statement).setObject(3, 10);
+	}
+
+	@Test
+	void testStreamSuggestions_MapsRowsToDtos() throws Exception {
+		ResultSet resultSet = mock(ResultSet.class);
+		when(resultSet.getLong("id")).thenReturn(7L);
+		when(resultSet.getString("register_number")).thenReturn("40003000000");
+		when(resultSet.getString("name")).thenReturn("UZŅĒMUMS, SIA");
+		when(resultSet.getObject("registered_date", LocalDate.class)).thenReturn(LocalDate.parse("2020-01-01"));
+		doAnswer(invocation -> {
+			RowCallbackHandler handler = invocation.getArgument(1);
+			handler.processRow(resultSet);
+			return null;
+		}).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+		List<CompanyRegisterDto> companies = new ArrayList<>();
+
+		repository.streamSuggestions("uzņēmums", null, 10, companies::add);
+
+		assertEquals(1, companies.size());
+		assertEquals(7L, companies.get(0).getId());
+		assertEquals("40003000000", companies.get(0).getRegisterNumber());
+		assertEquals(LocalDate.parse("2020-01-01"), companies.get(0).getRegisteredDate());
+	}
+
+	@Test
+	void testFindByRegisterNumbers_BindsNumbersAsOneArray() throws Exception {
+		Array array = mock(Array.class);
+		when(connection.createArrayOf(eq("text"), any(Object[].class))).thenReturn(array);
+
+		repository.findByRegisterNumbers(List.of("40003000001", "40003000002"));
+
+		ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+		verify(jdbcTemplate).query(creator.capture(), ArgumentMatchers.<RowMapper<CompanyRegisterDto>>any());
+		creator.getValue().createPreparedStatement(connection);
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(connection).prepareStatement(sql.capture());
+		assertTrue(sql.getValue().contains("c.register_number = ANY(?)"));
+		verify(connection).createArrayOf("text", new Object[] { "40003000001", "40003000002" });
+		verify(statement).setArray(1, array);
+	}
+
+	private String prepareCapturedStatement() throws Exception {
+		ArgumentCaptor<PreparedStatementCreator> creator = ArgumentCaptor.forClass(PreparedStatementCreator.class);
+		verify(jdbcTemplate).query(creator.capture(), any(RowCallbackHandler.class));
+		creator.getValue().createPreparedStatement(connection);
+		ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+		verify(connection).prepareStatement(sql.capture());
+		return sql.getValue().trim();
+	}
+}
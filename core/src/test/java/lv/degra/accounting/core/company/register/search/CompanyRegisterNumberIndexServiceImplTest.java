@@ -0,0 +1,86 @@
+package lv.degra.accounting.core.company.register.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CompanyRegisterNumberIndexServiceImplTest {
+
+	private JdbcTemplate jdbcTemplate;
+	private Connection connection;
+	private SimpleMeterRegistry meterRegistry;
+	private CompanyRegisterNumberIndexServiceImpl indexService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		ResultSet resultSet = mock(ResultSet.class);
+		when(connection.getAutoCommit()).thenReturn(true);
+		when(connection.prepareStatement(anyString())).thenReturn(statement);
+		when(statement.executeQuery()).thenReturn(resultSet);
+		when(resultSet.next()).thenReturn(true, true, false, true, true, false);
+		when(resultSet.getString(1)).thenReturn("40003000000", "41202013815", "40003000000", "41202013815");
+		doAnswer(invocation -> {
+			ConnectionCallback<?> callback = invocation.getArgument(0);
+			return callback.doInConnection(connection);
+		}).when(jdbcTemplate).execute(any(ConnectionCallback.class));
+		meterRegistry = new SimpleMeterRegistry();
+		indexService = new CompanyRegisterNumberIndexServiceImpl(jdbcTemplate, meterRegistry);
+	}
+
+	@Test
+	void testContains_EmptyBeforeRebuild() {
+		assertTrue(indexService.contains("40003000000").isEmpty());
+	}
+
+	@Test
+	void testRebuild_LoadsNumbersWithoutAutoCommit() throws Exception {
+		indexService.rebuild();
+
+		assertEquals(Optional.of(true), indexService.contains("40003000000"));
+		assertEquals(Optional.of(false), indexService.contains("40003000001"));
+		assertTrue(indexService.contains("LV40003000000").isEmpty());
+		assertEquals(2, meterRegistry.get(CompanyRegisterNumberIndexServiceImpl.METRIC_INDEX_SIZE).gauge().value());
+		verify(connection).setAutoCommit(false);
+		verify(connection).setAutoCommit(true);
+	}
+
+	@Test
+	void testReload_SkippedWhenIndexNotBuilt() {
+		indexService.reload();
+
+		verify(jdbcTemplate, never()).execute(any(ConnectionCallback.class));
+		assertTrue(indexService.contains("40003000000").isEmpty());
+	}
+
+	@Test
+	void testReload_RebuildsBuiltIndex() {
+		indexService.rebuild();
+
+		indexService.reload();
+
+		verify(jdbcTemplate, times(2)).execute(any(ConnectionCallback.class));
+		assertEquals(Optional.of(true), indexService.contains("41202013815"));
+	}
+}
@@ -0,0 +1,52 @@
+package lv.degra.accounting.core.company.register.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class CompanyRegisterNumberIndexTest {
+
+	@Test
+	void testContains_FindsAddedNumbers() {
+		CompanyRegisterNumberIndex index = CompanyRegisterNumberIndex.builder()
+				.add("40003000000")
+				.add("41202013815")
+				.add("90000012345")
+				.add("40003000000")
+				.build();
+
+		assertTrue(index.contains("40003000000"));
+		assertTrue(index.contains("41202013815"));
+		assertTrue(index.contains("90000012345"));
+		assertFalse(index.contains("40003000001"));
+		assertEquals(3, index.size());
+		assertEquals(3L * Long.BYTES, index.getMemoryFootprint());
+	}
+
+	@Test
+	void testContains_LeadingZerosAreSignificant() {
+		CompanyRegisterNumberIndex index = CompanyRegisterNumberIndex.builder().add("0123456").build();
+
+		assertTrue(index.contains("0123456"));
+		assertFalse(index.contains("123456"));
+	}
+
+	@Test
+	void testBuilder_SkipsNumbersThatAreNotDigits() {
+		CompanyRegisterNumberIndex.Builder builder = CompanyRegisterNumberIndex.builder().add("LV40003000000").add(null).add("1");
+
+		CompanyRegisterNumberIndex index = builder.build();
+
+		assertEquals(1, index.size());
+		assertEquals(2, builder.getSkipped());
+		assertFalse(CompanyRegisterNumberIndex.isIndexable("LV40003000000"));
+		assertFalse(CompanyRegisterNumberIndex.isIndexable("1234567890123456789"));
+	}
+
+	@Test
+	void testContains_EmptyIndex() {
+		assertFalse(CompanyRegisterNumberIndex.builder().build().contains("40003000000"));
+	}
+}
@@ -1,8 +1,11 @@
 package lv.degra.accounting.core.company.register.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -10,135 +13,220 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.LongConsumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.jdbc.core.BatchPreparedStatementSetter;
-import org.springframework.jdbc.core.JdbcTemplate;
 
 import lv.degra.accounting.core.company.register.model.CompanyRegister;
 import lv.degra.accounting.core.company.register.model.CompanyRegisterRepository;
+import lv.degra.accounting.core.company.register.search.CompanyRegisterNumberIndexService;
 import lv.degra.accounting.core.company.type.model.CompanyType;
-import lv.degra.accounting.core.company.type.model.CompanyTypeRepository;
+import lv.degra.accounting.core.company.type.model.CompanyTypeLookup;
+import lv.degra.accounting.core.company.type.service.CompanyTypeService;
+import lv.degra.accounting.core.system.bulkload.BulkLoadService;
+import lv.degra.accounting.core.system.bulkload.StagingTableService;
 import lv.degra.accounting.core.system.configuration.DegraConfig;
 import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.files.DownloadedFile;
 import lv.degra.accounting.core.system.files.FileService;
+import lv.degra.accounting.core.system.files.RemoteFileState;
+import lv.degra.accounting.core.system.files.RemoteFileStateService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.service.ImportGenerationService;
+import lv.degra.accounting.core.system.importjob.service.ImportJobContext;
 
 class CompanyRegisterImportServiceImplTest {
 
+	private static final String CSV_HEADER = "regcode;sepa;name;name_before_quotes;name_in_quotes;name_after_quotes;without_quotes;"
+			+ "regtype;regtype_text;type;type_text;registered;terminated\n";
+	private final ImportJobContext context = ImportJobContext.detached(ImportJobType.COMPANY_REGISTER);
+
 	@Mock
 	private FileService fileService;
+	@Spy
+	private CsvParser csvParser = new CsvParserImpl();
 	@Mock
-	private CsvParser csvParser;
-	@Mock
-	private CompanyTypeRepository companyTypeRepository;
+	private CompanyTypeService companyTypeService;
 	@Mock
 	private CompanyRegisterRepository companyRegisterRepository;
 	@Mock
 	private ConfigService configService;
 	@Mock
-	private JdbcTemplate jdbcTemplate;
+	private BulkLoadService bulkLoadService;
+	@Mock
+	private StagingTableService stagingTableService;
+	@Mock
+	private RemoteFileStateService remoteFileStateService;
+	@Mock
+	private ImportGenerationService importGenerationService;
+	@Mock
+	private CompanyRegisterNumberIndexService companyRegisterNumberIndexService;
 
 	private CompanyRegisterImportServiceImpl companyRegisterService;
 
+	@TempDir
+	Path tempDir;
+
 	@BeforeEach
 	void setUp() {
 		MockitoAnnotations.openMocks(this);
-		companyRegisterService = new CompanyRegisterImportServiceImpl(fileService, csvParser, companyTypeRepository, configService, jdbcTemplate,
-				companyRegisterRepository);
+		companyRegisterService = new CompanyRegisterImportServiceImpl(fileService, csvParser, companyTypeService, configService,
+				companyRegisterRepository, bulkLoadService, stagingTableService, remoteFileStateService,
+				importGenerationService, companyRegisterNumberIndexService);
+		when(fileService.getDownloadDirectoryPath()).thenReturn(tempDir);
+		when(remoteFileStateService.getState(anyString(), any())).thenReturn(RemoteFileState.NONE);
+		when(companyTypeService.saveAll(any())).thenReturn(new CompanyTypeLookup(List.of()));
+	}
+
+	private DownloadedFile writeDownloadedFile(String content) throws IOException {
+		Path csvFile = Files.writeString(tempDir.resolve("company_register.csv"), content);
+		return new DownloadedFile(csvFile, "checksum", Files.size(csvFile));
 	}
 
 	@Test
-	void testImportData() {
+	void testImportData() throws IOException {
 		// Arrange
-		byte[] mockCsvData = "mock,csv,data".getBytes();
+		DownloadedFile csvFile = writeDownloadedFile("mock,csv,data");
 		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://mock-url.com");
-		when(fileService.downloadFileByUrl(anyString())).thenReturn(mockCsvData);
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.of(csvFile));
 
 		// Act
-		companyRegisterService.importData();
+		companyRegisterService.run(context);
 
 		// Assert
-		verify(fileService).downloadFileByUrl("http://mock-url.com");
-		// Add more verifications as needed
+		verify(fileService).downloadFileIfModified("http://mock-url.com", tempDir.resolve("company_register.csv"), RemoteFileState.NONE);
+		verify(remoteFileStateService).saveState(DegraConfig.COMPANY_DOWNLOAD_LINK, "http://mock-url.com", csvFile);
+		verify(fileService).cleanUpFile(csvFile.getPath());
 	}
 
 	@Test
-	void testGetUniqueCompanyTypes() {
-		// Arrange
-		List<String[]> mockLineData = Arrays.asList(
-				new String[] { "41202013815", "LV53ZZZ41202013815", "IK KRASTNIEKI A I", "IK", "KRASTNIEKI A I", "", "0", "K",
-						"Komercreģistrs", "IK", "Individuālais komersants", "1998-02-26", "2014-04-10", "L",
-						"Dundagas nov., Kolkas pag., Kolka, Krastnieki", "3275", "103045133", "100015821", "0", "0885162", "" },
-				new String[] { "41202013816", "LV53ZZZ41202013816", "IK KRASTNIEKI A I", "IK", "KRASTNIEKI A I", "", "0", "K",
-						"Komercreģistrs", "SIA", "Sabiedrība ar ierobežotu atbildību", "1998-02-26", "2014-04-10", "L",
-						"Dundagas nov., Kolkas pag., Kolka, Krastnieki", "3275", "103045133", "100015821", "0", "0885162", "" },
-				new String[] { "41202013815", "LV53ZZZ41202013815", "IK KRASTNIEKI A I", "IK", "KRASTNIEKI A I", "", "0", "K",
-						"Komercreģistrs", "IK", "Individuālais komersants", "1998-02-26", "2014-04-10", "L",
-						"Dundagas nov., Kolkas pag., Kolka, Krastnieki", "3275", "103045133", "100015821", "0", "0885162", "" });
+	void testImportData_NotModified() {
+		RemoteFileState previousState = new RemoteFileState("\"v1\"", null, "checksum");
+		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://mock-url.com");
+		when(remoteFileStateService.getState(DegraConfig.COMPANY_DOWNLOAD_LINK, "http://mock-url.com")).thenReturn(previousState);
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), eq(previousState))).thenReturn(Optional.empty());
 
-		// Act
-		var result = companyRegisterService.getUniqueCompanyTypes(mockLineData);
+		companyRegisterService.run(context);
 
-		// Assert
-		assertEquals(2, result.size());
-		assertTrue(result.stream().anyMatch(entry -> entry.getKey().equals("IK") && entry.getValue().equals("Individuālais komersants")));
+		verify(csvParser, never()).open(any(Reader.class), any(int[].class));
+		verify(stagingTableService, never()).create(any());
+		verify(remoteFileStateService, never()).saveState(anyString(), anyString(), any());
 	}
 
 	@Test
-	void testSaveUniqueCompanyTypes() {
-		// Arrange
-		var uniqueTypes = Set.of(Map.entry("SIA", "Sabiedrība ar ierobežotu atbildību"), Map.entry("AS", "Akciju sabiedrība"));
+	void testImportData_SameContentSkipsParsing() throws IOException {
+		DownloadedFile csvFile = writeDownloadedFile("mock,csv,data");
+		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://mock-url.com");
+		when(remoteFileStateService.getState(DegraConfig.COMPANY_DOWNLOAD_LINK, "http://mock-url.com"))
+				.thenReturn(new RemoteFileState(null, null, csvFile.getChecksum()));
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.of(csvFile));
+
+		companyRegisterService.run(context);
+
+		verify(csvParser, never()).open(any(Reader.class), any(int[].class));
+		verify(remoteFileStateService).saveState(DegraConfig.COMPANY_DOWNLOAD_LINK, "http://mock-url.com", csvFile);
+	}
+
+	@Test
+	void testRun_ResumedJobSavesValidatorsOfLoadedDownload() {
+		ImportJob job = new ImportJob(ImportJobType.COMPANY_REGISTER);
+		job.setId(1L);
+		Path csvPath = tempDir.resolve("company_register.csv");
+		DownloadedFile csvFile = new DownloadedFile(csvPath, "checksum", 1024, "\"v2\"", "Mon, 06 Oct 2025 08:00:00 GMT");
+		ImportJobContext failedRun = new ImportJobContext(job, false, saved -> {
+		});
+		failedRun.checkpointDownload(csvFile);
+		failedRun.checkpoint("loaded", "checksum");
+		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://mock-url.com");
+
+		companyRegisterService.run(new ImportJobContext(job, true, saved -> {
+		}));
 
-		when(companyTypeRepository.getByCode("SIA")).thenReturn(Optional.empty());
-		when(companyTypeRepository.getByCode("AS")).thenReturn(Optional.of(new CompanyType()));
+		verify(fileService, never()).downloadFileIfModified(anyString(), any(Path.class), any());
+		verify(stagingTableService).swap(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+		verify(remoteFileStateService).saveState(DegraConfig.COMPANY_DOWNLOAD_LINK, "http://mock-url.com", csvFile);
+	}
+
+	@Test
+	void testGetUniqueCompanyTypes() {
+		// Arrange
+		String csvData = CSV_HEADER
+				+ "41202013815;LV53ZZZ41202013815;IK KRASTNIEKI A I;IK;KRASTNIEKI A I;;0;K;Komercreģistrs;IK;Individuālais komersants;1998-02-26;2014-04-10\n"
+				+ "41202013816;LV53ZZZ41202013816;IK KRASTNIEKI A I;IK;KRASTNIEKI A I;;0;K;Komercreģistrs;SIA;Sabiedrība ar ierobežotu atbildību;1998-02-26;2014-04-10\n"
+				+ "41202013815;LV53ZZZ41202013815;IK KRASTNIEKI A I;IK;KRASTNIEKI A I;;0;K;Komercreģistrs;IK;Individuālais komersants;1998-02-26;2014-04-10\n";
 
 		// Act
-		companyRegisterService.saveUniqueCompanyTypes(uniqueTypes);
+		var result = companyRegisterService.getUniqueCompanyTypes(new StringReader(csvData));
 
 		// Assert
-		verify(companyTypeRepository, times(1)).save(any(CompanyType.class));
-		verify(companyTypeRepository, times(2)).getByCode(anyString());
+		assertEquals(2, result.size());
+		assertEquals("Individuālais komersants", result.get("IK"));
+		assertEquals(List.of("IK", "SIA"), List.copyOf(result.keySet()));
+	}
+
+	@Test
+	void testImportCompanyData_ResolvesCompanyTypesInOneCall() {
+		String csvData = CSV_HEADER
+				+ "12345;SEP001;Company A;;;;;;;SIA;Sabiedrība ar ierobežotu atbildību;2023-01-01;\n"
+				+ "67890;SEP002;Company B;;;;;;;AS;Akciju sabiedrība;2023-02-01;\n"
+				+ "67891;SEP003;Company C;;;;;;;SIA;Sabiedrība ar ierobežotu atbildību;2023-03-01;\n";
+		when(stagingTableService.create(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE)).thenReturn(
+				"company_register_staging");
+
+		companyRegisterService.importCompanyData(() -> new StringReader(csvData), "checksum", 0, context);
+
+		verify(companyTypeService, times(1)).saveAll(
+				Map.of("SIA", "Sabiedrība ar ierobežotu atbildību", "AS", "Akciju sabiedrība"));
 	}
 
 	@Test
-	public void testImportData_FileDownloadedAndProcessed() {
+	public void testImportData_FileDownloadedAndProcessed() throws IOException {
 		// Mocking dependencies
-		byte[] csvData = "register_number;sepa_code;name\n12345;SEP001;Company A".getBytes();
+		DownloadedFile csvFile = writeDownloadedFile("register_number;sepa_code;name\n12345;SEP001;Company A");
 		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://example.com/file.csv");
-		when(fileService.downloadFileByUrl(anyString())).thenReturn(csvData);
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.of(csvFile));
 
 		// Call method
-		companyRegisterService.importData();
+		companyRegisterService.run(context);
 
 		// Verify interactions
-		verify(fileService).downloadFileByUrl(anyString());
-		verify(csvParser).getDataLines(any(Reader.class));
+		verify(fileService).downloadFileIfModified(anyString(), any(Path.class), any());
+		verify(csvParser, times(2)).open(any(Reader.class), any(int[].class));
 	}
 
 	@Test
 	public void testImportData_FileNotDownloaded() {
 		// Mocking dependencies
 		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://example.com/file.csv");
-		when(fileService.downloadFileByUrl(anyString())).thenReturn(null);
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.empty());
 
 		// Call method
-		companyRegisterService.importData();
+		companyRegisterService.run(context);
 
 		// Verify that CSV parser is never called
-		verify(csvParser, never()).getDataLines(any(Reader.class));
+		verify(csvParser, never()).open(any(Reader.class), any(int[].class));
 	}
 
 	@Test
@@ -157,22 +245,128 @@ class CompanyRegisterImportServiceImplTest {
 		companyRegister.setRegisteredDate(LocalDate.now());
 		companyRegister.setTerminatedDate(null);
 
-		List<CompanyRegister> companyRegisterList = List.of(companyRegister);
+		Iterator<CompanyRegister> companyRegisters = List.of(companyRegister).iterator();
+
+		LongConsumer committedRows = rows -> {
+		};
 
 		// Call method
-		companyRegisterService.batchInsertCompanyRegister(companyRegisterList);
+		companyRegisterService.batchInsertCompanyRegister(companyRegisters, "company_register_staging", committedRows);
 
 		// Verify interactions
-		verify(jdbcTemplate).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+		verify(bulkLoadService).load(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_TABLE.withTableName("company_register_staging"),
+				companyRegisters, committedRows);
 	}
 
 	@Test
-	public void testTruncateCompanyRegisterTable() {
-		// Call method
-		companyRegisterService.truncateCompanyRegisterTable();
+	void testToRowValues() {
+		CompanyType companyType = new CompanyType();
+		companyType.setId(7);
+		companyType.setCode("SIA");
+		CompanyRegister companyRegister = new CompanyRegister();
+		companyRegister.setRegisterNumber("40003000000");
+		companyRegister.setName("Uzņēmums, SIA");
+		companyRegister.setCompanyType(companyType);
+		companyRegister.setRegisteredDate(LocalDate.parse("2020-01-01"));
+
+		Object[] values = CompanyRegisterImportServiceImpl.toRowValues(companyRegister);
+
+		assertEquals(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_TABLE.getColumns().size(), values.length);
+		assertEquals("40003000000", values[0]);
+		assertEquals(7, values[7]);
+		assertEquals(LocalDate.parse("2020-01-01"), values[8]);
+		assertNull(values[9]);
+	}
+
+	@Test
+	void testImportCompanyData_LoadsIntoStagingTableAndSwaps() {
+		when(stagingTableService.create(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE)).thenReturn(
+				"company_register_staging");
+
+		companyRegisterService.importCompanyData(() -> new StringReader(CSV_HEADER), "checksum", 0, context);
+
+		InOrder inOrder = inOrder(stagingTableService, bulkLoadService, companyRegisterNumberIndexService, importGenerationService);
+		inOrder.verify(stagingTableService).create(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+		inOrder.verify(bulkLoadService).load(eq(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_TABLE.withTableName(
+				"company_register_staging")), any(), any());
+		inOrder.verify(stagingTableService).buildIndexes(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+		inOrder.verify(stagingTableService).swap(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+		inOrder.verify(companyRegisterNumberIndexService).reload();
+		inOrder.verify(importGenerationService).publish(ImportJobType.COMPANY_REGISTER);
+		verify(stagingTableService, never()).drop(any());
+	}
+
+	@Test
+	void testReload_ReloadsNumberIndex() {
+		companyRegisterService.reload();
 
-		// Verify interaction
-		verify(jdbcTemplate).execute("TRUNCATE TABLE company_register");
+		verify(companyRegisterNumberIndexService).reload();
+	}
+
+	@Test
+	void testImportCompanyData_CheckpointsCommittedRows() {
+		ImportJob job = new ImportJob(ImportJobType.COMPANY_REGISTER);
+		job.setId(1L);
+		ImportJobContext jobContext = new ImportJobContext(job, false, saved -> {
+		});
+		when(stagingTableService.create(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE)).thenReturn(
+				"company_register_staging");
+		when(bulkLoadService.load(any(), any(), any())).thenAnswer(invocation -> {
+			invocation.<LongConsumer>getArgument(2).accept(5000);
+			throw new IllegalStateException("INSERT failed");
+		});
+
+		assertThrows(IllegalStateException.class,
+				() -> companyRegisterService.importCompanyData(() -> new StringReader(CSV_HEADER), "checksum", 0, jobContext));
+
+		assertEquals(Optional.of("5000"), jobContext.getCheckpoint("rows"));
+		verify(stagingTableService, never()).drop(any());
+	}
+
+	@Test
+	void testRun_ResumedJobLoadsRowsAfterCommittedOnes() throws IOException {
+		String csvData = CSV_HEADER
+				+ "12345;SEP001;Company A;;;;;;;SIA;Sabiedrība ar ierobežotu atbildību;2023-01-01;\n"
+				+ "67890;SEP002;Company B;;;;;;;AS;Akciju sabiedrība;2023-02-01;\n"
+				+ "67891;SEP003;Company C;;;;;;;SIA;Sabiedrība ar ierobežotu atbildību;2023-03-01;\n";
+		DownloadedFile csvFile = writeDownloadedFile(csvData);
+		ImportJob job = new ImportJob(ImportJobType.COMPANY_REGISTER);
+		job.setId(1L);
+		ImportJobContext failedRun = new ImportJobContext(job, false, saved -> {
+		});
+		failedRun.checkpointDownload(csvFile);
+		failedRun.checkpoint("rows", "2");
+		when(companyTypeService.saveAll(any())).thenReturn(new CompanyTypeLookup(List.of(companyType("SIA"), companyType("AS"))));
+		when(configService.get(DegraConfig.COMPANY_DOWNLOAD_LINK)).thenReturn("http://mock-url.com");
+		when(fileService.downloadFileIfModified(anyString(), any(Path.class), any())).thenReturn(Optional.of(csvFile));
+		List<String> loadedNumbers = new ArrayList<>();
+		when(bulkLoadService.load(any(), any(), any())).thenAnswer(invocation -> {
+			Iterator<CompanyRegister> rows = invocation.getArgument(1);
+			rows.forEachRemaining(company -> loadedNumbers.add(company.getRegisterNumber()));
+			return (long) loadedNumbers.size();
+		});
+
+		companyRegisterService.run(new ImportJobContext(job, true, saved -> {
+		}));
+
+		assertEquals(List.of("67891"), loadedNumbers);
+		verify(stagingTableService, never()).create(any());
+		verify(bulkLoadService).load(eq(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_TABLE.withTableName(
+				"company_register_staging")), any(), any());
+		verify(stagingTableService).swap(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+	}
+
+	@Test
+	void testImportCompanyData_DropsStagingTableOnFailure() {
+		when(stagingTableService.create(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE)).thenReturn(
+				"company_register_staging");
+		when(bulkLoadService.load(any(), any(), any())).thenThrow(new IllegalStateException("COPY failed"));
+
+		assertThrows(IllegalStateException.class, () -> companyRegisterService.importCompanyData(() -> new StringReader(CSV_HEADER), "checksum", 0, context));
+
+		verify(stagingTableService).drop(CompanyRegisterImportServiceImpl.COMPANY_REGISTER_STAGING_TABLE);
+		verify(stagingTableService, never()).swap(any());
+		verify(importGenerationService, never()).publish(any());
 	}
 
 	@Test
@@ -226,26 +420,27 @@ class CompanyRegisterImportServiceImplTest {
 	@Test
 	void testGetCompaniesLists() {
 		// Prepare data
-		List<String[]> lineData = List.of(
-				new String[]{"12345", "SEP001", "Company A", "", "", "", "", "", "", "LLC", "Limited Liability Company", "2023-01-01", ""},
-				new String[]{"67890", "SEP002", "Company B", "", "", "", "", "", "", "PLC", "Public Limited Company", "2023-02-01", ""}
-		);
+		String csvData = CSV_HEADER
+				+ "12345;SEP001;Company A;;;;;;;LLC;Limited Liability Company;2023-01-01;\n"
+				+ "67890;SEP002;Company B;;;;;;;PLC;Public Limited Company;2023-02-01;\n";
 
-		Map<String, CompanyType> companyTypeMap = new HashMap<>();
 		CompanyType llcType = new CompanyType();
 		llcType.setId(1);
 		llcType.setCode("LLC");
 		llcType.setName("Limited Liability Company");
-		companyTypeMap.put("LLC", llcType);
 
 		CompanyType plcType = new CompanyType();
 		plcType.setId(2);
 		plcType.setCode("PLC");
 		plcType.setName("Public Limited Company");
-		companyTypeMap.put("PLC", plcType);
+		CompanyTypeLookup companyTypes = new CompanyTypeLookup(List.of(llcType, plcType));
 
 		// Call method
-		List<CompanyRegister> companyRegisterList = companyRegisterService.getCompaniesLists(lineData, companyTypeMap);
+		List<CompanyRegister> companyRegisterList = new ArrayList<>();
+		try (CsvRecordReader records = csvParser.open(new StringReader(csvData), 0, 1, 2, 3, 4, 5, 9, 10, 11, 12)) {
+			companyRegisterService.getCompanies(records, companyTypes, ImportJobContext.detached(ImportJobType.COMPANY_REGISTER))
+					.forEachRemaining(companyRegisterList::add);
+		}
 
 		// Verify result
 		assertEquals(2, companyRegisterList.size());
@@ -297,4 +492,10 @@ class CompanyRegisterImportServiceImplTest {
 		verify(preparedStatement).setDate(4, java.sql.Date.valueOf("2023-01-01"));
 		verify(preparedStatement).setDate(5, java.sql.Date.valueOf("2023-12-31"));
 	}
-}
\ No newline at end of file
+
+	private static CompanyType companyType(String code) {
+		CompanyType companyType = new CompanyType();
+		companyType.setCode(code);
+		return companyType;
+	}
+}
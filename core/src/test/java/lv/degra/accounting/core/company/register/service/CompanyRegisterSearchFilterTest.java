@@ -0,0 +1,43 @@
+package lv.degra.accounting.core.company.register.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+
+class CompanyRegisterSearchFilterTest {
+
+	private final CompanyRegisterSearchFilter filter = new CompanyRegisterSearchFilter();
+
+	@Test
+	void testCanNarrow_OnlyFromWholeWords() {
+		assertTrue(filter.canNarrow("sia", "sia degra"));
+		assertTrue(filter.canNarrow("sia ", "sia d"));
+		assertFalse(filter.canNarrow("degr", "degra"));
+		assertFalse(filter.canNarrow(" ", " degra"));
+	}
+
+	@Test
+	void testMatches_WholeNameWordsOrRegisterNumberPrefix() {
+		CompanyRegisterDto company = new CompanyRegisterDto(1L, "40003000001", null, "SIA \"Degra\"", null, null);
+
+		assertTrue(filter.matches("degra sia", company));
+		assertTrue(filter.matches("400030", company));
+		assertFalse(filter.matches("degr", company));
+	}
+
+	@Test
+	void testRanking_MostSimilarNameFirst() {
+		CompanyRegisterDto exact = new CompanyRegisterDto(1L, "1", null, "Degra", null, null);
+		CompanyRegisterDto longer = new CompanyRegisterDto(2L, "2", null, "SIA Degra Group", null, null);
+
+		List<CompanyRegisterDto> ranked = List.of(longer, exact).stream().sorted(filter.ranking("degra")).toList();
+
+		assertEquals(List.of(exact, longer), ranked);
+	}
+}
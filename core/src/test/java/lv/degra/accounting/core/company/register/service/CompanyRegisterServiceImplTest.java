@@ -0,0 +1,139 @@
+package lv.degra.accounting.core.company.register.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterDto;
+import lv.degra.accounting.core.company.register.dto.CompanyRegisterLookupDto;
+import lv.degra.accounting.core.company.register.model.CompanyRegisterRepository;
+import lv.degra.accounting.core.company.register.search.CompanyRegisterNumberIndexService;
+import lv.degra.accounting.core.exception.InvalidRequestException;
+
+class CompanyRegisterServiceImplTest {
+
+	private CompanyRegisterRepository companyRegisterRepository;
+	private CompanyRegisterNumberIndexService companyRegisterNumberIndexService;
+	private CompanyRegisterServiceImpl companyRegisterService;
+
+	@BeforeEach
+	void setUp() {
+		companyRegisterRepository = mock(CompanyRegisterRepository.class);
+		companyRegisterNumberIndexService = mock(CompanyRegisterNumberIndexService.class);
+		companyRegisterService = new CompanyRegisterServiceImpl(companyRegisterRepository, companyRegisterNumberIndexService);
+	}
+
+	@Test
+	void testExistsByRegistrationNumber_IndexHitSkipsDatabase() {
+		when(companyRegisterNumberIndexService.contains("40003000000")).thenReturn(Optional.of(true));
+
+		assertTrue(companyRegisterService.existsByRegistrationNumber("40003000000"));
+		verify(companyRegisterRepository, never()).existsByRegisterNumber(anyString());
+	}
+
+	@Test
+	void testExistsByRegistrationNumber_IndexMissSkipsDatabase() {
+		when(companyRegisterNumberIndexService.contains("40003000001")).thenReturn(Optional.of(false));
+
+		assertFalse(companyRegisterService.existsByRegistrationNumber("40003000001"));
+		verify(companyRegisterRepository, never()).existsByRegisterNumber(anyString());
+	}
+
+	@Test
+	void testExistsByRegistrationNumber_AsksDatabaseWhenIndexCannotAnswer() {
+		when(companyRegisterNumberIndexService.contains("LV40003000001")).thenReturn(Optional.empty());
+		when(companyRegisterRepository.existsByRegisterNumber("LV40003000001")).thenReturn(true);
+
+		assertTrue(companyRegisterService.existsByRegistrationNumber("LV40003000001"));
+	}
+
+	@Test
+	void testStreamSuggestions_PassesCursorToRepository() {
+		companyRegisterService.streamSuggestions("sia", "A, SIA", 42L, 100, company -> {
+		});
+
+		ArgumentCaptor<CompanyRegisterDto> after = ArgumentCaptor.forClass(CompanyRegisterDto.class);
+		verify(companyRegisterRepository).streamSuggestions(eq("sia"), after.capture(), eq(100), any());
+		assertTrue(after.getValue().getId() == 42L && "A, SIA".equals(after.getValue().getName()));
+	}
+
+	@Test
+	void testStreamSuggestions_RejectsInvalidPage() {
+		assertThrows(InvalidRequestException.class, () -> companyRegisterService.streamSuggestions("sia", null, null, 0, company -> {
+		}));
+		assertThrows(InvalidRequestException.class, () -> companyRegisterService.streamSuggestions("sia", "A, SIA", null, 10, company -> {
+		}));
+		verify(companyRegisterRepository, never()).streamSuggestions(anyString(), any(), anyInt(), any());
+	}
+
+	@Test
+	void testLookupByRegistrationNumbers_KeepsRequestOrderAndFlagsMisses() {
+		CompanyRegisterDto first = company(1L, "40003000001");
+		CompanyRegisterDto second = company(2L, "40003000002");
+		when(companyRegisterRepository.findByRegisterNumbers(List.of("40003000002", "49999999999", "40003000001")))
+				.thenReturn(List.of(first, second));
+
+		List<CompanyRegisterLookupDto> result = companyRegisterService.lookupByRegistrationNumbers(
+				Arrays.asList("40003000002", "49999999999", "40003000001", null, "40003000002"));
+
+		assertEquals(5, result.size());
+		assertEquals(second, result.get(0).getCompany());
+		assertFalse(result.get(1).isFound());
+		assertNull(result.get(1).getCompany());
+		assertEquals("49999999999", result.get(1).getRegisterNumber());
+		assertEquals(first, result.get(2).getCompany());
+		assertFalse(result.get(3).isFound());
+		assertTrue(result.get(4).isFound());
+	}
+
+	@Test
+	void testLookupByRegistrationNumbers_QueriesDistinctNumbersInChunks() {
+		List<String> numbers = new ArrayList<>(IntStream.range(0, CompanyRegisterServiceImpl.LOOKUP_CHUNK_SIZE + 1)
+				.mapToObj(i -> String.valueOf(40_000_000_000L + i))
+				.toList());
+		numbers.addAll(numbers.subList(0, 10));
+		when(companyRegisterRepository.findByRegisterNumbers(any())).thenReturn(Collections.emptyList());
+
+		List<CompanyRegisterLookupDto> result = companyRegisterService.lookupByRegistrationNumbers(numbers);
+
+		assertEquals(numbers.size(), result.size());
+		ArgumentCaptor<List<String>> chunks = ArgumentCaptor.captor();
+		verify(companyRegisterRepository, times(2)).findByRegisterNumbers(chunks.capture());
+		assertEquals(CompanyRegisterServiceImpl.LOOKUP_CHUNK_SIZE, chunks.getAllValues().get(0).size());
+		assertEquals(1, chunks.getAllValues().get(1).size());
+	}
+
+	@Test
+	void testLookupByRegistrationNumbers_RejectsOversizedBatch() {
+		List<String> numbers = Collections.nCopies(CompanyRegisterServiceImpl.MAX_LOOKUP_SIZE + 1, "40003000001");
+
+		assertThrows(InvalidRequestException.class, () -> companyRegisterService.lookupByRegistrationNumbers(numbers));
+		verify(companyRegisterRepository, never()).findByRegisterNumbers(any());
+	}
+
+	private static CompanyRegisterDto company(Long id, String registerNumber) {
+		return new CompanyRegisterDto(id, registerNumber, null, "UZŅĒMUMS " + id, null, null);
+	}
+}
@@ -1,8 +1,11 @@
 package lv.degra.accounting.core.company.register.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -21,84 +24,99 @@ class CsvParserImplTest {
 	}
 
 	@Test
-	void testGetDataLines_SingleLine() {
+	void testOpen_SingleLine() {
 		String csvData = "Name;Age;City\nJohn Doe;30;New York";
-		StringReader reader = new StringReader(csvData);
 
-		List<String[]> result = csvParser.getDataLines(reader);
+		List<List<String>> result = readAll(csvData, 0, 1, 2);
 
 		assertEquals(1, result.size());
-		assertEquals("John Doe", result.get(0)[0]);
-		assertEquals("30", result.get(0)[1]);
-		assertEquals("New York", result.get(0)[2]);
+		assertEquals(List.of("John Doe", "30", "New York"), result.get(0));
 	}
 
 	@Test
-	void testGetDataLines_MultiLine() {
-		StringReader reader = CsvParserDataFactory.getSampleCsvReader();
+	void testOpen_MultipleLines() {
 		List<String[]> expectedData = CsvParserDataFactory.getExpectedParsedData();
 
-		List<String[]> result = csvParser.getDataLines(reader);
+		List<List<String>> result = readAll(CsvParserDataFactory.getSampleCsvData(), 0, 1, 2);
 
 		assertEquals(expectedData.size(), result.size());
 		for (int i = 0; i < expectedData.size(); i++) {
-			assertEquals(expectedData.get(i).length, result.get(i).length);
-			for (int j = 0; j < expectedData.get(i).length; j++) {
-				assertEquals(expectedData.get(i)[j], result.get(i)[j]);
-			}
+			assertEquals(List.of(expectedData.get(i)), result.get(i));
 		}
 	}
 
 	@Test
-	void testGetDataLines_EmbeddedQuotes() {
-		String csvData = "Name;Age;City\n\"Jack, \"\"\";40;San Francisco";
-		StringReader reader = new StringReader(csvData);
+	void testOpen_QuotedFieldSpanningLines() {
+		String csvData = "Name;Age;City\r\n\"Jack\nJones\";40;San Francisco\r\nJane Smith;25;Los Angeles\r\n";
+
+		List<List<String>> result = readAll(csvData, 0, 2);
+
+		assertEquals(2, result.size());
+		assertEquals(List.of("Jack\nJones", "", "San Francisco"), result.get(0));
+		assertEquals(List.of("Jane Smith", "", "Los Angeles"), result.get(1));
+	}
+
+	@Test
+	void testOpen_EmbeddedQuotes() {
+		String csvData = "Name;Age;City\n\"SIA \"\"Jack, \"\"\";40;San Francisco";
 
-		List<String[]> result = csvParser.getDataLines(reader);
+		List<List<String>> result = readAll(csvData, 0, 1, 2);
 
 		assertEquals(1, result.size());
-		assertEquals("Jack, ", result.get(0)[0]);
-		assertEquals("40", result.get(0)[1]);
-		assertEquals("San Francisco", result.get(0)[2]);
+		assertEquals("SIA \"Jack, \"", result.get(0).get(0));
+		assertEquals("40", result.get(0).get(1));
+		assertEquals("San Francisco", result.get(0).get(2));
+	}
+
+	@Test
+	void testOpen_MaterializesOnlyRequestedColumns() {
+		String csvData = "A;B;C;D\n1;2;3;4\n5;6\n";
+
+		List<List<String>> result = readAll(csvData, 1, 3);
+
+		assertEquals(List.of("", "2", "", "4"), result.get(0));
+		assertEquals(List.of("", "6", "", ""), result.get(1));
 	}
 
 	@Test
-	void testGetDataLines_EmptyFile() {
-		String csvData = "Name;Age;City\n";
-		StringReader reader = new StringReader(csvData);
+	void testOpen_RecordsLongerThanBuffer() {
+		String longValue = "x".repeat(200_000);
+		String csvData = "Name;Value\nfirst;\"" + longValue + "\"\nsecond;short";
 
-		List<String[]> result = csvParser.getDataLines(reader);
+		List<List<String>> result = readAll(csvData, 0, 1);
 
-		assertEquals(0, result.size());
+		assertEquals(2, result.size());
+		assertEquals(longValue, result.get(0).get(1));
+		assertEquals(List.of("second", "short"), result.get(1));
 	}
 
 	@Test
-	void testProcessField() {
-		CsvParserImpl parser = new CsvParserImpl();
-		StringBuilder field = new StringBuilder("Example");
-		boolean result = parser.processField(field);
-		assert !result : "Expected embedded quotes flag to be false";
-		assert field.toString().equals("Example\"") : "Expected field to end with a double quote";
-
-		field = new StringBuilder();
-		result = parser.processField(field);
-		assert result : "Expected embedded quotes flag to be true for an empty field";
+	void testOpen_EmptyFile() {
+		try (CsvRecordReader records = csvParser.open(new StringReader("Name;Age;City\n"), 0)) {
+			assertFalse(records.next());
+		}
 	}
 
 	@Test
-	void testJoinArrays() {
-		CsvParserImpl parser = new CsvParserImpl();
-		String[] array1 = {"A", "B", "C"};
-		String[] array2 = {"D", "E", "F"};
-		String[] result = parser.joinArrays(array1, array2);
-
-		assert result.length == 6 : "Expected length of 6";
-		assert result[0].equals("A") : "Expected 'A' at index 0";
-		assert result[1].equals("B") : "Expected 'B' at index 1";
-		assert result[2].equals("C") : "Expected 'C' at index 2";
-		assert result[3].equals("D") : "Expected 'D' at index 3";
-		assert result[4].equals("E") : "Expected 'E' at index 4";
-		assert result[5].equals("F") : "Expected 'F' at index 5";
+	void testMap_IteratesRecords() {
+		try (CsvRecordReader records = csvParser.open(CsvParserDataFactory.getSampleCsvReader(), 0)) {
+			var names = records.map(record -> record.get(0));
+
+			assertTrue(names.hasNext());
+			assertEquals("John Doe", names.next());
+			assertEquals("Jane Smith", names.next());
+			assertEquals("Jack,", names.next());
+			assertFalse(names.hasNext());
+		}
 	}
 
+	private List<List<String>> readAll(String csvData, int... columns) {
+		List<List<String>> result = new ArrayList<>();
+		try (CsvRecordReader records = csvParser.open(new StringReader(csvData), columns)) {
+			while (records.next()) {
+				result.add(List.copyOf(records.getRecord()));
+			}
+		}
+		return result;
+	}
 }
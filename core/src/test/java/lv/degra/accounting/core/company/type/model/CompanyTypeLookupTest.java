@@ -0,0 +1,43 @@
+package lv.degra.accounting.core.company.type.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CompanyTypeLookupTest {
+
+	private static final CompanyType SIA = new CompanyType(1, "SIA", "Sabiedrība ar ierobežotu atbildību");
+	private static final CompanyType AS = new CompanyType(2, "AS", "Akciju sabiedrība");
+	private static final CompanyType A = new CompanyType(3, "A", "Test");
+
+	@Test
+	void testGet_FindsTypesByCode() {
+		CompanyTypeLookup lookup = new CompanyTypeLookup(List.of(SIA, AS, A));
+
+		assertSame(SIA, lookup.get("SIA"));
+		assertSame(AS, lookup.get("AS"));
+		assertSame(A, lookup.get("A"));
+		assertEquals(3, lookup.size());
+	}
+
+	@Test
+	void testGet_ReturnsNullForUnknownOrInvalidCode() {
+		CompanyTypeLookup lookup = new CompanyTypeLookup(List.of(SIA, AS));
+
+		assertNull(lookup.get("IK"));
+		assertNull(lookup.get("SIAS"));
+		assertNull(lookup.get(null));
+	}
+
+	@Test
+	void testPack_DistinguishesCodesSharingPrefix() {
+		assertNotEquals(CompanyTypeLookup.pack("A"), CompanyTypeLookup.pack("A\0"));
+		assertNotEquals(CompanyTypeLookup.pack("AS"), CompanyTypeLookup.pack("ASA"));
+		assertEquals(-1, CompanyTypeLookup.pack("ABCD"));
+	}
+}
@@ -0,0 +1,69 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchInsertBulkLoadStrategyTest {
+
+	private static final BulkLoadTable<Integer> TABLE = new BulkLoadTable<>("test_table", List.of("code", "name"),
+			row -> new Object[] { row, "Name " + row });
+
+	private BatchInsertBulkLoadStrategy strategy;
+	private Connection connection;
+	private PreparedStatement preparedStatement;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		strategy = new BatchInsertBulkLoadStrategy();
+		connection = mock(Connection.class);
+		preparedStatement = mock(PreparedStatement.class);
+		when(connection.prepareStatement("INSERT INTO test_table (\"code\", \"name\") VALUES (?, ?)")).thenReturn(preparedStatement);
+	}
+
+	@Test
+	void testSupports_AnyConnection() {
+		assertTrue(strategy.supports(connection));
+	}
+
+	@Test
+	void testLoad_FlushesFixedSizeBatches() throws SQLException {
+		int rowCount = BatchInsertBulkLoadStrategy.BATCH_SIZE + 1;
+
+		List<Long> committedRows = new ArrayList<>();
+
+		long loaded = strategy.load(connection, TABLE, IntStream.range(0, rowCount).boxed().iterator(), committedRows::add);
+
+		assertEquals(rowCount, loaded);
+		assertEquals(List.of(), committedRows);
+		verify(preparedStatement, times(rowCount)).addBatch();
+		verify(preparedStatement, times(2)).executeBatch();
+		verify(preparedStatement).setObject(1, 0);
+		verify(preparedStatement).setObject(2, "Name 0");
+		verify(preparedStatement).close();
+	}
+
+	@Test
+	void testLoad_ReportsCommittedRowsInAutoCommitMode() throws SQLException {
+		int rowCount = BatchInsertBulkLoadStrategy.BATCH_SIZE + 1;
+		List<Long> committedRows = new ArrayList<>();
+		when(connection.getAutoCommit()).thenReturn(true);
+
+		strategy.load(connection, TABLE, IntStream.range(0, rowCount).boxed().iterator(), committedRows::add);
+
+		assertEquals(List.of((long) BatchInsertBulkLoadStrategy.BATCH_SIZE, (long) rowCount), committedRows);
+	}
+}
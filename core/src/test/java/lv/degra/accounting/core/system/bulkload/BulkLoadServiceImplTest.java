@@ -0,0 +1,88 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongConsumer;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import lv.degra.accounting.core.system.bulkload.exception.BulkLoadException;
+
+class BulkLoadServiceImplTest {
+
+	private static final BulkLoadTable<Integer> TABLE = new BulkLoadTable<>("test_table", List.of("code"), row -> new Object[] { row });
+
+	private DataSource dataSource;
+	private Connection connection;
+	private BulkLoadStrategy copyStrategy;
+	private BulkLoadStrategy batchStrategy;
+	private BulkLoadServiceImpl bulkLoadService;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		dataSource = mock(DataSource.class);
+		connection = mock(Connection.class);
+		copyStrategy = mock(BulkLoadStrategy.class);
+		batchStrategy = mock(BulkLoadStrategy.class);
+		when(dataSource.getConnection()).thenReturn(connection);
+		bulkLoadService = new BulkLoadServiceImpl(dataSource, List.of(copyStrategy, batchStrategy));
+	}
+
+	@Test
+	void testLoad_UsesFirstSupportedStrategy() throws SQLException {
+		Iterator<Integer> rows = List.of(1, 2).iterator();
+		when(copyStrategy.supports(connection)).thenReturn(true);
+		when(copyStrategy.load(eq(connection), eq(TABLE), eq(rows), any())).thenReturn(2L);
+
+		assertEquals(2L, bulkLoadService.load(TABLE, rows));
+		verify(batchStrategy, never()).load(any(), any(), any(), any());
+		verify(connection).close();
+	}
+
+	@Test
+	void testLoad_PassesCommittedRowsToStrategy() throws SQLException {
+		Iterator<Integer> rows = List.of(1).iterator();
+		LongConsumer committedRows = rowCount -> {
+		};
+		when(copyStrategy.supports(connection)).thenReturn(true);
+
+		bulkLoadService.load(TABLE, rows, committedRows);
+
+		verify(copyStrategy).load(connection, TABLE, rows, committedRows);
+	}
+
+	@Test
+	void testLoad_FallsBackWhenCopyIsNotSupported() throws SQLException {
+		Iterator<Integer> rows = List.of(1).iterator();
+		when(copyStrategy.supports(connection)).thenReturn(false);
+		when(batchStrategy.supports(connection)).thenReturn(true);
+		when(batchStrategy.load(eq(connection), eq(TABLE), eq(rows), any())).thenReturn(1L);
+
+		assertEquals(1L, bulkLoadService.load(TABLE, rows));
+		verify(copyStrategy, never()).load(any(), any(), any(), any());
+	}
+
+	@Test
+	void testLoad_WrapsSqlException() throws SQLException {
+		Iterator<Integer> rows = List.of(1).iterator();
+		when(copyStrategy.supports(connection)).thenReturn(true);
+		when(copyStrategy.load(eq(connection), eq(TABLE), eq(rows), any())).thenThrow(new SQLException("COPY failed"));
+
+		assertThrows(BulkLoadException.class, () -> bulkLoadService.load(TABLE, rows));
+		verify(connection).close();
+	}
+}
@@ -0,0 +1,102 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+class CopyBulkLoadStrategyTest {
+
+	private static final BulkLoadTable<String[]> TABLE = new BulkLoadTable<>("test_table", List.of("code", "name"),
+			row -> new Object[] { row[0], row[1] });
+
+	private CopyBulkLoadStrategy strategy;
+	private Connection connection;
+	private CopyIn copyIn;
+	private CopyManager copyManager;
+
+	@BeforeEach
+	void setUp() throws SQLException {
+		strategy = new CopyBulkLoadStrategy();
+		connection = mock(Connection.class);
+		PGConnection pgConnection = mock(PGConnection.class);
+		copyManager = mock(CopyManager.class);
+		copyIn = mock(CopyIn.class);
+		when(connection.unwrap(PGConnection.class)).thenReturn(pgConnection);
+		when(pgConnection.getCopyAPI()).thenReturn(copyManager);
+		when(copyManager.copyIn(anyString())).thenReturn(copyIn);
+	}
+
+	@Test
+	void testSupports_PostgresConnection() throws SQLException {
+		when(connection.isWrapperFor(PGConnection.class)).thenReturn(true);
+
+		assertTrue(strategy.supports(connection));
+	}
+
+	@Test
+	void testLoad_StreamsCsvRowsAndEndsCopy() throws SQLException {
+		ByteArrayOutputStream written = new ByteArrayOutputStream();
+		doAnswer(invocation -> {
+			written.write(invocation.getArgument(0, byte[].class), invocation.getArgument(1), invocation.getArgument(2));
+			return null;
+		}).when(copyIn).writeToCopy(any(byte[].class), anyInt(), anyInt());
+
+		List<Long> committedRows = new ArrayList<>();
+		when(connection.getAutoCommit()).thenReturn(true);
+
+		long rowCount = strategy.load(connection, TABLE, List.of(new String[] { "1", "Rīga" }, new String[] { "2", null }).iterator(),
+				committedRows::add);
+
+		assertEquals(2, rowCount);
+		assertEquals(List.of(2L), committedRows);
+		verify(copyManager).copyIn("COPY test_table (\"code\", \"name\") FROM STDIN WITH (FORMAT csv)");
+		verify(copyIn).endCopy();
+		assertEquals("\"1\",\"Rīga\"\n\"2\",\n", written.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testLoad_CancelsCopyOnFailure() throws SQLException {
+		when(copyIn.isActive()).thenReturn(true);
+		BulkLoadTable<String[]> failingTable = new BulkLoadTable<>("test_table", List.of("code"), row -> {
+			throw new IllegalStateException("Invalid row");
+		});
+
+		List<String[]> rows = List.<String[]>of(new String[] { "1" });
+		assertThrows(IllegalStateException.class, () -> strategy.load(connection, failingTable, rows.iterator(), committedRows -> {
+		}));
+
+		verify(copyIn).cancelCopy();
+		verify(copyIn, never()).endCopy();
+	}
+
+	@Test
+	void testAppendCsvRow_EscapesQuotesAndKeepsEmptyStrings() {
+		StringBuilder buffer = new StringBuilder();
+
+		CopyBulkLoadStrategy.appendCsvRow(buffer, new Object[] { "SIA \"Koks\"", "", null, LocalDate.of(2024, 1, 31), 5 });
+
+		assertEquals("\"SIA \"\"Koks\"\"\",\"\",,\"2024-01-31\",\"5\"\n", buffer.toString());
+	}
+}
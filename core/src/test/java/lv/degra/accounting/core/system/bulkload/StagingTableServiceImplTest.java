@@ -0,0 +1,76 @@
+package lv.degra.accounting.core.system.bulkload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class StagingTableServiceImplTest {
+
+	private static final StagingTable STAGING_TABLE = new StagingTable("test_register",
+			List.of(new TableConstraint("test_register_pkey", "PRIMARY KEY (id)")),
+			List.of(new TableIndex("test_register_code_idx", "(code)")));
+
+	private JdbcTemplate jdbcTemplate;
+	private StagingTableServiceImpl stagingTableService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		stagingTableService = new StagingTableServiceImpl(jdbcTemplate);
+	}
+
+	@Test
+	void testCreate_RecreatesStagingTableWithoutIndexes() {
+		String stagingTableName = stagingTableService.create(STAGING_TABLE);
+
+		assertEquals("test_register_staging", stagingTableName);
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).execute("DROP TABLE IF EXISTS test_register_staging");
+		inOrder.verify(jdbcTemplate).execute("CREATE TABLE test_register_staging (LIKE test_register INCLUDING ALL EXCLUDING INDEXES)");
+	}
+
+	@Test
+	void testBuildIndexes_UsesStagingNames() {
+		stagingTableService.buildIndexes(STAGING_TABLE);
+
+		verify(jdbcTemplate).execute("ALTER TABLE test_register_staging ADD CONSTRAINT test_register_pkey_staging PRIMARY KEY (id)");
+		verify(jdbcTemplate).execute("CREATE INDEX test_register_code_idx_staging ON test_register_staging (code)");
+		verify(jdbcTemplate).execute("ANALYZE test_register_staging");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testSwap_RenamesStagingTableIntoPlace() {
+		when(jdbcTemplate.query(anyString(), any(RowMapper.class), eq("test_register"))).thenReturn(
+				List.of("ALTER SEQUENCE test_register_id_seq OWNED BY test_register_staging.id"));
+
+		stagingTableService.swap(STAGING_TABLE);
+
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).execute("ALTER SEQUENCE test_register_id_seq OWNED BY test_register_staging.id");
+		inOrder.verify(jdbcTemplate).execute("DROP TABLE test_register");
+		inOrder.verify(jdbcTemplate).execute("ALTER TABLE test_register_staging RENAME TO test_register");
+		inOrder.verify(jdbcTemplate).execute("ALTER TABLE test_register RENAME CONSTRAINT test_register_pkey_staging TO test_register_pkey");
+		inOrder.verify(jdbcTemplate).execute("ALTER INDEX test_register_code_idx_staging RENAME TO test_register_code_idx");
+	}
+
+	@Test
+	void testDrop() {
+		stagingTableService.drop(STAGING_TABLE);
+
+		verify(jdbcTemplate).execute("DROP TABLE IF EXISTS test_register_staging");
+	}
+}
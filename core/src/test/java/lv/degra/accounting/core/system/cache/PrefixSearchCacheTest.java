@@ -0,0 +1,65 @@
+package lv.degra.accounting.core.system.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+class PrefixSearchCacheTest {
+
+	private static final int RESULT_LIMIT = 3;
+
+	private PrefixSearchCache<String> cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new PrefixSearchCache<>("testCache", Caffeine.newBuilder().build(), RESULT_LIMIT, new PrefixSearchFilter<>() {
+			@Override
+			public boolean matches(String query, String item) {
+				return item.startsWith(query);
+			}
+
+			@Override
+			public Comparator<String> ranking(String query) {
+				return Comparator.reverseOrder();
+			}
+		});
+	}
+
+	@Test
+	void testGet_DerivesNarrowerQueryFromCompleteBroaderResult() {
+		cache.put("ri", List.of("riga", "rinda"));
+
+		assertEquals(List.of("riga"), cache.get("rig", List.class));
+		assertEquals(List.of("riga"), cache.getNativeCache().getIfPresent("rig"));
+	}
+
+	@Test
+	void testGet_UsesLongestCachedPrefix() {
+		cache.put("r", List.of("rauna", "riga"));
+		cache.put("ri", List.of());
+
+		assertEquals(List.of(), cache.get("rig", List.class));
+	}
+
+	@Test
+	void testGet_DoesNotDeriveFromTruncatedBroaderResult() {
+		cache.put("r", List.of("rauna", "riga", "rinda"));
+
+		assertNull(cache.get("ri"));
+		assertEquals(List.of("rites"), cache.get("ri", () -> List.of("rites")));
+	}
+
+	@Test
+	void testGet_ReturnsExactHit() {
+		cache.put("riga", List.of("riga"));
+
+		assertEquals(List.of("riga"), cache.get("riga").get());
+	}
+}
@@ -1,33 +1,50 @@
 package lv.degra.accounting.core.system.files;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.eq;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.mockStatic;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.MockedStatic;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.HttpEntity;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.RequestMatcher;
 import org.springframework.util.FileSystemUtils;
 import org.springframework.web.client.RestTemplate;
 
@@ -36,11 +53,11 @@ import lv.degra.accounting.core.system.files.exception.DeleteFolderException;
 import lv.degra.accounting.core.system.files.exception.DownloadFileException;
 import lv.degra.accounting.core.system.files.exception.ExtractZipFileException;
 import lv.degra.accounting.core.system.files.exception.SaveFileException;
-import net.lingala.zip4j.ZipFile;
-import net.lingala.zip4j.exception.ZipException;
 
 class FileServiceImplTest {
 
+	private static final String DOWNLOAD_URL = "https://example.com/register.zip";
+
 	@InjectMocks
 	private FileServiceImpl fileService;
 
@@ -49,74 +66,6 @@ class FileServiceImplTest {
 		MockitoAnnotations.openMocks(this);
 	}
 
-	@Test
-	void testDownloadFileByUrl_Success() throws IOException {
-		// Arrange
-		String fileUrl = "https://example.com/file.zip";
-
-		// Load file content from the resources folder
-		ClassLoader classLoader = getClass().getClassLoader();
-		File file = new File(classLoader.getResource("aw_csv.zip").getFile());
-		byte[] fileContent = Files.readAllBytes(file.toPath());
-
-		// Mock RestTemplate
-		RestTemplate restTemplateMock = mock(RestTemplate.class);
-		when(restTemplateMock.exchange(
-				eq(fileUrl),
-				eq(HttpMethod.GET),
-				any(HttpEntity.class),
-				eq(byte[].class))
-		).thenReturn(ResponseEntity.ok(fileContent));
-
-		// Mock fileService with RestTemplate
-		ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class);
-		FileServiceImpl fileServiceWithMockedRestTemplate = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
-
-		// Act
-		byte[] result = fileServiceWithMockedRestTemplate.downloadFileByUrl(fileUrl);
-
-		// Assert
-		assertArrayEquals(fileContent, result, "Downloaded file content should match the content of aw_csv.zip");
-	}
-
-
-	@Test
-	void testDownloadFileByUrl_Failure() {
-		String fileUrl = "https://example.com/file.zip";
-		assertThrows(DownloadFileException.class, () -> fileService.downloadFileByUrl(fileUrl));
-	}
-
-	@Test
-	void testLoadFileLocally_FileExists() throws IOException {
-		Path path = Files.createTempFile("testFile", ".txt");
-		byte[] content = { 1, 2, 3 };
-		Files.write(path, content);
-		byte[] result = fileService.loadFileLocally(path.toString());
-		assertArrayEquals(content, result, "Loaded file content should match expected");
-		Files.delete(path);
-	}
-
-	@Test
-	void testLoadFileLocally_FileDoesNotExist() {
-		byte[] result = fileService.loadFileLocally("nonexistent.txt");
-		assertArrayEquals(new byte[] {}, result, "Should return empty byte array for nonexistent file");
-	}
-
-	@Test
-	void testUnzipFileInFolder_Success() throws IOException {
-		ZipFile zipFileMock = mock(ZipFile.class);
-		ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class);
-		RestTemplate restTemplateMock = mock(RestTemplate.class);
-		when(zipFileFactoryMock.createZipFile(anyString())).thenReturn(zipFileMock);
-		FileServiceImpl fileService = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
-		byte[] zipContent = {};
-		Path tempPath = Files.createTempDirectory("testUnzip");
-		doNothing().when(zipFileMock).extractAll(anyString());
-		fileService.unzipFileInFolder(zipContent);
-		verify(zipFileMock).extractAll(anyString());
-		Files.delete(tempPath);
-	}
-
 	@Test
 	void testSaveFileInFolder_Success() throws IOException {
 		Path path = Files.createTempFile("testSave", ".txt");
@@ -162,34 +111,6 @@ class FileServiceImplTest {
 		assertFalse(Files.exists(dir), "Directory should be deleted");
 	}
 
-	@Test
-	void testUnzipFileInFolder_Failure() throws ZipException {
-		byte[] zipContent = {};
-		ZipFile zipFileMock = mock(ZipFile.class);
-		ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class);
-		RestTemplate restTemplateMock = mock(RestTemplate.class);
-		when(zipFileFactoryMock.createZipFile(anyString())).thenReturn(zipFileMock);
-		doThrow(new ZipException("Zip extraction error")).when(zipFileMock).extractAll(anyString());
-		FileServiceImpl fileService = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
-		assertThrows(ExtractZipFileException.class, () -> fileService.unzipFileInFolder(zipContent));
-	}
-
-	@Test
-	void testLoadFileLocally_IOException() {
-		String localFilePath = "invalid/path/to/file.txt";
-		Path path = Paths.get(localFilePath);
-		try (MockedStatic<Files> mockedFiles = mockStatic(Files.class)) {
-			mockedFiles.when(() -> Files.notExists(path)).thenReturn(false);
-			mockedFiles.when(() -> Files.readAllBytes(path)).thenThrow(new IOException("Simulated IOException"));
-			RestTemplate restTemplateMock = mock(RestTemplate.class);
-			ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class);
-			FileServiceImpl fileService = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
-			byte[] result = fileService.loadFileLocally(localFilePath);
-			assertArrayEquals(new byte[] {}, result, "Should return an empty byte array on IOException");
-			mockedFiles.verify(() -> Files.readAllBytes(path), times(1));
-		}
-	}
-
 	@Test
 	void testDeleteDirectory_IOException() {
 		Path path = Path.of("invalid/path/to/directory");
@@ -204,55 +125,217 @@ class FileServiceImplTest {
 	}
 
 	@Test
-	void testDownloadFileByUrl_ResponseBodyNotNull() throws IOException {
-		// Arrange
-		String fileUrl = "https://example.com/file.zip";
+	void testDownloadFileByUrlToPath_StreamsBodyAndComputesChecksum(@TempDir Path tempDir) throws IOException {
+		byte[] content = Files.readAllBytes(Path.of("src/test/resources/aw_csv.zip"));
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET)).andExpect(headerDoesNotExist(HttpHeaders.RANGE))
+				.andRespond(withSuccess(content, MediaType.APPLICATION_OCTET_STREAM));
+		Path target = tempDir.resolve("download.zip");
+
+		DownloadedFile result = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertEquals(target, result.getPath());
+		assertEquals(content.length, result.getSize());
+		assertEquals(sha256(content), result.getChecksum());
+		assertArrayEquals(content, Files.readAllBytes(target));
+		assertFalse(Files.exists(tempDir.resolve("download.zip.part")));
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_ResumesInterruptedDownloadWithIfRange(@TempDir Path tempDir) throws IOException {
+		byte[] content = "0123456789abcdefghij".getBytes();
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET)).andExpect(headerDoesNotExist(HttpHeaders.RANGE))
+				.andRespond(withSuccess().headers(etagHeaders("\"v2\"")).body(interruptedBody(content, 10)));
+		server.expect(method(HttpMethod.GET)).andExpect(rangeHeader("bytes=10-")).andExpect(ifRangeHeader("\"v2\""))
+				.andRespond(withStatus(HttpStatus.PARTIAL_CONTENT).body(Arrays.copyOfRange(content, 10, content.length)));
+		Path target = tempDir.resolve("download.zip");
+
+		DownloadedFile result = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertArrayEquals(content, Files.readAllBytes(target));
+		assertEquals(sha256(content), result.getChecksum());
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_OverwritesPartialFileWhenRemoteFileChanged(@TempDir Path tempDir) throws IOException {
+		byte[] content = "fresh content".getBytes();
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET))
+				.andRespond(withSuccess().headers(etagHeaders("\"v1\"")).body(interruptedBody("stale content".getBytes(), 5)));
+		server.expect(method(HttpMethod.GET)).andExpect(rangeHeader("bytes=5-")).andExpect(ifRangeHeader("\"v1\""))
+				.andRespond(withSuccess(content, MediaType.APPLICATION_OCTET_STREAM));
+		Path target = tempDir.resolve("download.zip");
+
+		DownloadedFile result = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertArrayEquals(content, Files.readAllBytes(target));
+		assertEquals(sha256(content), result.getChecksum());
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_DiscardsPartialFileOfEarlierCall(@TempDir Path tempDir) throws IOException {
+		byte[] content = "fresh content".getBytes();
+		Files.write(tempDir.resolve("download.zip.part"), "stale".getBytes());
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET)).andExpect(headerDoesNotExist(HttpHeaders.RANGE))
+				.andRespond(withSuccess(content, MediaType.APPLICATION_OCTET_STREAM));
+		Path target = tempDir.resolve("download.zip");
+
+		new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertArrayEquals(content, Files.readAllBytes(target));
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_DoesNotResumeWithoutValidator(@TempDir Path tempDir) throws IOException {
+		byte[] content = "0123456789abcdefghij".getBytes();
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET)).andRespond(withSuccess().body(interruptedBody(content, 10)));
+		server.expect(method(HttpMethod.GET)).andExpect(headerDoesNotExist(HttpHeaders.RANGE))
+				.andRespond(withSuccess(content, MediaType.APPLICATION_OCTET_STREAM));
+		Path target = tempDir.resolve("download.zip");
+
+		new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertArrayEquals(content, Files.readAllBytes(target));
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_RestartsWhenRangeNotSatisfiable(@TempDir Path tempDir) throws IOException {
+		byte[] content = "whole file".getBytes();
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET))
+				.andRespond(withSuccess().headers(etagHeaders("\"v1\"")).body(interruptedBody(content, 4)));
+		server.expect(method(HttpMethod.GET)).andExpect(rangeHeader("bytes=4-"))
+				.andRespond(withStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE));
+		server.expect(method(HttpMethod.GET)).andExpect(headerDoesNotExist(HttpHeaders.RANGE))
+				.andRespond(withSuccess(content, MediaType.APPLICATION_OCTET_STREAM));
+		Path target = tempDir.resolve("download.zip");
+
+		new FileServiceImpl(mock(ZipFileFactory.class), restTemplate).downloadFileByUrl(DOWNLOAD_URL, target);
+
+		assertArrayEquals(content, Files.readAllBytes(target));
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileByUrlToPath_FailsAfterRetries(@TempDir Path tempDir) {
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(ExpectedCount.times(3), method(HttpMethod.GET)).andRespond(withServerError());
+		FileServiceImpl fileService = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate);
+
+		assertThrows(DownloadFileException.class, () -> fileService.downloadFileByUrl(DOWNLOAD_URL, tempDir.resolve("download.zip")));
+		server.verify();
+	}
+
+	@Test
+	void testDownloadFileIfModified_NotModified(@TempDir Path tempDir) {
+		RemoteFileState previous = new RemoteFileState("\"v1\"", "Mon, 06 Oct 2025 08:00:00 GMT", "checksum");
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET))
+				.andExpect(request -> assertEquals("\"v1\"", request.getHeaders().getFirst(HttpHeaders.IF_NONE_MATCH)))
+				.andExpect(request -> assertEquals(previous.getLastModified(), request.getHeaders().getFirst(HttpHeaders.IF_MODIFIED_SINCE)))
+				.andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+		Path target = tempDir.resolve("download.zip");
+
+		Optional<DownloadedFile> result = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate)
+				.downloadFileIfModified(DOWNLOAD_URL, target, previous);
+
+		assertTrue(result.isEmpty());
+		assertFalse(Files.exists(target));
+		server.verify();
+	}
 
-		// Load the file content from the resources folder
-		ClassLoader classLoader = getClass().getClassLoader();
-		File file = new File(classLoader.getResource("aw_csv.zip").getFile());
-		byte[] fileContent = Files.readAllBytes(file.toPath());
+	@Test
+	void testDownloadFileIfModified_ReturnsNewValidators(@TempDir Path tempDir) {
+		HttpHeaders responseHeaders = new HttpHeaders();
+		responseHeaders.setETag("\"v2\"");
+		responseHeaders.set(HttpHeaders.LAST_MODIFIED, "Tue, 07 Oct 2025 08:00:00 GMT");
+		RestTemplate restTemplate = new RestTemplate();
+		MockRestServiceServer server = MockRestServiceServer.bindTo(restTemplate).build();
+		server.expect(method(HttpMethod.GET)).andRespond(withSuccess("changed".getBytes(), MediaType.APPLICATION_OCTET_STREAM)
+				.headers(responseHeaders));
+
+		DownloadedFile result = new FileServiceImpl(mock(ZipFileFactory.class), restTemplate)
+				.downloadFileIfModified(DOWNLOAD_URL, tempDir.resolve("download.zip"), RemoteFileState.NONE).orElseThrow();
+
+		assertEquals("\"v2\"", result.getEtag());
+		assertEquals("Tue, 07 Oct 2025 08:00:00 GMT", result.getLastModified());
+		assertEquals(new RemoteFileState("\"v2\"", "Tue, 07 Oct 2025 08:00:00 GMT", sha256("changed".getBytes())),
+				result.toRemoteFileState());
+	}
 
-		// Mock RestTemplate
-		RestTemplate restTemplateMock = mock(RestTemplate.class);
-		ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class);
-		FileServiceImpl fileServiceWithMockedRestTemplate = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
+	@Test
+	void testReadZipEntry_StreamsSingleMember() {
+		FileServiceImpl fileService = new FileServiceImpl(new ZipFileFactory(), mock(RestTemplate.class));
 
-		// Mock the RestTemplate response
-		ResponseEntity<byte[]> mockResponse = ResponseEntity.ok(fileContent);
-		when(restTemplateMock.exchange(eq(fileUrl), eq(HttpMethod.GET), any(HttpEntity.class), eq(byte[].class))).thenReturn(mockResponse);
+		String header = fileService.readZipEntry(Path.of("src/test/resources/aw_csv.zip"), "AW_EKA.CSV",
+				entry -> new String(entry.readNBytes(64)));
 
-		// Act
-		byte[] result = fileServiceWithMockedRestTemplate.downloadFileByUrl(fileUrl);
+		assertTrue(header.contains("#KODS#;#TIPS_CD#"), header);
+	}
 
-		// Assert
-		assertArrayEquals(fileContent, result, "Should return the response body matching the file content from resources");
+	@Test
+	void testReadZipEntry_MissingMember() {
+		FileServiceImpl fileService = new FileServiceImpl(new ZipFileFactory(), mock(RestTemplate.class));
+
+		assertThrows(ExtractZipFileException.class,
+				() -> fileService.readZipEntry(Path.of("src/test/resources/aw_csv.zip"), "MISSING.CSV", entry -> entry.read()));
 	}
 
 	@Test
-	void testDownloadFileByUrl_ResponseBodyNull() {
-		// Arrange
-		String fileUrl = "https://example.com/file.zip";
-
-		// Mock RestTemplate
-		RestTemplate restTemplateMock = mock(RestTemplate.class);
-		when(restTemplateMock.exchange(
-				eq(fileUrl),
-				eq(HttpMethod.GET),
-				any(HttpEntity.class),
-				eq(byte[].class))
-		).thenReturn(ResponseEntity.ok(null));
-
-		// Create FileServiceImpl instance with mocked RestTemplate
-		ZipFileFactory zipFileFactoryMock = mock(ZipFileFactory.class); // Replace with actual dependency if required
-		FileServiceImpl fileServiceWithMockedRestTemplate = new FileServiceImpl(zipFileFactoryMock, restTemplateMock);
-
-		// Act
-		byte[] result = fileServiceWithMockedRestTemplate.downloadFileByUrl(fileUrl);
-
-		// Assert
-		assertArrayEquals(new byte[] {}, result, "Should return an empty byte array when response body is null");
+	void testReadZipEntry_NotAZipFile(@TempDir Path tempDir) throws IOException {
+		Path notZip = Files.writeString(tempDir.resolve("broken.zip"), "not a zip");
+		FileServiceImpl fileService = new FileServiceImpl(new ZipFileFactory(), mock(RestTemplate.class));
+
+		assertThrows(ExtractZipFileException.class, () -> fileService.readZipEntry(notZip, "AW_EKA.CSV", entry -> entry.read()));
 	}
 
+	private static RequestMatcher rangeHeader(String expectedRange) {
+		return request -> assertEquals(expectedRange, request.getHeaders().getFirst(HttpHeaders.RANGE));
+	}
 
+	private static RequestMatcher ifRangeHeader(String expectedValidator) {
+		return request -> assertEquals(expectedValidator, request.getHeaders().getFirst(HttpHeaders.IF_RANGE));
+	}
+
+	private static HttpHeaders etagHeaders(String etag) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setETag(etag);
+		return headers;
+	}
+
+	/**
+	 * A response body that breaks off with an I/O error after {@code length} bytes, like a dropped connection.
+	 */
+	private static Resource interruptedBody(byte[] content, int length) {
+		return new InputStreamResource(new SequenceInputStream(new ByteArrayInputStream(content, 0, length), new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException("Connection reset");
+			}
+		}));
+	}
+
+	private static String sha256(byte[] content) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
 }
@@ -0,0 +1,68 @@
+package lv.degra.accounting.core.system.files;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import lv.degra.accounting.core.system.configuration.DegraConfig;
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+
+class RemoteFileStateServiceImplTest {
+
+	private static final String LINK_KEY = DegraConfig.ADDRESS_DOWNLOAD_LINK;
+	private static final String FILE_URL = "https://data.gov.lv/aw_csv.zip";
+
+	@Mock
+	private ConfigService configService;
+
+	private RemoteFileStateServiceImpl remoteFileStateService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		remoteFileStateService = new RemoteFileStateServiceImpl(configService);
+	}
+
+	@Test
+	void testSaveAndGetState_RoundTrip() {
+		remoteFileStateService.saveState(LINK_KEY, FILE_URL,
+				new DownloadedFile(Path.of("aw_csv.zip"), "checksum", 10, "\"v1\"", "Mon, 06 Oct 2025 08:00:00 GMT"));
+		ArgumentCaptor<String> urlHash = ArgumentCaptor.forClass(String.class);
+		verify(configService).save(eq(LINK_KEY + RemoteFileStateServiceImpl.URL_SUFFIX), urlHash.capture());
+		verify(configService).save(LINK_KEY + RemoteFileStateServiceImpl.ETAG_SUFFIX, "\"v1\"");
+		verify(configService).save(LINK_KEY + RemoteFileStateServiceImpl.LAST_MODIFIED_SUFFIX, "Mon, 06 Oct 2025 08:00:00 GMT");
+		verify(configService).save(LINK_KEY + RemoteFileStateServiceImpl.CHECKSUM_SUFFIX, "checksum");
+
+		when(configService.get(LINK_KEY + RemoteFileStateServiceImpl.URL_SUFFIX)).thenReturn(urlHash.getValue());
+		when(configService.get(LINK_KEY + RemoteFileStateServiceImpl.ETAG_SUFFIX)).thenReturn("\"v1\"");
+		when(configService.get(LINK_KEY + RemoteFileStateServiceImpl.LAST_MODIFIED_SUFFIX)).thenReturn("");
+		when(configService.get(LINK_KEY + RemoteFileStateServiceImpl.CHECKSUM_SUFFIX)).thenReturn("checksum");
+
+		assertEquals(new RemoteFileState("\"v1\"", null, "checksum"), remoteFileStateService.getState(LINK_KEY, FILE_URL));
+	}
+
+	@Test
+	void testSaveState_StoresEmptyValueForMissingHeaders() {
+		remoteFileStateService.saveState(LINK_KEY, FILE_URL, new DownloadedFile(Path.of("aw_csv.zip"), "checksum", 10));
+
+		verify(configService).save(LINK_KEY + RemoteFileStateServiceImpl.ETAG_SUFFIX, "");
+		verify(configService).save(LINK_KEY + RemoteFileStateServiceImpl.LAST_MODIFIED_SUFFIX, "");
+	}
+
+	@Test
+	void testGetState_IgnoresValidatorsOfAnotherUrl() {
+		when(configService.get(anyString())).thenReturn("stored");
+
+		assertEquals(RemoteFileState.NONE, remoteFileStateService.getState(LINK_KEY, FILE_URL));
+	}
+}
@@ -0,0 +1,81 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import lv.degra.accounting.core.system.configuration.service.ConfigService;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+
+class ImportGenerationServiceImplTest {
+
+	private static final String GENERATION_KEY = "ADDRESS_REGISTER_IMPORT_GENERATION";
+	private static final String CACHE_NAME = "addressRegisterCache";
+
+	private ConfigService configService;
+	private ImportJobRunner runner;
+	private Cache cache;
+	private ImportGenerationServiceImpl importGenerationService;
+
+	@BeforeEach
+	void setUp() {
+		configService = mock(ConfigService.class);
+		runner = mock(ImportJobRunner.class);
+		when(runner.getJobType()).thenReturn(ImportJobType.ADDRESS_REGISTER);
+		when(runner.getCacheName()).thenReturn(CACHE_NAME);
+		cache = mock(Cache.class);
+		CacheManager cacheManager = mock(CacheManager.class);
+		when(cacheManager.getCache(CACHE_NAME)).thenReturn(cache);
+		StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+		beanFactory.addBean("runner", runner);
+		beanFactory.addBean("cacheManager", cacheManager);
+		importGenerationService = new ImportGenerationServiceImpl(configService, beanFactory.getBeanProvider(ImportJobRunner.class),
+				beanFactory.getBeanProvider(CacheManager.class));
+	}
+
+	@Test
+	void testReloadChangedImports_ReloadsAfterImportElsewhere() {
+		when(configService.get(GENERATION_KEY)).thenReturn("g1", "g2");
+		importGenerationService.rememberGenerations();
+
+		importGenerationService.reloadChangedImports();
+
+		verify(cache).clear();
+		verify(runner).reload();
+	}
+
+	@Test
+	void testReloadChangedImports_UnchangedGenerationKeepsState() {
+		when(configService.get(GENERATION_KEY)).thenReturn("g1");
+		importGenerationService.rememberGenerations();
+
+		importGenerationService.reloadChangedImports();
+
+		verify(cache, never()).clear();
+		verify(runner, never()).reload();
+	}
+
+	@Test
+	void testReloadChangedImports_OwnImportIsNotReloaded() {
+		when(configService.get(GENERATION_KEY)).thenReturn(null);
+		importGenerationService.rememberGenerations();
+
+		importGenerationService.publish(ImportJobType.ADDRESS_REGISTER);
+		ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+		verify(configService).save(eq(GENERATION_KEY), published.capture());
+		when(configService.get(GENERATION_KEY)).thenReturn(published.getValue());
+
+		importGenerationService.reloadChangedImports();
+
+		verify(runner, never()).reload();
+	}
+}
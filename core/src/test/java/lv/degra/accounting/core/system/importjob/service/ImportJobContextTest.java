@@ -0,0 +1,103 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import lv.degra.accounting.core.system.files.DownloadedFile;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobCancelledException;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+
+class ImportJobContextTest {
+
+	@Test
+	void testCheckpoints_SurviveResume() {
+		ImportJob job = persistedJob();
+		ImportJobContext context = new ImportJobContext(job, false, saved -> {
+		});
+		context.checkpoint("staging");
+		context.checkpoint("file:AW_EKA.CSV", "42");
+
+		ImportJobContext resumed = new ImportJobContext(job, true, saved -> {
+		});
+
+		assertTrue(resumed.isCheckpointed("staging"));
+		assertEquals(Optional.of("42"), resumed.getCheckpoint("file:AW_EKA.CSV"));
+		assertFalse(resumed.isCheckpointed("indexed"));
+	}
+
+	@Test
+	void testDownloadCheckpoint_SurvivesResumeWithValidators() {
+		ImportJob job = persistedJob();
+		Path file = Path.of("company_register.csv");
+		DownloadedFile download = new DownloadedFile(file, "checksum", 1024, "\"v2\"", "Mon, 06 Oct 2025 08:00:00 GMT");
+		new ImportJobContext(job, false, saved -> {
+		}).checkpointDownload(download);
+
+		ImportJobContext resumed = new ImportJobContext(job, true, saved -> {
+		});
+
+		assertEquals(Optional.of(download), resumed.getDownloadCheckpoint(file));
+	}
+
+	@Test
+	void testDownloadCheckpoint_WithoutValidators() {
+		ImportJob job = persistedJob();
+		Path file = Path.of("address_register.zip");
+		new ImportJobContext(job, false, saved -> {
+		}).checkpointDownload(new DownloadedFile(file, "checksum", 10));
+
+		ImportJobContext resumed = new ImportJobContext(job, true, saved -> {
+		});
+
+		assertEquals(Optional.of(new DownloadedFile(file, "checksum", 10)), resumed.getDownloadCheckpoint(file));
+		assertEquals(Optional.empty(), new ImportJobContext(persistedJob(), true, saved -> {
+		}).getDownloadCheckpoint(file));
+	}
+
+	@Test
+	void testCheckpoints_IgnoredWhenStartedFresh() {
+		ImportJob job = persistedJob();
+		job.setCheckpoint("staging=");
+
+		ImportJobContext context = new ImportJobContext(job, false, saved -> {
+		});
+
+		assertFalse(context.isCheckpointed("staging"));
+	}
+
+	@Test
+	void testEnterStage_SavesJobAndStopsAfterCancel() {
+		List<ImportJobStatus> savedStages = new ArrayList<>();
+		ImportJobContext context = new ImportJobContext(persistedJob(), false, saved -> savedStages.add(saved.getStatus()));
+
+		context.enterStage(ImportJobStatus.DOWNLOADING);
+		context.cancel();
+
+		assertThrows(ImportJobCancelledException.class, () -> context.enterStage(ImportJobStatus.LOADING));
+		assertThrows(ImportJobCancelledException.class, context::rowParsed);
+		assertEquals(List.of(ImportJobStatus.DOWNLOADING), savedStages);
+		assertFalse(context.isResumable());
+	}
+
+	@Test
+	void testDetached_IsNotResumable() {
+		assertFalse(ImportJobContext.detached(ImportJobType.COMPANY_REGISTER).isResumable());
+	}
+
+	private static ImportJob persistedJob() {
+		ImportJob job = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		job.setId(1L);
+		return job;
+	}
+}
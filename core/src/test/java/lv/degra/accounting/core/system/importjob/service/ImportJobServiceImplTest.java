@@ -0,0 +1,302 @@
+package lv.degra.accounting.core.system.importjob.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import lv.degra.accounting.core.system.importjob.enums.ImportJobStatus;
+import lv.degra.accounting.core.system.importjob.enums.ImportJobType;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobNotFoundException;
+import lv.degra.accounting.core.system.importjob.exception.ImportJobStateException;
+import lv.degra.accounting.core.system.importjob.model.ImportJob;
+import lv.degra.accounting.core.system.importjob.model.ImportJobRepository;
+import lv.degra.accounting.core.system.lock.model.ClusterLock;
+import lv.degra.accounting.core.system.lock.service.ClusterLockService;
+
+class ImportJobServiceImplTest {
+
+	private static final long JOB_ID = 7L;
+	private static final long OTHER_JOB_ID = 3L;
+	private static final String LOCK_NAME = "import:ADDRESS_REGISTER";
+
+	@Mock
+	private ImportJobRepository importJobRepository;
+
+	@Mock
+	private ImportJobRunner runner;
+
+	@Mock
+	private ClusterLockService clusterLockService;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private ImportJobServiceImpl importJobService;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		when(runner.getJobType()).thenReturn(ImportJobType.ADDRESS_REGISTER);
+		when(importJobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+			ImportJob job = invocation.getArgument(0);
+			if (job.getId() == null) {
+				job.setId(JOB_ID);
+			}
+			return job;
+		});
+		when(clusterLockService.tryAcquire(anyString(), anyLong())).thenReturn(true);
+		when(clusterLockService.get(anyString())).thenReturn(Optional.empty());
+		meterRegistry = new SimpleMeterRegistry();
+		importJobService = new ImportJobServiceImpl(importJobRepository, clusterLockService, List.of(runner), meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		importJobService.shutdown();
+	}
+
+	@Test
+	void testRun_CompletesJobAndRecordsProgress() {
+		ImportJobContext context = newContext(new ImportJob(ImportJobType.ADDRESS_REGISTER), false);
+		doAnswer(invocation -> {
+			ImportJobContext jobContext = invocation.getArgument(0);
+			jobContext.enterStage(ImportJobStatus.LOADING);
+			jobContext.rowParsed();
+			jobContext.rowsLoaded(1);
+			return null;
+		}).when(runner).run(context);
+
+		importJobService.run(runner, context);
+
+		ImportJob job = importJobService.get(JOB_ID);
+		assertEquals(ImportJobStatus.COMPLETED, job.getStatus());
+		assertEquals(1, job.getRowsParsed());
+		assertEquals(1, job.getRowsLoaded());
+		assertTrue(job.getFinishedAt() != null);
+	}
+
+	@Test
+	void testRun_MarksJobFailedWithErrorMessage() {
+		ImportJobContext context = newContext(new ImportJob(ImportJobType.ADDRESS_REGISTER), false);
+		doThrow(new IllegalStateException("Database unavailable")).when(runner).run(context);
+
+		importJobService.run(runner, context);
+
+		ImportJob job = importJobService.get(JOB_ID);
+		assertEquals(ImportJobStatus.FAILED, job.getStatus());
+		assertEquals("Database unavailable", job.getErrorMessage());
+	}
+
+	@Test
+	void testRun_MarksJobCancelledWhenRunnerStopsOnCancellation() {
+		ImportJobContext context = newContext(new ImportJob(ImportJobType.ADDRESS_REGISTER), false);
+		doAnswer(invocation -> {
+			ImportJobContext jobContext = invocation.getArgument(0);
+			jobContext.cancel();
+			jobContext.rowParsed();
+			return null;
+		}).when(runner).run(context);
+
+		importJobService.run(runner, context);
+
+		assertEquals(ImportJobStatus.CANCELLED, importJobService.get(JOB_ID).getStatus());
+	}
+
+	@Test
+	void testSubmit_ReturnsRunningJobInsteadOfStartingAnother() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			started.countDown();
+			release.await(5, TimeUnit.SECONDS);
+			return null;
+		}).when(runner).run(any(ImportJobContext.class));
+
+		ImportJob first = importJobService.submit(ImportJobType.ADDRESS_REGISTER);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		ImportJob second = importJobService.submit(ImportJobType.ADDRESS_REGISTER);
+		release.countDown();
+
+		assertSame(first, second);
+		verify(runner).run(any(ImportJobContext.class));
+		verify(clusterLockService).tryAcquire(LOCK_NAME, JOB_ID);
+	}
+
+	@Test
+	void testSubmit_ReturnsJobOfInstanceHoldingLock() {
+		ImportJob remoteJob = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		remoteJob.setId(OTHER_JOB_ID);
+		remoteJob.setStatus(ImportJobStatus.LOADING);
+		when(clusterLockService.tryAcquire(LOCK_NAME, JOB_ID)).thenReturn(false);
+		when(clusterLockService.get(LOCK_NAME)).thenReturn(Optional.of(heldLock(OTHER_JOB_ID)));
+		when(importJobRepository.findById(OTHER_JOB_ID)).thenReturn(Optional.of(remoteJob));
+
+		ImportJob job = importJobService.submit(ImportJobType.ADDRESS_REGISTER);
+
+		assertSame(remoteJob, job);
+		verify(importJobRepository).delete(any(ImportJob.class));
+		verify(runner, never()).run(any(ImportJobContext.class));
+	}
+
+	@Test
+	void testRun_ReleasesLockWhenJobFinishes() {
+		ImportJobContext context = newContext(new ImportJob(ImportJobType.ADDRESS_REGISTER), false);
+		doThrow(new IllegalStateException("Database unavailable")).when(runner).run(context);
+
+		importJobService.run(runner, context);
+
+		verify(clusterLockService).release(LOCK_NAME);
+	}
+
+	@Test
+	void testRenewLocks_CancelsJobThatLostItsLock() throws InterruptedException {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch cancelled = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			ImportJobContext context = invocation.getArgument(0);
+			started.countDown();
+			while (!context.isCancelRequested()) {
+				Thread.sleep(10);
+			}
+			cancelled.countDown();
+			return null;
+		}).when(runner).run(any(ImportJobContext.class));
+		when(clusterLockService.renew(LOCK_NAME)).thenReturn(false);
+
+		importJobService.submit(ImportJobType.ADDRESS_REGISTER);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertEquals(1, meterRegistry.get(ImportJobServiceImpl.METRIC_IMPORT_LOCK_HELD).gauge().value());
+		importJobService.renewLocks();
+
+		assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testSubmit_RejectsTypeWithoutRunner() {
+		assertThrows(ImportJobStateException.class, () -> importJobService.submit(ImportJobType.COMPANY_REGISTER));
+	}
+
+	@Test
+	void testResume_RejectsCompletedJob() {
+		ImportJob job = storedJob(ImportJobStatus.COMPLETED);
+
+		assertThrows(ImportJobStateException.class, () -> importJobService.resume(job.getId()));
+	}
+
+	@Test
+	void testResume_RestartsFailedJobWithItsCheckpoints() throws InterruptedException {
+		ImportJob job = storedJob(ImportJobStatus.FAILED);
+		job.setCheckpoint("staging=\nfile:AW_EKA.CSV=10");
+		job.setErrorMessage("Database unavailable");
+		CountDownLatch finished = new CountDownLatch(1);
+		doAnswer(invocation -> {
+			ImportJobContext context = invocation.getArgument(0);
+			assertTrue(context.isResumed());
+			assertEquals(Optional.of("10"), context.getCheckpoint("file:AW_EKA.CSV"));
+			finished.countDown();
+			return null;
+		}).when(runner).run(any(ImportJobContext.class));
+
+		ImportJob resumed = importJobService.resume(job.getId());
+
+		assertNull(resumed.getErrorMessage());
+		assertTrue(finished.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void testCancel_MarksStaleUnfinishedJobCancelled() {
+		storedJob(ImportJobStatus.LOADING);
+
+		ImportJob job = importJobService.cancel(JOB_ID);
+
+		assertEquals(ImportJobStatus.CANCELLED, job.getStatus());
+		assertTrue(job.isCancelRequested());
+	}
+
+	@Test
+	void testCancel_RejectsJobRunningOnAnotherInstance() {
+		storedJob(ImportJobStatus.LOADING);
+		when(clusterLockService.get(LOCK_NAME)).thenReturn(Optional.of(heldLock(JOB_ID)));
+
+		assertThrows(ImportJobStateException.class, () -> importJobService.cancel(JOB_ID));
+	}
+
+	@Test
+	void testGet_ThrowsWhenJobDoesNotExist() {
+		when(importJobRepository.findById(JOB_ID)).thenReturn(Optional.empty());
+
+		assertThrows(ImportJobNotFoundException.class, () -> importJobService.get(JOB_ID));
+	}
+
+	@Test
+	void testFailInterruptedJobs_MarksUnfinishedJobsFailed() {
+		ImportJob job = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		job.setId(JOB_ID);
+		job.setStatus(ImportJobStatus.LOADING);
+		when(importJobRepository.findByJobTypeInAndStatusIn(anyCollection(), anyCollection())).thenReturn(List.of(job));
+
+		importJobService.failInterruptedJobs();
+
+		assertEquals(ImportJobStatus.FAILED, job.getStatus());
+		verify(importJobRepository).save(job);
+	}
+
+	@Test
+	void testFailInterruptedJobs_SkipsJobRunningOnAnotherInstance() {
+		ImportJob job = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		job.setId(OTHER_JOB_ID);
+		job.setStatus(ImportJobStatus.LOADING);
+		when(importJobRepository.findByJobTypeInAndStatusIn(anyCollection(), anyCollection())).thenReturn(List.of(job));
+		when(clusterLockService.get(LOCK_NAME)).thenReturn(Optional.of(heldLock(OTHER_JOB_ID)));
+
+		importJobService.failInterruptedJobs();
+
+		assertEquals(ImportJobStatus.LOADING, job.getStatus());
+		assertFalse(job.isCancelRequested());
+		verify(importJobRepository, never()).save(job);
+	}
+
+	private ImportJobContext newContext(ImportJob job, boolean resumed) {
+		ImportJob saved = importJobRepository.save(job);
+		when(importJobRepository.findById(saved.getId())).thenReturn(Optional.of(saved));
+		return new ImportJobContext(saved, resumed, importJobRepository::save);
+	}
+
+	private static ClusterLock heldLock(Long jobId) {
+		LocalDateTime now = LocalDateTime.now();
+		return new ClusterLock(LOCK_NAME, "other-node", jobId, now, now, now.plusMinutes(5), true);
+	}
+
+	private ImportJob storedJob(ImportJobStatus status) {
+		ImportJob job = new ImportJob(ImportJobType.ADDRESS_REGISTER);
+		job.setId(JOB_ID);
+		job.setStatus(status);
+		when(importJobRepository.findById(JOB_ID)).thenReturn(Optional.of(job));
+		return job;
+	}
+}
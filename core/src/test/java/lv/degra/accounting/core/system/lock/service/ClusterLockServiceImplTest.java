@@ -0,0 +1,55 @@
+package lv.degra.accounting.core.system.lock.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ClusterLockServiceImplTest {
+
+	private static final String LOCK_NAME = "import:ADDRESS_REGISTER";
+
+	private JdbcTemplate jdbcTemplate;
+	private ClusterLockServiceImpl clusterLockService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		clusterLockService = new ClusterLockServiceImpl(jdbcTemplate);
+	}
+
+	@Test
+	void testTryAcquire_SucceedsWhenUpsertTakesRow() {
+		when(jdbcTemplate.update(contains("ON CONFLICT (name) DO UPDATE"), eq(LOCK_NAME), eq(clusterLockService.getOwner()), eq(5L),
+				eq(ClusterLockServiceImpl.LEASE_DURATION_SECONDS))).thenReturn(1);
+
+		assertTrue(clusterLockService.tryAcquire(LOCK_NAME, 5L));
+	}
+
+	@Test
+	void testTryAcquire_FailsWhenLeaseHeldByAnotherOwner() {
+		when(jdbcTemplate.update(anyString(), eq(LOCK_NAME), anyString(), eq(5L), eq(ClusterLockServiceImpl.LEASE_DURATION_SECONDS)))
+				.thenReturn(0);
+
+		assertFalse(clusterLockService.tryAcquire(LOCK_NAME, 5L));
+	}
+
+	@Test
+	void testRenewAndRelease_OnlyTouchOwnLease() {
+		when(jdbcTemplate.update(contains("SET renewed_at"), eq(ClusterLockServiceImpl.LEASE_DURATION_SECONDS), eq(LOCK_NAME),
+				eq(clusterLockService.getOwner()))).thenReturn(1);
+
+		assertTrue(clusterLockService.renew(LOCK_NAME));
+		clusterLockService.release(LOCK_NAME);
+
+		verify(jdbcTemplate).update(contains("WHERE name = ? AND owner = ?"), eq(LOCK_NAME), eq(clusterLockService.getOwner()));
+	}
+}
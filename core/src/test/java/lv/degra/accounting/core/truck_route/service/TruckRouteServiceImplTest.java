@@ -0,0 +1,73 @@
+package lv.degra.accounting.core.truck_route.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.persistence.EntityManager;
+import lv.degra.accounting.core.config.mapper.FreightMapper;
+import lv.degra.accounting.core.truck.dto.TruckDto;
+import lv.degra.accounting.core.truck.service.TruckService;
+import lv.degra.accounting.core.truck_object.model.TruckObjectRepository;
+import lv.degra.accounting.core.truck_route.dto.TruckRouteDto;
+import lv.degra.accounting.core.truck_route.model.TruckRoute;
+import lv.degra.accounting.core.truck_route.model.TruckRouteRepository;
+import lv.degra.accounting.core.truck_route_page.dto.TruckRoutePageDto;
+import lv.degra.accounting.core.truck_route_page.model.TruckRoutePage;
+import lv.degra.accounting.core.truck_route_page.service.TruckRoutePageService;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+import lv.degra.accounting.core.truck_user_map.service.TruckUserAccessService;
+
+class TruckRouteServiceImplTest {
+
+	@Test
+	void testCreateOrUpdateTruckRoute_MapsRouteWithRefreshedPageTotals() {
+		TruckRouteRepository truckRouteRepository = mock(TruckRouteRepository.class);
+		TruckRoutePageService truckRoutePageService = mock(TruckRoutePageService.class);
+		TruckService truckService = mock(TruckService.class);
+		FreightMapper freightMapper = mock(FreightMapper.class);
+		TruckUserAccessService truckUserAccessService = mock(TruckUserAccessService.class);
+		EntityManager entityManager = mock(EntityManager.class);
+		TruckRouteServiceImpl truckRouteService = new TruckRouteServiceImpl(truckRouteRepository, truckRoutePageService, truckService,
+				freightMapper, truckUserAccessService, mock(TruckUserMapRepository.class), mock(TruckObjectRepository.class)) {
+			@Override
+			protected void validateUserAccessToTruck(String truckUid, TruckUserAccess access) {
+			}
+		};
+		ReflectionTestUtils.setField(truckRouteService, "entityManager", entityManager);
+
+		TruckDto truckDto = new TruckDto();
+		truckDto.setUid("truck-1");
+		TruckRoutePageDto truckRoutePageDto = new TruckRoutePageDto();
+		truckRoutePageDto.setTruck(truckDto);
+		TruckRouteDto truckRouteDto = new TruckRouteDto();
+		truckRouteDto.setTruckRoutePage(truckRoutePageDto);
+		TruckRoutePage truckRoutePage = new TruckRoutePage();
+		TruckRoute truckRoute = new TruckRoute();
+		TruckRoute savedTruckRoute = new TruckRoute();
+		savedTruckRoute.setTruckRoutePage(truckRoutePage);
+		TruckRouteDto savedTruckRouteDto = new TruckRouteDto();
+		when(truckUserAccessService.getCurrentUserAccess()).thenReturn(new TruckUserAccess("subject", 7, Set.of("truck-1"), "truck-1"));
+		when(truckService.findTruckDtoById("truck-1")).thenReturn(truckDto);
+		when(truckRoutePageService.getOrCreateUserRoutePageByRouteDate(any(), any(), any())).thenReturn(truckRoutePageDto);
+		when(freightMapper.toEntity(truckRouteDto)).thenReturn(truckRoute);
+		when(truckRouteRepository.saveAndFlush(truckRoute)).thenReturn(savedTruckRoute);
+		when(freightMapper.toDto(savedTruckRoute)).thenReturn(savedTruckRouteDto);
+
+		assertSame(savedTruckRouteDto, truckRouteService.createOrUpdateTruckRoute(truckRouteDto));
+
+		InOrder inOrder = inOrder(truckRouteRepository, entityManager, freightMapper);
+		inOrder.verify(truckRouteRepository).saveAndFlush(truckRoute);
+		inOrder.verify(entityManager).refresh(truckRoutePage);
+		inOrder.verify(freightMapper).toDto(savedTruckRoute);
+	}
+}
@@ -0,0 +1,74 @@
+package lv.degra.accounting.core.truck_route_page.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import lv.degra.accounting.core.config.mapper.FreightMapper;
+import lv.degra.accounting.core.exception.ResourceNotFoundException;
+import lv.degra.accounting.core.truck.model.Truck;
+import lv.degra.accounting.core.truck.service.TruckService;
+import lv.degra.accounting.core.truck_route_page.dto.TruckRoutePageDto;
+import lv.degra.accounting.core.truck_route_page.model.TruckRoutePage;
+import lv.degra.accounting.core.truck_route_page.model.TruckRoutePageRepository;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+import lv.degra.accounting.core.truck_user_map.service.TruckUserAccessService;
+import lv.degra.accounting.core.user.model.User;
+
+class TruckRoutePageServiceImplTest {
+
+	private static final String SUBJECT = "subject";
+	private static final LocalDate ROUTE_DATE = LocalDate.parse("2025-01-15");
+
+	private TruckRoutePageRepository truckRoutePageRepository;
+	private TruckService truckService;
+	private FreightMapper freightMapper;
+	private TruckUserMapRepository truckUserMapRepository;
+	private TruckRoutePageServiceImpl truckRoutePageService;
+
+	@BeforeEach
+	void setUp() {
+		truckRoutePageRepository = mock(TruckRoutePageRepository.class);
+		truckService = mock(TruckService.class);
+		freightMapper = mock(FreightMapper.class);
+		truckUserMapRepository = mock(TruckUserMapRepository.class);
+		TruckUserAccessService truckUserAccessService = mock(TruckUserAccessService.class);
+		when(truckUserAccessService.getAccess(SUBJECT)).thenReturn(new TruckUserAccess(SUBJECT, 7, Set.of("truck-1"), "truck-1"));
+		truckRoutePageService = new TruckRoutePageServiceImpl(truckRoutePageRepository, truckService, freightMapper, truckUserAccessService,
+				truckUserMapRepository);
+	}
+
+	@Test
+	void testUserRoutePageByRouteDateExists_ReturnsStoredPageWithoutLoadingRoutes() {
+		Truck truck = new Truck();
+		TruckRoutePage page = new TruckRoutePage();
+		TruckRoutePageDto pageDto = new TruckRoutePageDto();
+		when(truckService.findTruckById("truck-1")).thenReturn(truck);
+		when(truckRoutePageRepository.findByUserAndTruckAndRouteDate(any(User.class), any(Truck.class), any(LocalDate.class)))
+				.thenReturn(Optional.of(page));
+		when(freightMapper.toDto(page)).thenReturn(pageDto);
+
+		assertEquals(pageDto, truckRoutePageService.userRoutePageByRouteDateExists(ROUTE_DATE, SUBJECT, "truck-1"));
+		verify(truckUserMapRepository, never()).existsByUserIdAndTruckUid(any(), anyString());
+	}
+
+	@Test
+	void testUserRoutePageByRouteDateExists_TruckNotAssignedToUser() {
+		assertThrows(ResourceNotFoundException.class,
+				() -> truckRoutePageService.userRoutePageByRouteDateExists(ROUTE_DATE, SUBJECT, "truck-2"));
+		verify(truckUserMapRepository).existsByUserIdAndTruckUid(7, "truck-2");
+	}
+}
@@ -0,0 +1,139 @@
+package lv.degra.accounting.core.truck_route_page.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import lv.degra.accounting.core.truck_route.model.TruckRouteTotals;
+
+class TruckRoutePageTotalsServiceImplTest {
+
+	private static final String ROUTE_UID = "route-1";
+
+	private JdbcTemplate jdbcTemplate;
+	private PlatformTransactionManager transactionManager;
+	private TruckRoutePageTotalsServiceImpl truckRoutePageTotalsService;
+
+	@BeforeEach
+	void setUp() {
+		jdbcTemplate = mock(JdbcTemplate.class);
+		transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+		truckRoutePageTotalsService = new TruckRoutePageTotalsServiceImpl(jdbcTemplate, transactionManager);
+	}
+
+	@Test
+	void testApplyChange_InsertAddsStoredRouteToPage() {
+		TruckRouteTotals stored = new TruckRouteTotals("page-1", 120, 30.0, 10.0);
+		storedRoute(stored);
+
+		assertEquals(stored, truckRoutePageTotalsService.applyChange(null, ROUTE_UID));
+
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+		inOrder.verify(jdbcTemplate).update(anyString(), eq(1), eq(120L), eq(BigDecimal.valueOf(30.0)), eq(BigDecimal.valueOf(10.0)), eq("page-1"));
+	}
+
+	@Test
+	void testApplyChange_UpdateAppliesDifferenceOfStoredValues() {
+		storedRoute(new TruckRouteTotals("page-1", 150, 31.0, 5.0));
+
+		truckRoutePageTotalsService.applyChange(new TruckRouteTotals("page-1", 100, 20.0, 0.0), ROUTE_UID);
+
+		verify(jdbcTemplate).update(anyString(), eq(0), eq(50L), eq(new BigDecimal("11.0")), eq(new BigDecimal("5.0")), eq("page-1"));
+	}
+
+	@Test
+	void testApplyChange_UnchangedStoredTotalsNeedNoStatement() {
+		storedRoute(new TruckRouteTotals("page-1", 100, 20.0, 0.0));
+
+		truckRoutePageTotalsService.applyChange(new TruckRouteTotals("page-1", 100, 20.0, 0.0), ROUTE_UID);
+
+		verify(jdbcTemplate, never()).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+		verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+	}
+
+	@Test
+	void testApplyChange_MovedRouteLocksBothPagesInUidOrderFirst() throws SQLException {
+		storedRoute(new TruckRouteTotals("page-1", 100, 20.0, 0.0));
+
+		truckRoutePageTotalsService.applyChange(new TruckRouteTotals("page-2", 100, 20.0, 0.0), ROUTE_UID);
+
+		ArgumentCaptor<PreparedStatementSetter> lock = ArgumentCaptor.forClass(PreparedStatementSetter.class);
+		InOrder inOrder = inOrder(jdbcTemplate);
+		inOrder.verify(jdbcTemplate).query(eq("SELECT uid FROM truck_route_page WHERE uid = ANY(?) ORDER BY uid FOR NO KEY UPDATE"),
+				lock.capture(), any(RowCallbackHandler.class));
+		inOrder.verify(jdbcTemplate).update(anyString(), eq(-1), eq(-100L), eq(BigDecimal.valueOf(20.0).negate()),
+				eq(BigDecimal.valueOf(0.0).negate()), eq("page-2"));
+		inOrder.verify(jdbcTemplate).update(anyString(), eq(1), eq(100L), eq(BigDecimal.valueOf(20.0)), eq(BigDecimal.valueOf(0.0)),
+				eq("page-1"));
+		verify(bindArray(lock.getValue())).createArrayOf("varchar", new String[] { "page-2", "page-1" });
+	}
+
+	@Test
+	void testApplyChange_DeleteSubtractsRoute() {
+		when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<TruckRouteTotals>>any(), eq(ROUTE_UID))).thenReturn(List.of());
+
+		assertNull(truckRoutePageTotalsService.applyChange(new TruckRouteTotals("page-1", 100, 20.0, 5.0), ROUTE_UID));
+
+		verify(jdbcTemplate).update(anyString(), eq(-1), eq(-100L), eq(BigDecimal.valueOf(20.0).negate()), eq(BigDecimal.valueOf(5.0).negate()),
+				eq("page-1"));
+	}
+
+	@Test
+	void testRepairAll_RecomputesInLockedBatches() {
+		List<String> pageUids = new ArrayList<>(IntStream.range(0, TruckRoutePageTotalsServiceImpl.REPAIR_BATCH_SIZE + 1)
+				.mapToObj(i -> "page-" + i)
+				.toList());
+		when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(pageUids);
+		when(jdbcTemplate.update(anyString(), any(PreparedStatementSetter.class))).thenReturn(TruckRoutePageTotalsServiceImpl.REPAIR_BATCH_SIZE, 1);
+
+		assertEquals(pageUids.size(), truckRoutePageTotalsService.repairAll());
+
+		verify(jdbcTemplate, times(2)).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+		verify(jdbcTemplate, times(2)).update(anyString(), any(PreparedStatementSetter.class));
+		verify(transactionManager, times(2)).commit(any());
+	}
+
+	private void storedRoute(TruckRouteTotals stored) {
+		when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<TruckRouteTotals>>any(), eq(ROUTE_UID))).thenReturn(List.of(stored));
+	}
+
+	private static Connection bindArray(PreparedStatementSetter setter) throws SQLException {
+		Connection connection = mock(Connection.class);
+		PreparedStatement statement = mock(PreparedStatement.class);
+		when(statement.getConnection()).thenReturn(connection);
+		when(connection.createArrayOf(anyString(), any())).thenReturn(mock(Array.class));
+		setter.setValues(statement);
+		return connection;
+	}
+}
@@ -0,0 +1,134 @@
+package lv.degra.accounting.core.truck_user_map.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapView;
+import lv.degra.accounting.core.user.model.User;
+import lv.degra.accounting.core.user.service.UserService;
+
+class TruckUserAccessServiceImplTest {
+
+	private static final String SUBJECT = "keycloak-subject";
+
+	private UserService userService;
+	private TruckUserMapRepository truckUserMapRepository;
+	private TruckUserAccessServiceImpl truckUserAccessService;
+
+	@BeforeEach
+	void setUp() {
+		userService = mock(UserService.class);
+		truckUserMapRepository = mock(TruckUserMapRepository.class);
+		truckUserAccessService = new TruckUserAccessServiceImpl(userService, truckUserMapRepository, Duration.ofMinutes(1));
+
+		User user = new User();
+		user.setId(7);
+		user.setUserId(SUBJECT);
+		when(userService.getUserByUserId(SUBJECT)).thenReturn(user);
+		when(truckUserMapRepository.findViewsByUserId(7)).thenReturn(List.of(view("truck-1", false), view("truck-2", true)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void testGetAccess_ResolvesUserTrucksAndDefaultTruck() {
+		TruckUserAccess access = truckUserAccessService.getAccess(SUBJECT);
+
+		assertEquals(7, access.getUserId());
+		assertTrue(access.hasTruck("truck-1"));
+		assertTrue(access.hasTruck("truck-2"));
+		assertFalse(access.hasTruck("truck-3"));
+		assertEquals("truck-2", access.getDefaultTruckUid());
+		assertEquals(SUBJECT, access.toUser().getUserId());
+	}
+
+	@Test
+	void testGetAccess_NoDefaultTruck() {
+		when(truckUserMapRepository.findViewsByUserId(7)).thenReturn(List.of(view("truck-1", false)));
+
+		assertNull(truckUserAccessService.getAccess(SUBJECT).getDefaultTruckUid());
+	}
+
+	@Test
+	void testGetAccess_SharedBetweenRequestsUntilEvicted() {
+		TruckUserAccess first = truckUserAccessService.getAccess(SUBJECT);
+		assertSame(first, truckUserAccessService.getAccess(SUBJECT));
+		verify(truckUserMapRepository, times(1)).findViewsByUserId(7);
+
+		truckUserAccessService.evict(SUBJECT);
+		truckUserAccessService.getAccess(SUBJECT);
+
+		verify(truckUserMapRepository, times(2)).findViewsByUserId(7);
+	}
+
+	@Test
+	void testGetAccess_KeptForTheWholeRequest() {
+		ServletRequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+		RequestContextHolder.setRequestAttributes(requestAttributes);
+
+		TruckUserAccess first = truckUserAccessService.getAccess(SUBJECT);
+		truckUserAccessService.evictAll();
+		truckUserAccessService.getAccess(SUBJECT);
+		truckUserAccessService.getAccess(SUBJECT);
+
+		verify(userService, times(1)).getUserByUserId(SUBJECT);
+		assertSame(first, truckUserAccessService.getAccess(SUBJECT));
+	}
+
+	@Test
+	void testEvict_AlsoDropsRequestCopy() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		truckUserAccessService.getAccess(SUBJECT);
+		truckUserAccessService.evict(SUBJECT);
+		truckUserAccessService.getAccess(SUBJECT);
+
+		verify(truckUserMapRepository, times(2)).findViewsByUserId(7);
+	}
+
+	@Test
+	void testGetAccess_UnknownUserIsNotCached() {
+		when(userService.getUserByUserId("missing")).thenThrow(new IllegalArgumentException("User not found with ID: missing"));
+
+		assertThrows(IllegalArgumentException.class, () -> truckUserAccessService.getAccess("missing"));
+		assertThrows(IllegalArgumentException.class, () -> truckUserAccessService.getAccess("missing"));
+		verify(userService, times(2)).getUserByUserId("missing");
+	}
+
+	private static TruckUserMapView view(String truckUid, boolean isDefault) {
+		return new TruckUserMapView() {
+			@Override
+			public String getTruckUid() {
+				return truckUid;
+			}
+
+			@Override
+			public Boolean getIsDefault() {
+				return isDefault;
+			}
+		};
+	}
+}
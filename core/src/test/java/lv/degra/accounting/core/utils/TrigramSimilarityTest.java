@@ -0,0 +1,24 @@
+package lv.degra.accounting.core.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramSimilarityTest {
+
+	@Test
+	void testTrigrams_PadsWordsLikePgTrgm() {
+		assertEquals(Set.of("  c", " ca", "cat", "at "), TrigramSimilarity.trigrams("Cat"));
+	}
+
+	@Test
+	void testSimilarity() {
+		assertEquals(1.0, TrigramSimilarity.similarity("Degra", "degra"));
+		assertEquals(0.0, TrigramSimilarity.similarity("Degra", ""));
+		assertEquals(0.5, TrigramSimilarity.similarity("cat", "cats"), 0.0001);
+		assertTrue(TrigramSimilarity.similarity("SIA Degra", "degra") > TrigramSimilarity.similarity("SIA Degrada", "degra"));
+	}
+}
@@ -0,0 +1,125 @@
+package lv.degra.accounting.core.utils;
+
+import static lv.degra.accounting.core.config.ApiConstants.USER_MANAGER_ROLE_NAME;
+import static lv.degra.accounting.core.config.ApiConstants.USER_ROLE_NAME;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import lv.degra.accounting.core.truck_user_map.model.TruckUserAccess;
+import lv.degra.accounting.core.truck_user_map.model.TruckUserMapRepository;
+
+class TruckAccessUtilsTest {
+
+	private static final TruckUserAccess ACCESS = new TruckUserAccess("subject", 7, Set.of("truck-1", "truck-2"), "truck-1");
+
+	private TruckUserMapRepository truckUserMapRepository;
+
+	@BeforeEach
+	void setUp() {
+		truckUserMapRepository = mock(TruckUserMapRepository.class);
+		authenticate(USER_ROLE_NAME);
+	}
+
+	@AfterEach
+	void tearDown() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void testValidateUserAccessToTruck_CachedTruckRevokedElsewhereDenied() {
+		when(truckUserMapRepository.existsByUserIdAndTruckUid(7, "truck-2")).thenReturn(false);
+
+		assertThrows(AccessDeniedException.class,
+				() -> TruckAccessUtils.validateUserAccessToTruck("truck-2", ACCESS, truckUserMapRepository));
+	}
+
+	@Test
+	void testValidateUserAccessToTruck_NewlyAssignedTruckConfirmedByIndex() {
+		when(truckUserMapRepository.existsByUserIdAndTruckUid(7, "truck-3")).thenReturn(true);
+
+		assertDoesNotThrow(() -> TruckAccessUtils.validateUserAccessToTruck("truck-3", ACCESS, truckUserMapRepository));
+	}
+
+	@Test
+	void testValidateUserAccessToTruck_UnassignedTruckDenied() {
+		assertThrows(AccessDeniedException.class,
+				() -> TruckAccessUtils.validateUserAccessToTruck("truck-3", ACCESS, truckUserMapRepository));
+	}
+
+	@Test
+	void testValidateUserAccessToTruck_ManagerSkipsCheck() {
+		authenticate(USER_MANAGER_ROLE_NAME);
+
+		assertDoesNotThrow(() -> TruckAccessUtils.validateUserAccessToTruck("truck-3", ACCESS, truckUserMapRepository));
+		verify(truckUserMapRepository, never()).existsByUserIdAndTruckUid(anyInt(), anyString());
+	}
+
+	@Test
+	void testValidateUserAccessToTruck_WithoutUserRoleDenied() {
+		authenticate("GUEST");
+
+		assertThrows(AccessDeniedException.class,
+				() -> TruckAccessUtils.validateUserAccessToTruck("truck-1", ACCESS, truckUserMapRepository));
+	}
+
+	@Test
+	void testValidateUserAccessToTrucks_ChecksDistinctTrucksInOneQuery() {
+		when(truckUserMapRepository.findTruckUidsByUserIdAndTruckUidIn(7, List.of("truck-1", "truck-3", "truck-4")))
+				.thenReturn(Set.of("truck-1", "truck-3"));
+
+		AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+				() -> TruckAccessUtils.validateUserAccessToTrucks(List.of("truck-1", "truck-3", "truck-4", "truck-3"), ACCESS,
+						truckUserMapRepository));
+
+		assertTrue(exception.getMessage().endsWith("truck-4"));
+	}
+
+	@Test
+	void testValidateUserAccessToTrucks_CachedTruckRevokedElsewhereDenied() {
+		when(truckUserMapRepository.findTruckUidsByUserIdAndTruckUidIn(7, List.of("truck-1", "truck-2"))).thenReturn(Set.of("truck-1"));
+
+		AccessDeniedException exception = assertThrows(AccessDeniedException.class,
+				() -> TruckAccessUtils.validateUserAccessToTrucks(List.of("truck-1", "truck-2"), ACCESS, truckUserMapRepository));
+
+		assertTrue(exception.getMessage().endsWith("truck-2"));
+	}
+
+	@Test
+	void testValidateUserAccessToTrucks_ManagerSkipsCheck() {
+		authenticate(USER_MANAGER_ROLE_NAME);
+
+		assertDoesNotThrow(() -> TruckAccessUtils.validateUserAccessToTrucks(List.of("truck-3"), ACCESS, truckUserMapRepository));
+		verify(truckUserMapRepository, never()).findTruckUidsByUserIdAndTruckUidIn(anyInt(), any());
+	}
+
+	private static void authenticate(String role) {
+		Jwt jwt = Jwt.withTokenValue("token")
+				.header("alg", "none")
+				.subject("subject")
+				.claim("groups", List.of(role))
+				.issuedAt(Instant.now())
+				.expiresAt(Instant.now().plusSeconds(60))
+				.build();
+		SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+	}
+}
@@ -7,6 +7,10 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import lv.degra.accounting.core.truck_route_page.service.TruckRoutePageTotalsService;
 
 @SpringBootApplication
 @EnableConfigurationProperties
@@ -14,10 +18,21 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @ComponentScan(basePackages = { "lv.degra.accounting.core", "lv.degra.accounting.freighttracking" })
 @EntityScan(basePackages = { "lv.degra.accounting.core" })
 @EnableJpaRepositories(basePackages = "lv.degra.accounting.core")
+@EnableScheduling
 public class FreightTrackingApplication {
 
+	private final TruckRoutePageTotalsService truckRoutePageTotalsService;
+
+	public FreightTrackingApplication(TruckRoutePageTotalsService truckRoutePageTotalsService) {
+		this.truckRoutePageTotalsService = truckRoutePageTotalsService;
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(FreightTrackingApplication.class, args);
 	}
 
+	@Scheduled(cron = "${application.truck-route-page-totals-repair-cron}")
+	private void repairTruckRoutePageTotals() {
+		truckRoutePageTotalsService.repairAll();
+	}
 }
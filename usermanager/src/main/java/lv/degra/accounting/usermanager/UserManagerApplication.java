@@ -3,10 +3,15 @@ package lv.degra.accounting.usermanager;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import lv.degra.accounting.core.company.register.search.CompanyRegisterNumberIndexService;
 
 @SpringBootApplication
 @EnableConfigurationProperties
@@ -14,10 +19,22 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @ComponentScan(basePackages = { "lv.degra.accounting.core", "lv.degra.accounting.usermanager" })
 @EntityScan(basePackages = { "lv.degra.accounting.core" })
 @EnableJpaRepositories(basePackages = "lv.degra.accounting.core")
+@EnableScheduling
 public class UserManagerApplication {
 
+	private final CompanyRegisterNumberIndexService companyRegisterNumberIndexService;
+
+	public UserManagerApplication(CompanyRegisterNumberIndexService companyRegisterNumberIndexService) {
+		this.companyRegisterNumberIndexService = companyRegisterNumberIndexService;
+	}
+
 	public static void main(String[] args) {
 		SpringApplication.run(UserManagerApplication.class, args);
 	}
 
+	@EventListener(ApplicationReadyEvent.class)
+	public void buildCompanyRegisterNumberIndex() {
+		companyRegisterNumberIndexService.rebuild();
+	}
+
 }